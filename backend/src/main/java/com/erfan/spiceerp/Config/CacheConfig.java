@@ -0,0 +1,40 @@
+package com.erfan.spiceerp.Config;
+
+import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Dto.LeaveRequestDto;
+import com.erfan.spiceerp.Services.ReadThroughCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-through caches of hot service reads. Their statistics are served by GET /admin/caches.
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Attendance of every employee by date, invalidated by AttendanceService when attendance
+     * of a date or an employee's details change.
+     */
+    @Bean
+    public ReadThroughCache<LocalDate, List<AttendanceDto>> attendanceByDateCache(
+            @Value("${attendance.by-date-cache.max-entries:64}") int maxEntries,
+            @Value("${attendance.by-date-cache.ttl:PT10M}") Duration ttl) {
+        return new ReadThroughCache<>("attendanceByDate", maxEntries, ttl);
+    }
+
+    /**
+     * Pending leave requests, invalidated by LeaveService when a request is applied for,
+     * reviewed or cancelled, or an employee's details change.
+     */
+    @Bean
+    public ReadThroughCache<Boolean, List<LeaveRequestDto>> pendingLeaveRequestsCache(
+            @Value("${leave.pending-cache.ttl:PT1M}") Duration ttl) {
+        return new ReadThroughCache<>("pendingLeaveRequests", 1, ttl);
+    }
+}
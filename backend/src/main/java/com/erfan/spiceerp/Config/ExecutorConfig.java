@@ -0,0 +1,111 @@
+package com.erfan.spiceerp.Config;
+
+import com.erfan.spiceerp.Services.DashboardService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded worker pools for background work.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Worker pool for attendance generation chunks.
+     * Sized to the number of cores unless configured; when the queue is full the
+     * submitting thread runs the chunk itself instead of failing.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor attendanceGenerationExecutor(
+            @Value("${attendance.generation.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("attendance-gen-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Single worker that runs background attendance generation jobs one at a time.
+     * Each job fans its chunks out to the attendance generation pool.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor attendanceJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("attendance-job-");
+        return executor;
+    }
+
+    /**
+     * Pool that writes streamed responses (CSV exports) after the request thread is released.
+     * Bounds how many exports run at once; further exports wait in the queue.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor responseStreamingExecutor(
+            @Value("${export.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("response-stream-");
+        return executor;
+    }
+
+    /**
+     * Worker pool that renders report files. Bounds how many reports render at once; when the
+     * queue is full the submitting thread renders the report itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor(
+            @Value("${reports.threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 8);
+        executor.setThreadNamePrefix("report-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Worker pool that runs the reads of batch requests. Bounds how many reads run at once
+     * across all batches; when the queue is full the request thread runs the read itself.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor batchExecutor(
+            @Value("${batch.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 8);
+        executor.setThreadNamePrefix("batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Worker pool that runs the aggregate queries of the admin dashboard side by side. One
+     * refresh runs at a time, so one thread per query is enough.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(DashboardService.QUERIES);
+        executor.setMaxPoolSize(DashboardService.QUERIES);
+        executor.setQueueCapacity(DashboardService.QUERIES * 4);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
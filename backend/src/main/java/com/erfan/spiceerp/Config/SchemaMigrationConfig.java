@@ -0,0 +1,36 @@
+package com.erfan.spiceerp.Config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the db/migration scripts at startup.
+ * The scripts alter tables that Hibernate creates and updates (ddl-auto=update), so Flyway
+ * migrates once the EntityManagerFactory is up instead of before it. Startup fails when a
+ * migration fails. Flyway serializes instances starting at the same time with a database
+ * lock, and databases without a history table are baselined at V1 (the existing schema).
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+    /**
+     * Keeps Spring Boot from migrating before the EntityManagerFactory is built.
+     */
+    @Bean
+    public FlywayMigrationStrategy deferredMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    /**
+     * Migrates once Hibernate has brought the tables up to date.
+     */
+    @Bean
+    public InitializingBean schemaMigration(Flyway flyway, EntityManagerFactory entityManagerFactory) {
+        return flyway::migrate;
+    }
+}
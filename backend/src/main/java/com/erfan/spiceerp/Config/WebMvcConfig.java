@@ -0,0 +1,50 @@
+package com.erfan.spiceerp.Config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC settings.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor responseStreamingExecutor;
+
+    public WebMvcConfig(@Qualifier("responseStreamingExecutor") ThreadPoolTaskExecutor responseStreamingExecutor) {
+        this.responseStreamingExecutor = responseStreamingExecutor;
+    }
+
+    /**
+     * Run StreamingResponseBody writers on the bounded streaming pool instead of a new thread
+     * per response. The timeout is spring.mvc.async.request-timeout.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(responseStreamingExecutor);
+    }
+
+    /**
+     * CBOR (application/cbor) and Smile (application/x-jackson-smile) alongside JSON, chosen by
+     * the Accept header. Built from the application's Jackson builder so dates, enums and
+     * modules encode as they do in JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
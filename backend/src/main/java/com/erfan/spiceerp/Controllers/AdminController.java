@@ -1,29 +1,55 @@
 package com.erfan.spiceerp.Controllers;
 
 import com.erfan.spiceerp.Dto.*;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.PageCount;
+import com.erfan.spiceerp.Enums.RegisterType;
 import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Scheduler.AttendanceGenerationJobs;
+import com.erfan.spiceerp.Scheduler.AttendancePartitionScheduler;
 import com.erfan.spiceerp.Scheduler.AttendanceScheduler;
+import com.erfan.spiceerp.Scheduler.SchedulerLockManager;
 import com.erfan.spiceerp.Security.JwtService;
 import com.erfan.spiceerp.Security.JwtUtils;
+import com.erfan.spiceerp.Services.AttendanceArchiveService;
+import com.erfan.spiceerp.Services.AttendanceCalendarService;
+import com.erfan.spiceerp.Services.AttendanceResponseCache;
 import com.erfan.spiceerp.Services.AttendanceService;
+import com.erfan.spiceerp.Services.DashboardService;
 import com.erfan.spiceerp.Services.EmployeeService;
+import com.erfan.spiceerp.Services.ExportService;
 import com.erfan.spiceerp.Services.LeaveService;
+import com.erfan.spiceerp.Services.ReadThroughCache;
+import com.erfan.spiceerp.Services.RegisterReportService;
+import com.erfan.spiceerp.Services.TodayAttendanceBoard;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Admin Controller for employee management operations.
@@ -38,22 +64,69 @@ public class AdminController {
     private final EmployeeService employeeService;
     private final LeaveService leaveService;
     private final AttendanceService attendanceService;
+    private final AttendanceCalendarService attendanceCalendarService;
+    private final AttendanceResponseCache attendanceResponseCache;
+    private final TodayAttendanceBoard todayAttendanceBoard;
+    private final AttendanceArchiveService attendanceArchiveService;
+    private final ExportService exportService;
+    private final RegisterReportService registerReportService;
+    private final DashboardService dashboardService;
     private final AttendanceScheduler attendanceScheduler;
+    private final AttendanceGenerationJobs attendanceGenerationJobs;
+    private final AttendancePartitionScheduler attendancePartitionScheduler;
+    private final SchedulerLockManager schedulerLockManager;
+    private final List<ReadThroughCache<?, ?>> readThroughCaches;
     private final JwtService jwtService;
     private final JwtUtils jwtUtils;
+    private final NdjsonResponses ndjsonResponses;
+    private final BinaryResponses binaryResponses;
 
     public AdminController(EmployeeService employeeService,
             LeaveService leaveService,
             AttendanceService attendanceService,
+            AttendanceCalendarService attendanceCalendarService,
+            AttendanceResponseCache attendanceResponseCache,
+            TodayAttendanceBoard todayAttendanceBoard,
+            AttendanceArchiveService attendanceArchiveService,
+            ExportService exportService,
+            RegisterReportService registerReportService,
+            DashboardService dashboardService,
             AttendanceScheduler attendanceScheduler,
+            AttendanceGenerationJobs attendanceGenerationJobs,
+            AttendancePartitionScheduler attendancePartitionScheduler,
+            SchedulerLockManager schedulerLockManager,
+            List<ReadThroughCache<?, ?>> readThroughCaches,
             JwtService jwtService,
-            JwtUtils jwtUtils) {
+            JwtUtils jwtUtils,
+            NdjsonResponses ndjsonResponses,
+            BinaryResponses binaryResponses) {
         this.employeeService = employeeService;
         this.leaveService = leaveService;
         this.attendanceService = attendanceService;
+        this.attendanceCalendarService = attendanceCalendarService;
+        this.attendanceResponseCache = attendanceResponseCache;
+        this.todayAttendanceBoard = todayAttendanceBoard;
+        this.attendanceArchiveService = attendanceArchiveService;
+        this.exportService = exportService;
+        this.registerReportService = registerReportService;
+        this.dashboardService = dashboardService;
         this.attendanceScheduler = attendanceScheduler;
+        this.attendanceGenerationJobs = attendanceGenerationJobs;
+        this.attendancePartitionScheduler = attendancePartitionScheduler;
+        this.schedulerLockManager = schedulerLockManager;
+        this.readThroughCaches = readThroughCaches;
         this.jwtService = jwtService;
         this.jwtUtils = jwtUtils;
+        this.ndjsonResponses = ndjsonResponses;
+        this.binaryResponses = binaryResponses;
+    }
+
+    // ==================== DASHBOARD ====================
+
+    @GetMapping("/dashboard")
+    @Operation(summary = "Get headcounts, today's attendance, pending and recent leave requests")
+    public ResponseEntity<ApiResponse<DashboardDto>> getDashboard() {
+        return ResponseEntity.ok(ApiResponse.success(dashboardService.getDashboard()));
     }
 
     // ==================== EMPLOYEE CRUD ====================
@@ -74,6 +147,18 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(employees));
     }
 
+    @GetMapping(value = "/employees", params = "fields")
+    @Operation(summary = "Get all employees with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllEmployees(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(employeeService.getAllEmployees(fields)));
+    }
+
+    @GetMapping(value = "/employees", produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Stream all employees, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        return ndjsonResponses.stream(employeeService::streamAllEmployees);
+    }
+
     @GetMapping("/employees/active")
     @Operation(summary = "Get all active employees")
     public ResponseEntity<ApiResponse<List<EmployeeDto>>> getActiveEmployees() {
@@ -81,11 +166,20 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(employees));
     }
 
+    @GetMapping(value = "/employees/active", params = "fields")
+    @Operation(summary = "Get all active employees with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getActiveEmployees(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(employeeService.getAllActiveEmployees(fields)));
+    }
+
     @GetMapping("/employees/paginated")
-    @Operation(summary = "Get employees with pagination")
-    public ResponseEntity<ApiResponse<Page<EmployeeDto>>> getEmployeesPaginated(
-            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
-        Page<EmployeeDto> employees = employeeService.getEmployees(pageable);
+    @Operation(summary = "Get employees a slice at a time (keyset pagination); sort is id (newest first) or name")
+    public ResponseEntity<ApiResponse<CursorPageDto<EmployeeDto>>> getEmployeesPaginated(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "NONE") PageCount count) {
+        CursorPageDto<EmployeeDto> employees = employeeService.getEmployees(cursor, size, sort, count);
         return ResponseEntity.ok(ApiResponse.success(employees));
     }
 
@@ -106,6 +200,14 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(employees));
     }
 
+    @GetMapping(value = "/employees/search", params = "fields")
+    @Operation(summary = "Search employees by name or code, with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> searchEmployees(
+            @RequestParam String query,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(employeeService.searchEmployees(query, fields)));
+    }
+
     @GetMapping("/employees/{id}")
     @Operation(summary = "Get employee by ID")
     public ResponseEntity<ApiResponse<EmployeeDto>> getEmployeeById(@PathVariable Long id) {
@@ -153,11 +255,19 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
 
+    @GetMapping(value = "/leaves/pending", params = "fields")
+    @Operation(summary = "Get all pending leave requests with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getPendingLeaves(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(leaveService.getPendingLeaveRequests(fields)));
+    }
+
     @GetMapping("/leaves/pending/paginated")
-    @Operation(summary = "Get pending leave requests with pagination")
-    public ResponseEntity<ApiResponse<Page<LeaveRequestDto>>> getPendingLeavesPaginated(
-            @PageableDefault(size = 20) Pageable pageable) {
-        Page<LeaveRequestDto> leaves = leaveService.getPendingLeaveRequests(pageable);
+    @Operation(summary = "Get pending leave requests a slice at a time (keyset pagination), oldest first")
+    public ResponseEntity<ApiResponse<CursorPageDto<LeaveRequestDto>>> getPendingLeavesPaginated(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "NONE") PageCount count) {
+        CursorPageDto<LeaveRequestDto> leaves = leaveService.getPendingLeaveRequests(cursor, size, count);
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
 
@@ -168,6 +278,25 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
 
+    @GetMapping(value = "/leaves", params = "fields")
+    @Operation(summary = "Get all leave requests with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllLeaves(@RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(leaveService.getAllLeaveRequests(fields)));
+    }
+
+    @GetMapping(value = "/leaves", produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Stream all leave requests, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody> streamAllLeaves() {
+        return ndjsonResponses.stream(leaveService::streamAllLeaveRequests);
+    }
+
+    @GetMapping(value = "/leaves", produces = { BinaryResponses.CBOR, BinaryResponses.SMILE })
+    @Operation(summary = "Stream all leave requests as CBOR or Smile")
+    public ResponseEntity<StreamingResponseBody> streamAllLeavesBinary(
+            @RequestHeader(HttpHeaders.ACCEPT) String accept) {
+        return binaryResponses.stream(accept, leaveService::streamAllLeaveRequests);
+    }
+
     @GetMapping("/leaves/{id}")
     @Operation(summary = "Get leave request by ID")
     public ResponseEntity<ApiResponse<LeaveRequestDto>> getLeaveById(@PathVariable Long id) {
@@ -183,6 +312,14 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
 
+    @GetMapping(value = "/leaves/employee/{employeeId}", params = "fields")
+    @Operation(summary = "Get leave requests for a specific employee with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getEmployeeLeaves(
+            @PathVariable Long employeeId,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(leaveService.getLeaveRequestsByEmployee(employeeId, fields)));
+    }
+
     @PostMapping("/leaves/{id}/approve")
     @Operation(summary = "Approve a leave request")
     public ResponseEntity<ApiResponse<LeaveRequestDto>> approveLeave(
@@ -208,21 +345,66 @@ public class AdminController {
     // ==================== ATTENDANCE MANAGEMENT ====================
 
     @GetMapping("/attendance")
-    @Operation(summary = "Get attendance for a specific date")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getAttendanceByDate(
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    @Operation(summary = "Get attendance for a specific date (conditional on If-None-Match)")
+    public ResponseEntity<byte[]> getAttendanceByDate(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
         LocalDate targetDate = date != null ? date : LocalDate.now();
-        List<AttendanceDto> attendance = attendanceService.getAttendanceByDate(targetDate);
-        return ResponseEntity.ok(ApiResponse.success(attendance));
+        String etag = attendanceResponseCache.getDateETag(targetDate);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        byte[] gzip = attendanceResponseCache.getDateResponse(targetDate, etag,
+                () -> ApiResponse.success(todayAttendanceBoard.isToday(targetDate)
+                        ? todayAttendanceBoard.getAttendance(null)
+                        : attendanceService.getAttendanceByDate(targetDate)));
+        return PrecompressedResponses.gzipJson(webRequest, etag, gzip);
+    }
+
+    @GetMapping("/attendance/today")
+    @Operation(summary = "Get today's attendance, optionally only one status")
+    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getTodayAttendance(
+            @RequestParam(required = false) AttendanceStatus status) {
+        return ResponseEntity.ok(ApiResponse.success(todayAttendanceBoard.getAttendance(status)));
+    }
+
+    @GetMapping("/attendance/today/summary")
+    @Operation(summary = "Count today's attendance by status")
+    public ResponseEntity<ApiResponse<Map<AttendanceStatus, Long>>> getTodayAttendanceCounts() {
+        return ResponseEntity.ok(ApiResponse.success(todayAttendanceBoard.getCounts()));
+    }
+
+    @GetMapping(value = "/attendance", produces = { BinaryResponses.CBOR, BinaryResponses.SMILE })
+    @Operation(summary = "Stream attendance for a specific date as CBOR or Smile")
+    public ResponseEntity<StreamingResponseBody> streamAttendanceByDateBinary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(HttpHeaders.ACCEPT) String accept) {
+        LocalDate targetDate = date != null ? date : LocalDate.now();
+        return binaryResponses.<AttendanceDto>stream(accept,
+                consumer -> attendanceService.streamAttendanceByDate(targetDate, consumer));
+    }
+
+    @GetMapping(value = "/attendance", params = "fields")
+    @Operation(summary = "Get attendance for a specific date with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAttendanceByDate(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam String fields) {
+        LocalDate targetDate = date != null ? date : LocalDate.now();
+        return ResponseEntity.ok(ApiResponse.success(attendanceService.getAttendanceByDate(targetDate, fields)));
     }
 
     @GetMapping("/attendance/paginated")
-    @Operation(summary = "Get attendance for a specific date with pagination")
-    public ResponseEntity<ApiResponse<Page<AttendanceDto>>> getAttendanceByDatePaginated(
+    @Operation(summary = "Get attendance for a specific date a slice at a time (keyset pagination); "
+            + "sort is employee.id or employee.name")
+    public ResponseEntity<ApiResponse<CursorPageDto<AttendanceDto>>> getAttendanceByDatePaginated(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "employee.id") String sort,
+            @RequestParam(defaultValue = "NONE") PageCount count) {
         LocalDate targetDate = date != null ? date : LocalDate.now();
-        Page<AttendanceDto> attendance = attendanceService.getAttendanceByDate(targetDate, pageable);
+        CursorPageDto<AttendanceDto> attendance = attendanceService.getAttendanceByDate(targetDate, cursor, size,
+                sort, count);
         return ResponseEntity.ok(ApiResponse.success(attendance));
     }
 
@@ -241,6 +423,30 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(attendance));
     }
 
+    // A date range may reach archived days, which are only read in full
+    @GetMapping(value = "/attendance/employee/{employeeId}", params = { "fields", "!startDate", "!endDate" })
+    @Operation(summary = "Get attendance for a specific employee with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getEmployeeAttendance(
+            @PathVariable Long employeeId,
+            @RequestParam String fields) {
+        return ResponseEntity.ok(ApiResponse.success(attendanceService.getEmployeeAttendance(employeeId, fields)));
+    }
+
+    @GetMapping(value = "/attendance/employee/{employeeId}", produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Stream attendance for a specific employee, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody> streamEmployeeAttendance(
+            @PathVariable Long employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (startDate != null && endDate != null) {
+            // A range is bounded; it includes archived days, which are not read from a cursor
+            return ndjsonResponses.<AttendanceDto>stream(consumer -> attendanceService
+                    .getEmployeeAttendance(employeeId, startDate, endDate).forEach(consumer));
+        }
+        return ndjsonResponses.<AttendanceDto>stream(
+                consumer -> attendanceService.streamEmployeeAttendance(employeeId, consumer));
+    }
+
     @GetMapping("/attendance/employee/{employeeId}/summary")
     @Operation(summary = "Get attendance summary for an employee")
     public ResponseEntity<ApiResponse<AttendanceService.AttendanceSummary>> getAttendanceSummary(
@@ -252,12 +458,117 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
 
+    @GetMapping("/attendance/summary")
+    @Operation(summary = "Get attendance summary across all employees")
+    public ResponseEntity<ApiResponse<AttendanceService.AttendanceSummary>> getAllAttendanceSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        AttendanceService.AttendanceSummary summary = attendanceService.getAttendanceSummary(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(summary));
+    }
+
+    @GetMapping("/attendance/employee/{employeeId}/calendar")
+    @Operation(summary = "Get an employee's attendance calendar for a month or year")
+    public ResponseEntity<ApiResponse<AttendanceCalendarDto>> getAttendanceCalendar(
+            @PathVariable Long employeeId,
+            @RequestParam int year,
+            @RequestParam(required = false) Integer month) {
+        AttendanceCalendarDto calendar = attendanceCalendarService.getCalendar(employeeId, year, month);
+        return ResponseEntity.ok(ApiResponse.success(calendar));
+    }
+
+    @GetMapping("/attendance/matrix")
+    @Operation(summary = "Get the attendance register (employee x day) for a month or year")
+    public ResponseEntity<ApiResponse<AttendanceMatrixDto>> getAttendanceMatrix(
+            @RequestParam int year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) String department) {
+        AttendanceMatrixDto matrix = attendanceCalendarService.getMatrix(year, month, department);
+        return ResponseEntity.ok(ApiResponse.success(matrix));
+    }
+
     @PostMapping("/attendance/generate")
     @Operation(summary = "Manually trigger attendance generation for today")
-    public ResponseEntity<ApiResponse<String>> generateAttendance() {
-        attendanceScheduler.triggerAttendanceGeneration();
-        return ResponseEntity.ok(ApiResponse.success("Attendance generation triggered",
-                "Attendance generated for " + LocalDate.now()));
+    public ResponseEntity<ApiResponse<AttendanceJobDto>> generateAttendance() {
+        AttendanceJobDto job = attendanceScheduler.triggerAttendanceGeneration();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Attendance generation job " + job.getId() + " accepted", job));
+    }
+
+    @GetMapping("/attendance/jobs/{id}")
+    @Operation(summary = "Get progress of an attendance generation job")
+    public ResponseEntity<ApiResponse<AttendanceJobDto>> getAttendanceJob(@PathVariable String id) {
+        AttendanceJobDto job = attendanceGenerationJobs.getJob(id);
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    @PostMapping("/attendance/backfill")
+    @Operation(summary = "Generate missing attendance for a date range")
+    public ResponseEntity<ApiResponse<AttendanceService.BackfillResult>> backfillAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        AttendanceService.BackfillResult result = attendanceService.backfillAttendance(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success("Attendance backfilled", result));
+    }
+
+    @PostMapping("/attendance/rollup/rebuild")
+    @Operation(summary = "Rebuild the monthly attendance rollup for a date range, or for all attendance")
+    public ResponseEntity<ApiResponse<AttendanceService.RollupRebuildResult>> rebuildAttendanceRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        AttendanceService.RollupRebuildResult result = attendanceService.rebuildRollup(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success("Attendance rollup rebuilt", result));
+    }
+
+    @GetMapping("/attendance/partitions")
+    @Operation(summary = "List the monthly partitions of the attendance table")
+    public ResponseEntity<ApiResponse<List<AttendancePartitionDto>>> getAttendancePartitions() {
+        List<AttendancePartitionDto> partitions = attendancePartitionScheduler.getPartitions();
+        return ResponseEntity.ok(ApiResponse.success(partitions));
+    }
+
+    @PostMapping("/attendance/partitions/{month}/detach")
+    @Operation(summary = "Detach a past month's attendance partition (month as yyyy-MM)")
+    public ResponseEntity<ApiResponse<Void>> detachAttendancePartition(@PathVariable YearMonth month) {
+        attendancePartitionScheduler.detachPartition(month);
+        return ResponseEntity.ok(ApiResponse.success("Attendance partition " + month + " detached", null));
+    }
+
+    @GetMapping("/attendance/archive")
+    @Operation(summary = "List the archived attendance years")
+    public ResponseEntity<ApiResponse<List<AttendanceArchiveSegmentDto>>> getAttendanceArchive() {
+        List<AttendanceArchiveSegmentDto> segments = attendanceArchiveService.getSegments();
+        return ResponseEntity.ok(ApiResponse.success(segments));
+    }
+
+    @PostMapping("/attendance/archive")
+    @Operation(summary = "Archive attendance of closed years up to a year (default: every closed year)")
+    public ResponseEntity<ApiResponse<List<AttendanceArchiveSegmentDto>>> archiveAttendance(
+            @RequestParam(required = false) Integer throughYear) {
+        List<AttendanceArchiveSegmentDto> segments = throughYear != null
+                ? attendanceArchiveService.archiveThrough(throughYear)
+                : attendanceArchiveService.archiveClosedYears();
+        return ResponseEntity.ok(ApiResponse.success("Attendance archived", segments));
+    }
+
+    // ==================== SCHEDULER ====================
+
+    @GetMapping("/scheduler/locks")
+    @Operation(summary = "Get scheduler lease holders and last runs")
+    public ResponseEntity<ApiResponse<List<SchedulerLockDto>>> getSchedulerLocks() {
+        List<SchedulerLockDto> locks = schedulerLockManager.getLocks();
+        return ResponseEntity.ok(ApiResponse.success(locks));
+    }
+
+    // ==================== CACHES ====================
+
+    @GetMapping("/caches")
+    @Operation(summary = "Get hit, miss and load-time statistics of the read-through caches")
+    public ResponseEntity<ApiResponse<List<CacheStatsDto>>> getCacheStats() {
+        List<CacheStatsDto> stats = readThroughCaches.stream()
+                .map(ReadThroughCache::getStats)
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
     // ==================== LEAVE BALANCE MANAGEMENT ====================
@@ -269,4 +580,90 @@ public class AdminController {
         List<LeaveBalanceDto> balances = leaveService.getLeaveBalances(employeeId);
         return ResponseEntity.ok(ApiResponse.success(balances));
     }
+
+    // ==================== EXPORT ====================
+
+    @GetMapping("/export/attendance")
+    @Operation(summary = "Export attendance in a date range as CSV, streamed")
+    public ResponseEntity<StreamingResponseBody> exportAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) AttendanceStatus status) {
+        exportService.validateRange(startDate, endDate);
+        return csv("attendance-" + startDate + "-" + endDate + ".csv",
+                out -> exportService.exportAttendance(startDate, endDate, department, status, out));
+    }
+
+    @GetMapping("/export/leaves")
+    @Operation(summary = "Export leave requests overlapping a date range as CSV, streamed")
+    public ResponseEntity<StreamingResponseBody> exportLeaveRequests(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) LeaveStatus status,
+            @RequestParam(required = false) LeaveType leaveType) {
+        exportService.validateRange(startDate, endDate);
+        return csv("leave-requests.csv",
+                out -> exportService.exportLeaveRequests(startDate, endDate, department, status, leaveType, out));
+    }
+
+    @GetMapping("/export/leave-balances")
+    @Operation(summary = "Export leave balances as CSV, streamed; status filters on the employee's status")
+    public ResponseEntity<StreamingResponseBody> exportLeaveBalances(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) LeaveType leaveType) {
+        return csv(year != null ? "leave-balances-" + year + ".csv" : "leave-balances.csv",
+                out -> exportService.exportLeaveBalances(year, department, status, leaveType, out));
+    }
+
+    // ==================== REPORTS ====================
+
+    @PostMapping("/reports/registers")
+    @Operation(summary = "Render the attendance and leave registers of every department for a month (yyyy-MM)")
+    public ResponseEntity<ApiResponse<List<RegisterDto>>> renderRegisters(@RequestParam YearMonth month) {
+        List<RegisterDto> registers = registerReportService.renderRegisters(month);
+        return ResponseEntity.ok(ApiResponse.success("Registers rendered", registers));
+    }
+
+    @GetMapping("/reports/registers/{type}")
+    @Operation(summary = "Download a department's ATTENDANCE or LEAVE register for a month (yyyy-MM) as PDF")
+    public void downloadRegister(
+            @PathVariable RegisterType type,
+            @RequestParam String department,
+            @RequestParam YearMonth month,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Path file = registerReportService.getRegisterFile(type, department, month);
+        sendFile(file, registerReportService.downloadName(type, department, month), MediaType.APPLICATION_PDF,
+                request, response);
+    }
+
+    private ResponseEntity<StreamingResponseBody> csv(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * Send a file with the container's sendfile support (Tomcat NIO), so its bytes are not
+     * copied through the JVM; otherwise copy it to the response.
+     */
+    private void sendFile(Path file, String fileName, MediaType contentType, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", length);
+        } else {
+            Files.copy(file, response.getOutputStream());
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.erfan.spiceerp.Controllers;
+
+import com.erfan.spiceerp.Dto.ApiResponse;
+import com.erfan.spiceerp.Dto.BatchRequestDto;
+import com.erfan.spiceerp.Dto.BatchResultDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Batch Controller for running several reads in one HTTP request.
+ * Each read is authorized as if it were requested on its own.
+ */
+@RestController
+@RequestMapping("/batch")
+@Tag(name = "Batch", description = "Run several GET requests in one round trip")
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    public BatchController(BatchDispatcher batchDispatcher) {
+        this.batchDispatcher = batchDispatcher;
+    }
+
+    @PostMapping
+    @Operation(summary = "Run GET requests concurrently and return each one's status and body")
+    public ResponseEntity<ApiResponse<List<BatchResultDto>>> batch(@RequestBody List<BatchRequestDto> requests,
+            HttpServletRequest request, HttpServletResponse response) {
+        return ResponseEntity.ok(ApiResponse.success(batchDispatcher.dispatch(requests, request, response)));
+    }
+}
@@ -0,0 +1,589 @@
+package com.erfan.spiceerp.Controllers;
+
+import com.erfan.spiceerp.Dto.ApiResponse;
+import com.erfan.spiceerp.Dto.BatchRequestDto;
+import com.erfan.spiceerp.Dto.BatchResultDto;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the reads of a batch request concurrently on the bounded batch pool.
+ * Each read is a GET of an existing route, handed straight to the DispatcherServlet with its
+ * own request and a buffering response. The batch request has been authenticated once by the
+ * security filter chain; its security context is propagated to the workers, and the
+ * controllers' @PreAuthorize rules (which mirror the URL rules of SecurityConfiguration)
+ * authorize each read. Only /admin/** and /employee/** routes can be read, which keeps public
+ * routes and the batch endpoint itself out of reach. Reads always ask for plain JSON; routes
+ * that stream their response (exports, NDJSON) cannot be batched. A failing read is answered
+ * with its own status and error body and does not fail the batch.
+ */
+@Component
+public class BatchDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    /**
+     * Route prefixes a read may target; anything else, the batch endpoint itself included, is
+     * answered with 400.
+     */
+    private static final List<String> READABLE_PREFIXES = List.of("/admin", "/employee");
+
+    /**
+     * Request headers not passed on to reads: the body of the batch and content negotiation
+     * belong to the batch request, and a read always answers in full.
+     */
+    private static final Set<String> REQUEST_ONLY_HEADERS = Set.of("accept", "accept-encoding", "content-type",
+            "content-length", "if-match", "if-none-match", "if-modified-since", "if-unmodified-since", "if-range",
+            "range");
+
+    private final DispatcherServlet dispatcherServlet;
+    private final TaskExecutor batchExecutor;
+    private final ObjectMapper objectMapper;
+    private final int maxRequests;
+
+    private final StrictHttpFirewall firewall = new StrictHttpFirewall();
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet,
+            @Qualifier("batchExecutor") TaskExecutor batchExecutor,
+            ObjectMapper objectMapper,
+            @Value("${batch.max-requests:20}") int maxRequests) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.batchExecutor = batchExecutor;
+        this.objectMapper = objectMapper;
+        this.maxRequests = maxRequests;
+    }
+
+    /**
+     * Run the reads of a batch and return their results in request order.
+     */
+    public List<BatchResultDto> dispatch(List<BatchRequestDto> reads, HttpServletRequest request,
+            HttpServletResponse response) {
+        if (reads == null || reads.isEmpty()) {
+            throw new BusinessException("A batch must contain at least one request");
+        }
+        if (reads.size() > maxRequests) {
+            throw new BusinessException("A batch may contain at most " + maxRequests + " requests");
+        }
+        Executor executor = new DelegatingSecurityContextExecutor(batchExecutor, SecurityContextHolder.getContext());
+        Map<String, List<String>> headers = forwardedHeaders(request);
+
+        List<CompletableFuture<BatchResultDto>> results = new ArrayList<>(reads.size());
+        for (int i = 0; i < reads.size(); i++) {
+            BatchRequestDto read = reads.get(i);
+            String id = read.getId() != null ? read.getId() : String.valueOf(i);
+            HttpServletRequest readRequest;
+            try {
+                readRequest = firewall.getFirewalledRequest(new ReadRequest(request, read.getPath(), headers));
+            } catch (IllegalArgumentException e) {
+                results.add(CompletableFuture.completedFuture(error(id, HttpStatus.BAD_REQUEST, e.getMessage())));
+                continue;
+            } catch (RequestRejectedException e) {
+                results.add(CompletableFuture.completedFuture(
+                        error(id, HttpStatus.BAD_REQUEST, "Invalid path: " + e.getMessage())));
+                continue;
+            }
+            results.add(CompletableFuture.supplyAsync(() -> execute(id, readRequest, response), executor));
+        }
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private BatchResultDto execute(String id, HttpServletRequest request, HttpServletResponse batchResponse) {
+        ReadResponse response = new ReadResponse(batchResponse);
+        try {
+            dispatcherServlet.service(request, response);
+        } catch (Exception e) {
+            logger.warn("Batch request {} failed: {}", request.getRequestURI(), e.getMessage());
+            return error(id, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred. Please try again later.");
+        }
+
+        HttpStatus status = HttpStatus.resolve(response.getStatus());
+        String body = response.body();
+        if (body.isEmpty()) {
+            if (response.getStatus() >= 400) {
+                String message = response.errorMessage != null ? response.errorMessage
+                        : status != null ? status.getReasonPhrase() : "Request failed";
+                return error(id, status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR, message);
+            }
+            return BatchResultDto.builder().id(id).status(response.getStatus()).build();
+        }
+        if (!isJson(response.getContentType())) {
+            return error(id, HttpStatus.NOT_ACCEPTABLE, "Only routes answering with JSON can be batched");
+        }
+        return BatchResultDto.builder().id(id).status(response.getStatus()).body(body).build();
+    }
+
+    private BatchResultDto error(String id, HttpStatus status, String message) {
+        try {
+            return BatchResultDto.builder()
+                    .id(id)
+                    .status(status.value())
+                    .body(objectMapper.writeValueAsString(ApiResponse.error(message)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return MediaType.APPLICATION_JSON.isCompatibleWith(mediaType) || mediaType.getSubtype().endsWith("+json");
+    }
+
+    /**
+     * Copy the batch request's headers (the Authorization header among them, which controllers
+     * read the user id from) for the reads, asking for JSON.
+     */
+    private static Map<String, List<String>> forwardedHeaders(HttpServletRequest request) {
+        Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!REQUEST_ONLY_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, Collections.list(request.getHeaders(name)));
+            }
+        }
+        headers.put(HttpHeaders.ACCEPT, List.of(MediaType.APPLICATION_JSON_VALUE));
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * A GET of one read. Path, query parameters, headers and attributes are its own, and the
+     * locale is captured up front; anything else is read from the batch request.
+     */
+    private static final class ReadRequest extends HttpServletRequestWrapper {
+
+        private final String path;
+        private final String queryString;
+        private final Map<String, String[]> parameters;
+        private final Map<String, List<String>> headers;
+        private final Locale locale;
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        private ReadRequest(HttpServletRequest original, String target, Map<String, List<String>> headers) {
+            super(original);
+            if (target == null || !target.startsWith("/")) {
+                throw new IllegalArgumentException("The path of a batch request must start with /");
+            }
+            int query = target.indexOf('?');
+            this.path = query >= 0 ? target.substring(0, query) : target;
+            this.queryString = query >= 0 ? target.substring(query + 1) : null;
+            if (READABLE_PREFIXES.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"))) {
+                throw new IllegalArgumentException(
+                        "Invalid path: only /admin/** and /employee/** routes can be batched");
+            }
+            this.parameters = parseQuery(queryString);
+            this.headers = headers;
+            this.locale = original.getLocale();
+        }
+
+        private static Map<String, String[]> parseQuery(String queryString) {
+            Map<String, List<String>> values = new LinkedHashMap<>();
+            if (queryString != null) {
+                for (String pair : queryString.split("&")) {
+                    if (pair.isEmpty()) {
+                        continue;
+                    }
+                    int separator = pair.indexOf('=');
+                    String name = URLDecoder.decode(separator >= 0 ? pair.substring(0, separator) : pair,
+                            StandardCharsets.UTF_8);
+                    String value = separator >= 0 ? URLDecoder.decode(pair.substring(separator + 1),
+                            StandardCharsets.UTF_8) : "";
+                    values.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+                }
+            }
+            Map<String, String[]> parameters = new LinkedHashMap<>();
+            values.forEach((name, list) -> parameters.put(name, list.toArray(String[]::new)));
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public String getRequestURI() {
+            return getContextPath() + path;
+        }
+
+        @Override
+        public String getServletPath() {
+            return path;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getQueryString() {
+            return queryString;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values != null ? values[0] : null;
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return parameters;
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            String[] values = parameters.get(name);
+            return values != null ? values.clone() : null;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return values != null && !values.isEmpty() ? values.get(0) : null;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return Collections.enumeration(headers.getOrDefault(name, List.of()));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headers.keySet());
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            String value = getHeader(name);
+            return value != null ? Integer.parseInt(value) : -1;
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            // Conditional headers are not forwarded, so no read asks for a date
+            return -1;
+        }
+
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+
+        @Override
+        public Enumeration<Locale> getLocales() {
+            return Collections.enumeration(List.of(locale));
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value != null) {
+                attributes.put(name, value);
+            } else {
+                attributes.remove(name);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isAsyncStarted() {
+            return false;
+        }
+    }
+
+    /**
+     * Buffers the status, headers and body of one read instead of writing them to the batch
+     * response.
+     */
+    private static final class ReadResponse extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private final HttpHeaders headers = new HttpHeaders();
+        private int status = HttpServletResponse.SC_OK;
+        private String errorMessage;
+        private String contentType;
+        private String characterEncoding;
+        private boolean committed;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private ReadResponse(HttpServletResponse batchResponse) {
+            super(batchResponse);
+        }
+
+        /**
+         * The body written, decoded with the response's character encoding.
+         */
+        String body() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return content.toString(Charset.forName(getCharacterEncoding()));
+        }
+
+        @Override
+        public void setStatus(int status) {
+            if (!committed) {
+                this.status = status;
+            }
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void sendError(int status, String message) {
+            this.status = status;
+            this.errorMessage = message;
+            this.committed = true;
+        }
+
+        @Override
+        public void sendError(int status) {
+            sendError(status, null);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            headers.set(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.add(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            headers.set(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            headers.add(name, String.valueOf(value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            headers.setDate(name, date);
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            headers.setDate(name, date);
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return headers.containsKey(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.getFirst(name);
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return headers.getOrDefault(name, List.of());
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return headers.keySet();
+        }
+
+        @Override
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+            if (contentType != null) {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if (mediaType.getCharset() != null) {
+                    this.characterEncoding = mediaType.getCharset().name();
+                }
+            }
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public void setCharacterEncoding(String characterEncoding) {
+            this.characterEncoding = characterEncoding;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding != null ? characterEncoding : StandardCharsets.UTF_8.name();
+        }
+
+        @Override
+        public void setContentLength(int length) {
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        // The buffer never blocks, so the stream is writable right away
+                        try {
+                            writeListener.onWritePossible();
+                        } catch (IOException e) {
+                            writeListener.onError(e);
+                        }
+                    }
+
+                    @Override
+                    public void write(int b) {
+                        content.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        content.write(b, off, len);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(content, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setBufferSize(int size) {
+        }
+
+        @Override
+        public int getBufferSize() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void flushBuffer() {
+            committed = true;
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        @Override
+        public void resetBuffer() {
+            content.reset();
+        }
+
+        @Override
+        public void reset() {
+            content.reset();
+            headers.clear();
+            status = HttpServletResponse.SC_OK;
+            contentType = null;
+            characterEncoding = null;
+        }
+    }
+}
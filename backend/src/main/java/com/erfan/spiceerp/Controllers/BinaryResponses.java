@@ -0,0 +1,92 @@
+package com.erfan.spiceerp.Controllers;
+
+import com.erfan.spiceerp.Dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams list responses as CBOR or Smile: the ApiResponse envelope is written first and each
+ * row is encoded into its data array as the producer hands it over, so a large list is never
+ * collected in memory. Other responses are negotiated to these formats by the message
+ * converters configured in WebMvcConfig.
+ */
+@Component
+public class BinaryResponses {
+
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    public BinaryResponses(MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter) {
+        mappers.put(MediaType.parseMediaType(CBOR), cborConverter.getObjectMapper());
+        mappers.put(MediaType.parseMediaType(SMILE), smileConverter.getObjectMapper());
+    }
+
+    /**
+     * Stream the rows a producer passes to its consumer as the data of a successful
+     * ApiResponse, in the binary format the Accept header prefers. The producer runs on the
+     * response streaming pool after the request thread has been released.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(String accept, Consumer<Consumer<T>> producer) {
+        MediaType mediaType = negotiate(accept);
+        ObjectMapper mapper = mappers.get(mediaType);
+        // One flush at the end rather than one per row
+        ObjectWriter rowWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        String message = ApiResponse.success(null).getMessage();
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", message);
+                generator.writeArrayFieldStart("data");
+                producer.accept(row -> {
+                    try {
+                        rowWriter.writeValue(generator, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(body);
+    }
+
+    /**
+     * The binary format with the highest quality in the Accept header, CBOR on a tie.
+     */
+    private MediaType negotiate(String accept) {
+        MediaType chosen = null;
+        double quality = -1;
+        for (MediaType accepted : MediaType.parseMediaTypes(accept)) {
+            for (MediaType candidate : mappers.keySet()) {
+                if (accepted.includes(candidate) && accepted.getQualityValue() > quality) {
+                    chosen = candidate;
+                    quality = accepted.getQualityValue();
+                }
+            }
+        }
+        return chosen != null ? chosen : mappers.keySet().iterator().next();
+    }
+}
@@ -4,6 +4,8 @@ import com.erfan.spiceerp.Dto.*;
 import com.erfan.spiceerp.Enums.LeaveType;
 import com.erfan.spiceerp.Security.JwtService;
 import com.erfan.spiceerp.Security.JwtUtils;
+import com.erfan.spiceerp.Services.AttendanceCalendarService;
+import com.erfan.spiceerp.Services.AttendanceResponseCache;
 import com.erfan.spiceerp.Services.AttendanceService;
 import com.erfan.spiceerp.Services.LeaveService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,9 +17,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Employee Controller for employee-specific operations.
@@ -31,17 +36,26 @@ public class EmployeeController {
 
     private final LeaveService leaveService;
     private final AttendanceService attendanceService;
+    private final AttendanceCalendarService attendanceCalendarService;
+    private final AttendanceResponseCache attendanceResponseCache;
     private final JwtService jwtService;
     private final JwtUtils jwtUtils;
+    private final NdjsonResponses ndjsonResponses;
 
     public EmployeeController(LeaveService leaveService,
             AttendanceService attendanceService,
+            AttendanceCalendarService attendanceCalendarService,
+            AttendanceResponseCache attendanceResponseCache,
             JwtService jwtService,
-            JwtUtils jwtUtils) {
+            JwtUtils jwtUtils,
+            NdjsonResponses ndjsonResponses) {
         this.leaveService = leaveService;
         this.attendanceService = attendanceService;
+        this.attendanceCalendarService = attendanceCalendarService;
+        this.attendanceResponseCache = attendanceResponseCache;
         this.jwtService = jwtService;
         this.jwtUtils = jwtUtils;
+        this.ndjsonResponses = ndjsonResponses;
     }
 
     /**
@@ -73,6 +87,14 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
 
+    @GetMapping(value = "/leaves/my", params = "fields")
+    @Operation(summary = "Get my leave history with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMyLeaves(HttpServletRequest request,
+            @RequestParam String fields) {
+        Long employeeId = getCurrentUserId(request);
+        return ResponseEntity.ok(ApiResponse.success(leaveService.getLeaveRequestsByEmployee(employeeId, fields)));
+    }
+
     @GetMapping("/leaves/{id}")
     @Operation(summary = "Get leave request by ID")
     public ResponseEntity<ApiResponse<LeaveRequestDto>> getLeaveById(
@@ -130,15 +152,37 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResponse.success(attendance));
     }
 
+    @GetMapping(value = "/attendance/my", params = "fields")
+    @Operation(summary = "Get my attendance history with only the requested fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMyAttendance(HttpServletRequest request,
+            @RequestParam String fields) {
+        Long employeeId = getCurrentUserId(request);
+        return ResponseEntity.ok(ApiResponse.success(attendanceService.getEmployeeAttendance(employeeId, fields)));
+    }
+
+    @GetMapping(value = "/attendance/my", produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Stream my attendance history, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody> streamMyAttendance(HttpServletRequest request) {
+        Long employeeId = getCurrentUserId(request);
+        return ndjsonResponses.<AttendanceDto>stream(
+                consumer -> attendanceService.streamEmployeeAttendance(employeeId, consumer));
+    }
+
     @GetMapping("/attendance/my/range")
-    @Operation(summary = "Get my attendance for a date range")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getMyAttendanceRange(
+    @Operation(summary = "Get my attendance for a date range (conditional on If-None-Match)")
+    public ResponseEntity<byte[]> getMyAttendanceRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
         Long employeeId = getCurrentUserId(request);
-        List<AttendanceDto> attendance = attendanceService.getEmployeeAttendance(employeeId, startDate, endDate);
-        return ResponseEntity.ok(ApiResponse.success(attendance));
+        String etag = attendanceResponseCache.getEmployeeRangeETag(employeeId, startDate, endDate);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        byte[] gzip = attendanceResponseCache.getEmployeeRangeResponse(employeeId, startDate, endDate, etag,
+                () -> ApiResponse.success(attendanceService.getEmployeeAttendance(employeeId, startDate, endDate)));
+        return PrecompressedResponses.gzipJson(webRequest, etag, gzip);
     }
 
     @GetMapping("/attendance/my/summary")
@@ -152,4 +196,15 @@ public class EmployeeController {
                 endDate);
         return ResponseEntity.ok(ApiResponse.success(summary));
     }
+
+    @GetMapping("/attendance/my/calendar")
+    @Operation(summary = "Get my attendance calendar for a month or year")
+    public ResponseEntity<ApiResponse<AttendanceCalendarDto>> getMyAttendanceCalendar(
+            @RequestParam int year,
+            @RequestParam(required = false) Integer month,
+            HttpServletRequest request) {
+        Long employeeId = getCurrentUserId(request);
+        AttendanceCalendarDto calendar = attendanceCalendarService.getCalendar(employeeId, year, month);
+        return ResponseEntity.ok(ApiResponse.success(calendar));
+    }
 }
@@ -0,0 +1,87 @@
+package com.erfan.spiceerp.Controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Builds application/x-ndjson responses: one JSON document per line, each serialised and
+ * written as soon as the producer hands it over, so nothing is collected into a list first.
+ */
+@Component
+public class NdjsonResponses {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+    private final ObjectWriter writer;
+
+    public NdjsonResponses(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Stream the rows a producer passes to its consumer. The producer runs on the response
+     * streaming pool after the request thread has been released.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out, WRITE_BUFFER_SIZE);
+            boolean[] first = { true };
+            producer.accept(row -> {
+                try {
+                    writer.writeValue(new NonClosingOutputStream(buffered), row);
+                    buffered.write('\n');
+                    if (first[0]) {
+                        // Send the first row right away rather than when the buffer fills
+                        buffered.flush();
+                        first[0] = false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Jackson closes the target stream after each value; keep the response open.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+
+        private NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            // Left open for the next row
+        }
+    }
+}
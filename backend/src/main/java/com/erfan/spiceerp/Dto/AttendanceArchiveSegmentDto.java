@@ -0,0 +1,26 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+/**
+ * DTO describing the archived attendance segment of one year.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceArchiveSegmentDto {
+
+    private int year;
+
+    private int employees;
+
+    private int runs;
+
+    private long presentDays;
+
+    private long leaveDays;
+
+    private long fileSizeBytes;
+}
@@ -0,0 +1,30 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for one employee's attendance calendar over a month or year.
+ * Days holds one character per day from startDate: the status code
+ * (P = PRESENT, L = LEAVE) or '-' for a day without attendance.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceCalendarDto {
+
+    private Long employeeId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private String days;
+
+    private int presentDays;
+
+    private int leaveDays;
+}
@@ -0,0 +1,45 @@
+package com.erfan.spiceerp.Dto;
+
+import com.erfan.spiceerp.Enums.JobStatus;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO describing the progress of a background attendance generation job.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceJobDto {
+
+    private String id;
+
+    private LocalDate attendanceDate;
+
+    private JobStatus status;
+
+    private int totalChunks;
+
+    private int processedChunks;
+
+    private int failedChunks;
+
+    private int presentDays;
+
+    private int existingDays;
+
+    private long elapsedMillis;
+
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private List<String> errors;
+}
@@ -0,0 +1,50 @@
+package com.erfan.spiceerp.Dto;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the attendance register of many employees over a month or year.
+ * Each row encodes one character per day from startDate; codes maps the
+ * characters to statuses and emptyDay marks a day without attendance.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceMatrixDto {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Map<Character, AttendanceStatus> codes;
+
+    private char emptyDay;
+
+    private List<Row> rows;
+
+    /**
+     * One employee's days.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Row {
+
+        private Long employeeId;
+
+        private String employeeCode;
+
+        private String employeeName;
+
+        private String days;
+    }
+}
@@ -0,0 +1,27 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+import java.time.YearMonth;
+
+/**
+ * DTO describing one monthly partition of the attendance table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendancePartitionDto {
+
+    private String name;
+
+    /**
+     * Month held by the partition; null for the DEFAULT partition.
+     */
+    private YearMonth month;
+
+    private long estimatedRows;
+
+    private long sizeBytes;
+}
@@ -0,0 +1,24 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+/**
+ * DTO for one read of a batch: a GET route of the API with its query string.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRequestDto {
+
+    /**
+     * Client-chosen key echoed in the result; defaults to the index in the batch.
+     */
+    private String id;
+
+    /**
+     * Path and query string, e.g. /admin/leaves/pending or /employee/attendance/my/summary?startDate=...
+     */
+    private String path;
+}
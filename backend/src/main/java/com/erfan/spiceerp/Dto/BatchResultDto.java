@@ -0,0 +1,26 @@
+package com.erfan.spiceerp.Dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+
+/**
+ * DTO for the outcome of one read of a batch: the HTTP status and JSON body the route
+ * answered with on its own.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResultDto {
+
+    private String id;
+
+    private int status;
+
+    /**
+     * The route's JSON response, embedded as is.
+     */
+    @JsonRawValue
+    private String body;
+}
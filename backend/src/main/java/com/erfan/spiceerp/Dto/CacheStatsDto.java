@@ -0,0 +1,43 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+/**
+ * DTO with the size and counters of a read-through cache since startup.
+ * Coalesced lookups waited for a load another request was running.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDto {
+
+    private String name;
+
+    private int entries;
+
+    private int maxEntries;
+
+    private long ttlSeconds;
+
+    private long hits;
+
+    private long misses;
+
+    private long coalesced;
+
+    private double hitRatio;
+
+    private long loads;
+
+    private long loadFailures;
+
+    private double averageLoadMillis;
+
+    private double maxLoadMillis;
+
+    private long evictions;
+
+    private long invalidations;
+}
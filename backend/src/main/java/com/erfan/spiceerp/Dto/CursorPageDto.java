@@ -0,0 +1,35 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated list. Pass nextCursor back as the cursor parameter to get
+ * the following slice; it is null on the last one. Totals are only filled when requested.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor;
+
+    /**
+     * Exact number of rows, with count=EXACT.
+     */
+    private Long totalElements;
+
+    /**
+     * Planner estimate of the number of rows, with count=ESTIMATED.
+     */
+    private Long estimatedTotal;
+}
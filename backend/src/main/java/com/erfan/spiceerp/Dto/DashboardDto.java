@@ -0,0 +1,80 @@
+package com.erfan.spiceerp.Dto;
+
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the admin dashboard: headcounts, today's attendance, pending work and the leaves
+ * around the current week. generatedAt tells how old the (briefly cached) figures are.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardDto {
+
+    private LocalDate date;
+
+    private LocalDateTime generatedAt;
+
+    private Map<Status, Long> headcountByStatus;
+
+    private long presentToday;
+
+    private long onLeaveToday;
+
+    private long pendingLeaveRequests;
+
+    private LocalDate weekStart;
+
+    private LocalDate weekEnd;
+
+    /**
+     * Approved leaves overlapping the current week (Monday to Sunday).
+     */
+    private List<Leave> onLeaveThisWeek;
+
+    /**
+     * Latest leave requests, most recently applied first.
+     */
+    private List<Leave> recentRequests;
+
+    /**
+     * One leave request.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Leave {
+
+        private Long id;
+
+        private Long employeeId;
+
+        private String employeeCode;
+
+        private String employeeName;
+
+        private LeaveType leaveType;
+
+        private LocalDate startDate;
+
+        private LocalDate endDate;
+
+        private Integer totalDays;
+
+        private LeaveStatus status;
+
+        private LocalDateTime appliedAt;
+    }
+}
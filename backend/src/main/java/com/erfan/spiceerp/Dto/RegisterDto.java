@@ -0,0 +1,35 @@
+package com.erfan.spiceerp.Dto;
+
+import com.erfan.spiceerp.Enums.RegisterType;
+import lombok.*;
+
+import java.time.YearMonth;
+
+/**
+ * DTO describing one rendered monthly department register.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegisterDto {
+
+    private RegisterType type;
+
+    private String department;
+
+    private YearMonth month;
+
+    /**
+     * Fingerprint of the data the register was rendered from.
+     */
+    private String version;
+
+    private long fileSizeBytes;
+
+    /**
+     * Whether the register was rendered for this request rather than served from the cache.
+     */
+    private boolean rendered;
+}
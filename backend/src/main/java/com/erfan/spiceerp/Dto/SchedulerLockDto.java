@@ -0,0 +1,34 @@
+package com.erfan.spiceerp.Dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * DTO describing who holds a scheduler lease and when the job last ran and last failed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLockDto {
+
+    private String name;
+
+    private boolean held;
+
+    private String lockedBy;
+
+    private Instant lockedAt;
+
+    private Instant lockUntil;
+
+    private Instant lastRunAt;
+
+    private String lastRunBy;
+
+    private Instant lastFailedAt;
+
+    private String lastFailedBy;
+}
@@ -2,8 +2,19 @@ package com.erfan.spiceerp.Enums;
 
 /**
  * Enum representing the attendance status of an employee for a given day.
+ * Each status has a one-letter code used in compact calendar encodings.
  */
 public enum AttendanceStatus {
-    PRESENT, // Employee is present
-    LEAVE // Employee is on approved leave
+    PRESENT('P'), // Employee is present
+    LEAVE('L'); // Employee is on approved leave
+
+    private final char code;
+
+    AttendanceStatus(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
 }
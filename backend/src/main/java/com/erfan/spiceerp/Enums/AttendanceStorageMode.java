@@ -0,0 +1,9 @@
+package com.erfan.spiceerp.Enums;
+
+/**
+ * Enum representing how attendance is stored.
+ */
+public enum AttendanceStorageMode {
+    FULL, // One attendance row per employee per day
+    EXCEPTIONS // Only non-PRESENT rows are stored; PRESENT days are kept as attendance periods
+}
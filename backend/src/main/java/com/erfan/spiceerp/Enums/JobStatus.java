@@ -0,0 +1,11 @@
+package com.erfan.spiceerp.Enums;
+
+/**
+ * Enum representing the lifecycle of a background job.
+ */
+public enum JobStatus {
+    QUEUED, // Job accepted, waiting for a worker
+    RUNNING, // Job is being processed
+    COMPLETED, // Job finished without errors
+    FAILED // Job finished with errors or could not run
+}
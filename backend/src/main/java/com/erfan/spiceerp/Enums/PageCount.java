@@ -0,0 +1,10 @@
+package com.erfan.spiceerp.Enums;
+
+/**
+ * Enum representing which total a keyset-paginated list reports.
+ */
+public enum PageCount {
+    NONE, // No total; the default, as counting reads every matching row
+    EXACT, // COUNT(*) over the matching rows
+    ESTIMATED // Row estimate from the planner statistics
+}
@@ -0,0 +1,9 @@
+package com.erfan.spiceerp.Enums;
+
+/**
+ * Enum representing the monthly department registers.
+ */
+public enum RegisterType {
+    ATTENDANCE, // Muster roll: one row per employee, one column per day
+    LEAVE // Approved leaves taken in the month, with the remaining balance
+}
@@ -11,14 +11,12 @@ import java.time.LocalDateTime;
 /**
  * Entity representing daily attendance records for employees.
  * Each employee has one attendance record per day.
+ * The unique (employee_id, attendance_date) key, foreign keys and indexes come from db/migration
+ * (V1_1, V5, V6) rather than from this mapping: Hibernate does not see them on the partitioned
+ * table and would add them again on every startup.
  */
 @Entity
-@Table(name = "attendance", uniqueConstraints = @UniqueConstraint(columnNames = { "employee_id",
-        "attendance_date" }), indexes = {
-                @Index(name = "idx_attendance_employee", columnList = "employee_id"),
-                @Index(name = "idx_attendance_date", columnList = "attendance_date"),
-                @Index(name = "idx_attendance_employee_date", columnList = "employee_id,attendance_date")
-        })
+@Table(name = "attendance")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +29,7 @@ public class Attendance {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "employee_id", nullable = false)
+    @JoinColumn(name = "employee_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Employee employee;
 
     @Column(name = "attendance_date", nullable = false)
@@ -42,7 +40,7 @@ public class Attendance {
     private AttendanceStatus status;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "leave_request_id")
+    @JoinColumn(name = "leave_request_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private LeaveRequest leaveRequest;
 
     @CreationTimestamp
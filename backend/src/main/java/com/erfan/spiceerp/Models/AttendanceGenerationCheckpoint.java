@@ -0,0 +1,48 @@
+package com.erfan.spiceerp.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording a completed chunk of daily attendance generation.
+ * A chunk covers an employee id range for one date; reruns skip completed chunks.
+ */
+@Entity
+@Table(name = "attendance_generation_checkpoint", uniqueConstraints = @UniqueConstraint(columnNames = {
+        "attendance_date", "chunk_start_id" }), indexes = {
+                @Index(name = "idx_generation_checkpoint_date", columnList = "attendance_date")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceGenerationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    @Column(name = "chunk_start_id", nullable = false)
+    private Long chunkStartId;
+
+    @Column(name = "chunk_end_id", nullable = false)
+    private Long chunkEndId;
+
+    @Column(name = "present_count", nullable = false)
+    private Integer presentCount;
+
+    @Column(name = "existing_count", nullable = false)
+    private Integer existingCount;
+
+    @CreationTimestamp
+    @Column(name = "completed_at", nullable = false, updatable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,47 @@
+package com.erfan.spiceerp.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding an employee's PRESENT and LEAVE day counts for one calendar month.
+ * Maintained by AttendanceService in the same transaction as the attendance it summarizes.
+ */
+@Entity
+@Table(name = "attendance_monthly_rollup", uniqueConstraints = @UniqueConstraint(columnNames = { "employee_id",
+        "month" }), indexes = {
+                @Index(name = "idx_attendance_rollup_month", columnList = "month")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    /**
+     * First day of the month.
+     */
+    @Column(name = "month", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "present_days", nullable = false)
+    private Integer presentDays;
+
+    @Column(name = "leave_days", nullable = false)
+    private Integer leaveDays;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
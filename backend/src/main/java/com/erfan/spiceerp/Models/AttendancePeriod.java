@@ -0,0 +1,38 @@
+package com.erfan.spiceerp.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Entity representing a run of consecutive days on which attendance was generated for an employee.
+ * Used by the EXCEPTIONS storage mode: every day inside a period is PRESENT unless an
+ * attendance row stores something else for that day.
+ */
+@Entity
+@Table(name = "attendance_period", uniqueConstraints = @UniqueConstraint(columnNames = { "employee_id",
+        "start_date" }), indexes = {
+                @Index(name = "idx_attendance_period_end", columnList = "end_date")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendancePeriod {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+}
@@ -14,13 +14,20 @@ import java.time.LocalDateTime;
  * Entity representing leave requests submitted by employees.
  * Tracks the lifecycle of a leave request from application to
  * approval/rejection.
+ * Approved leaves of an employee cannot overlap: approval checks for an overlap while holding
+ * a lock on the employee row, and the database also rejects it with the exclusion constraint
+ * on (employee_id, leave_period) of approved rows created by
+ * db/migration/V7__Approved_leave_exclusion.sql, whose GiST index serves overlap lookups.
+ * leave_period is a column generated from the start and end date; it belongs to V7 and is not
+ * mapped, as Hibernate's schema update cannot express a generated column.
  */
 @Entity
 @Table(name = "leave_request", indexes = {
         @Index(name = "idx_leave_employee", columnList = "employee_id"),
         @Index(name = "idx_leave_status", columnList = "status"),
         @Index(name = "idx_leave_dates", columnList = "start_date,end_date"),
-        @Index(name = "idx_leave_employee_status", columnList = "employee_id,status")
+        @Index(name = "idx_leave_employee_status", columnList = "employee_id,status"),
+        @Index(name = "idx_leave_status_applied", columnList = "status,applied_at,id")
 })
 @Getter
 @Setter
@@ -29,6 +36,11 @@ import java.time.LocalDateTime;
 @Builder
 public class LeaveRequest {
 
+    /**
+     * Exclusion constraint that keeps approved leaves of an employee from overlapping.
+     */
+    public static final String APPROVED_OVERLAP_CONSTRAINT = "leave_request_approved_no_overlap";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
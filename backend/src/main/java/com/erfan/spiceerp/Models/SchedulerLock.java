@@ -0,0 +1,47 @@
+package com.erfan.spiceerp.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entity representing a time-limited lease on a scheduled job.
+ * Only the node holding an unexpired lease may run the job; if the holder dies
+ * the lease expires and another node can take it over. last_run_at records the last
+ * successful run and last_failed_at the last failed one.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private Instant lockedAt;
+
+    @Column(name = "lock_until", nullable = false)
+    private Instant lockUntil;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
+
+    @Column(name = "last_run_by")
+    private String lastRunBy;
+
+    @Column(name = "last_failed_at")
+    private Instant lastFailedAt;
+
+    @Column(name = "last_failed_by")
+    private String lastFailedBy;
+}
@@ -0,0 +1,465 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Dto.AttendanceArchiveSegmentDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceMark;
+import com.erfan.spiceerp.Repos.AttendanceRollupRepository.DayTotals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File store for archived attendance: one compressed, columnar segment file per closed year,
+ * named attendance-YYYY.seg, under attendance.archive.directory.
+ *
+ * A segment holds every attendance day of its year as runs of equal status per employee over
+ * the days from January 1st (a gap is a run of code 0). Layout, gzip compressed:
+ * magic, version, year; the status dictionary; the employee count; then one column each for
+ * employee ids (delta varints), runs per employee (varints), run status codes (bytes, after the
+ * total run count) and run lengths in days (varints).
+ * Decoded segments are kept in a small LRU cache (attendance.archive.cached-segments).
+ *
+ * Which years are archived is recorded in the attendance_archived_year table (V8) when a segment
+ * is committed, before the year's rows are purged, and read from there on every lookup, so all
+ * instances switch to the archive at the same time. The segment files themselves are read from
+ * the directory, which therefore has to be storage shared by every instance (or only one
+ * instance may run).
+ */
+@Repository
+public class AttendanceArchiveRepository {
+
+    private static final int MAGIC = 0x41545347;
+    private static final byte VERSION = 1;
+    private static final Pattern FILE_NAME = Pattern.compile("attendance-(\\d{4})\\.seg");
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+
+    private static final String LAST_ARCHIVED_YEAR_SQL = "SELECT MAX(year) FROM attendance_archived_year";
+
+    private static final String IS_ARCHIVED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM attendance_archived_year WHERE year = ?)";
+
+    private static final String ARCHIVED_YEARS_SQL =
+            "SELECT year FROM attendance_archived_year WHERE year BETWEEN ? AND ? ORDER BY year";
+
+    private static final String RECORD_YEAR_SQL =
+            "INSERT INTO attendance_archived_year (year, archived_at) VALUES (?, now()) ON CONFLICT (year) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final Map<Integer, Segment> cache;
+
+    public AttendanceArchiveRepository(JdbcTemplate jdbcTemplate,
+            @Value("${attendance.archive.directory:data/attendance-archive}") String directory,
+            @Value("${attendance.archive.cached-segments:3}") int cachedSegments) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Paths.get(directory);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Segment> eldest) {
+                return size() > cachedSegments;
+            }
+        };
+    }
+
+    /**
+     * Get the latest archived year, or null when nothing is archived.
+     * Years are archived oldest first, so every earlier year is archived too.
+     */
+    public Integer findLastArchivedYear() {
+        return jdbcTemplate.queryForObject(LAST_ARCHIVED_YEAR_SQL, Integer.class);
+    }
+
+    /**
+     * Whether a year has been archived.
+     */
+    public boolean isArchived(int year) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_ARCHIVED_SQL, Boolean.class, year));
+    }
+
+    /**
+     * Record the segment files found in the directory whose year is not recorded yet, for
+     * segments written before archived years were kept in the database. Returns the years found.
+     */
+    public List<Integer> registerSegmentFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Integer> years = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    years.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list attendance archive " + directory, e);
+        }
+        years.forEach(year -> jdbcTemplate.update(RECORD_YEAR_SQL, year));
+        return years;
+    }
+
+    /**
+     * Describe every archived segment.
+     */
+    public List<AttendanceArchiveSegmentDto> findSegments() {
+        List<AttendanceArchiveSegmentDto> segments = new ArrayList<>();
+        for (int year : archivedYears(Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+            Segment segment = segment(year);
+            DayTotals totals = segment.count(null, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            segments.add(AttendanceArchiveSegmentDto.builder()
+                    .year(year)
+                    .employees(segment.employeeIds.length)
+                    .runs(segment.codes.length)
+                    .presentDays(totals.presentDays())
+                    .leaveDays(totals.leaveDays())
+                    .fileSizeBytes(sizeOf(pathOf(year)))
+                    .build());
+        }
+        return segments;
+    }
+
+    /**
+     * Start writing the segment of a year. Nothing is visible until {@link SegmentWriter#commit()}.
+     */
+    public SegmentWriter createSegment(int year) {
+        return new SegmentWriter(year);
+    }
+
+    /**
+     * Find (employee, date, status) of the archived days of some employees in a date range,
+     * ordered by employee and date.
+     */
+    public List<AttendanceMark> findMarks(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        List<AttendanceMark> marks = new ArrayList<>();
+        List<Long> sortedIds = employeeIds.stream().distinct().sorted().toList();
+        for (int year : archivedYears(startDate.getYear(), endDate.getYear())) {
+            Segment segment = segment(year);
+            for (Long employeeId : sortedIds) {
+                segment.collect(employeeId, startDate, endDate, marks);
+            }
+        }
+        marks.sort(Comparator.comparing(AttendanceMark::employeeId).thenComparing(AttendanceMark::attendanceDate));
+        return marks;
+    }
+
+    /**
+     * Count the archived PRESENT and LEAVE days in a date range, for some employees or for
+     * everyone when employeeIds is null.
+     */
+    public DayTotals countDays(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        DayTotals totals = new DayTotals(0, 0);
+        for (int year : archivedYears(startDate.getYear(), endDate.getYear())) {
+            totals = totals.plus(segment(year).count(employeeIds, startDate, endDate));
+        }
+        return totals;
+    }
+
+    private List<Integer> archivedYears(int fromYear, int toYear) {
+        return jdbcTemplate.queryForList(ARCHIVED_YEARS_SQL, Integer.class, fromYear, toYear);
+    }
+
+    private Segment segment(int year) {
+        synchronized (cache) {
+            Segment segment = cache.get(year);
+            if (segment == null) {
+                segment = read(year);
+                cache.put(year, segment);
+            }
+            return segment;
+        }
+    }
+
+    private Segment read(int year) {
+        Path file = pathOf(year);
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)));
+                DataInputStream data = new DataInputStream(in)) {
+            if (data.readInt() != MAGIC || data.readByte() != VERSION || data.readInt() != year) {
+                throw new IOException("Not an attendance segment for " + year);
+            }
+            AttendanceStatus[] dictionary = new AttendanceStatus[data.readUnsignedByte() + 1];
+            for (int code = 1; code < dictionary.length; code++) {
+                dictionary[code] = AttendanceStatus.valueOf(data.readUTF());
+            }
+
+            int employees = data.readInt();
+            long[] employeeIds = new long[employees];
+            long previousId = 0;
+            for (int i = 0; i < employees; i++) {
+                previousId += readVarint(data);
+                employeeIds[i] = previousId;
+            }
+            int[] firstRun = new int[employees + 1];
+            for (int i = 0; i < employees; i++) {
+                firstRun[i + 1] = firstRun[i] + (int) readVarint(data);
+            }
+            byte[] codes = new byte[data.readInt()];
+            data.readFully(codes);
+            int[] lengths = new int[codes.length];
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = (int) readVarint(data);
+            }
+            return new Segment(LocalDate.of(year, 1, 1), dictionary, employeeIds, firstRun, codes, lengths);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read attendance segment " + file, e);
+        }
+    }
+
+    private Path pathOf(int year) {
+        return directory.resolve("attendance-" + year + ".seg");
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Encodes the segment of one year; employees must be added in ascending id order.
+     */
+    public final class SegmentWriter {
+
+        private final int year;
+        private final long firstEpochDay;
+        private final ByteArrayOutputStream employeeIds = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream runCounts = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream codes = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream lengths = new ByteArrayOutputStream();
+        private int employees;
+        private long previousId;
+
+        private SegmentWriter(int year) {
+            this.year = year;
+            this.firstEpochDay = LocalDate.of(year, 1, 1).toEpochDay();
+        }
+
+        /**
+         * Add the attendance days of one employee in the segment's year.
+         */
+        public void add(long employeeId, List<AttendanceMark> marks) {
+            if (marks.isEmpty()) {
+                return;
+            }
+            if (employees > 0 && employeeId <= previousId) {
+                throw new IllegalArgumentException("Employees must be added in ascending id order");
+            }
+
+            List<AttendanceMark> days = new ArrayList<>(marks);
+            days.sort(Comparator.comparing(AttendanceMark::attendanceDate));
+            int runs = 0;
+            int runCode = -1;
+            int runLength = 0;
+            int nextDay = 0;
+            for (AttendanceMark mark : days) {
+                int day = (int) (mark.attendanceDate().toEpochDay() - firstEpochDay);
+                if (mark.attendanceDate().getYear() != year || day < nextDay) {
+                    throw new IllegalArgumentException("Attendance day out of order or outside " + year);
+                }
+                int code = mark.status().ordinal() + 1;
+                if (day > nextDay) {
+                    runs += flush(runCode, runLength);
+                    runCode = 0;
+                    runLength = day - nextDay;
+                }
+                if (code != runCode) {
+                    runs += flush(runCode, runLength);
+                    runCode = code;
+                    runLength = 0;
+                }
+                runLength++;
+                nextDay = day + 1;
+            }
+            runs += flush(runCode, runLength);
+
+            writeVarint(employeeIds, employeeId - previousId);
+            writeVarint(runCounts, runs);
+            previousId = employeeId;
+            employees++;
+        }
+
+        private int flush(int code, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            codes.write(code);
+            writeVarint(lengths, length);
+            return 1;
+        }
+
+        /**
+         * Write the segment file atomically and record the year as archived, which makes every
+         * instance read it from the archive.
+         */
+        public void commit() {
+            Path file = pathOf(year);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(directory);
+                try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                    GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(out));
+                    DataOutputStream data = new DataOutputStream(gzip);
+                    data.writeInt(MAGIC);
+                    data.writeByte(VERSION);
+                    data.writeInt(year);
+                    data.writeByte(STATUSES.length);
+                    for (AttendanceStatus status : STATUSES) {
+                        data.writeUTF(status.name());
+                    }
+                    data.writeInt(employees);
+                    employeeIds.writeTo(data);
+                    runCounts.writeTo(data);
+                    data.writeInt(codes.size());
+                    codes.writeTo(data);
+                    lengths.writeTo(data);
+                    data.flush();
+                    gzip.finish();
+                    gzip.flush();
+                    out.getFD().sync();
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write attendance segment " + file, e);
+            }
+            synchronized (cache) {
+                cache.remove(year);
+            }
+            jdbcTemplate.update(RECORD_YEAR_SQL, year);
+        }
+    }
+
+    /**
+     * A decoded segment: runs of employee i are codes/lengths[firstRun[i] .. firstRun[i + 1]).
+     */
+    private static final class Segment {
+
+        private final long firstEpochDay;
+        private final AttendanceStatus[] dictionary;
+        private final long[] employeeIds;
+        private final int[] firstRun;
+        private final byte[] codes;
+        private final int[] lengths;
+
+        private Segment(LocalDate firstDay, AttendanceStatus[] dictionary, long[] employeeIds, int[] firstRun,
+                byte[] codes, int[] lengths) {
+            this.firstEpochDay = firstDay.toEpochDay();
+            this.dictionary = dictionary;
+            this.employeeIds = employeeIds;
+            this.firstRun = firstRun;
+            this.codes = codes;
+            this.lengths = lengths;
+        }
+
+        private void collect(long employeeId, LocalDate startDate, LocalDate endDate, List<AttendanceMark> marks) {
+            int employee = Arrays.binarySearch(employeeIds, employeeId);
+            if (employee < 0) {
+                return;
+            }
+            long from = startDate.toEpochDay();
+            long to = endDate.toEpochDay();
+            long runStart = firstEpochDay;
+            for (int run = firstRun[employee]; run < firstRun[employee + 1] && runStart <= to; run++) {
+                long runEnd = runStart + lengths[run] - 1;
+                AttendanceStatus status = dictionary[codes[run]];
+                if (status != null) {
+                    for (long day = Math.max(runStart, from); day <= Math.min(runEnd, to); day++) {
+                        marks.add(new AttendanceMark(employeeId, LocalDate.ofEpochDay(day), status));
+                    }
+                }
+                runStart = runEnd + 1;
+            }
+        }
+
+        private DayTotals count(Collection<Long> employeeIdFilter, LocalDate startDate, LocalDate endDate) {
+            long[] totals = new long[dictionary.length];
+            if (employeeIdFilter == null) {
+                for (int employee = 0; employee < employeeIds.length; employee++) {
+                    count(employee, startDate.toEpochDay(), endDate.toEpochDay(), totals);
+                }
+            } else {
+                for (Long employeeId : employeeIdFilter) {
+                    int employee = Arrays.binarySearch(employeeIds, employeeId);
+                    if (employee >= 0) {
+                        count(employee, startDate.toEpochDay(), endDate.toEpochDay(), totals);
+                    }
+                }
+            }
+
+            long present = 0;
+            long onLeave = 0;
+            for (int code = 1; code < dictionary.length; code++) {
+                if (dictionary[code] == AttendanceStatus.PRESENT) {
+                    present += totals[code];
+                } else if (dictionary[code] == AttendanceStatus.LEAVE) {
+                    onLeave += totals[code];
+                }
+            }
+            return new DayTotals(present, onLeave);
+        }
+
+        private void count(int employee, long from, long to, long[] totals) {
+            long runStart = firstEpochDay;
+            for (int run = firstRun[employee]; run < firstRun[employee + 1] && runStart <= to; run++) {
+                long runEnd = runStart + lengths[run] - 1;
+                long overlap = Math.min(runEnd, to) - Math.max(runStart, from) + 1;
+                if (overlap > 0) {
+                    totals[codes[run]] += overlap;
+                }
+                runStart = runEnd + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk writer for attendance rows; every path that writes attendance goes through here.
+ * Rows are sent as arrays and written with INSERT ... ON CONFLICT on the
+ * (employee_id, attendance_date) unique key, so overlapping or repeated runs are
+ * idempotent and never fail on a duplicate. Attendance ids are IDENTITY generated,
+ * so Hibernate cannot batch these inserts itself. In the EXCEPTIONS storage mode generated
+ * PRESENT days are recorded as attendance periods instead of rows.
+ */
+@Repository
+public class AttendanceBatchRepository {
+
+    private static final String UNNEST_ROWS = "SELECT r.employee_id, r.attendance_date, r.status, " +
+            "r.leave_request_id, now() " +
+            "FROM unnest(?, ?, ?, ?) AS r(employee_id, attendance_date, status, leave_request_id) ";
+
+    private static final String INSERT_SQL = "INSERT INTO attendance " +
+            "(employee_id, attendance_date, status, leave_request_id, created_at) " + UNNEST_ROWS +
+            "ON CONFLICT (employee_id, attendance_date) DO NOTHING " +
+            "RETURNING employee_id, attendance_date, status, leave_request_id";
+
+    private static final String UPSERT_SQL = "INSERT INTO attendance " +
+            "(employee_id, attendance_date, status, leave_request_id, created_at) " + UNNEST_ROWS +
+            "ON CONFLICT (employee_id, attendance_date) DO UPDATE " +
+            "SET status = EXCLUDED.status, leave_request_id = EXCLUDED.leave_request_id " +
+            "RETURNING employee_id, attendance_date, status, leave_request_id";
+
+    private static final RowMapper<AttendanceRow> ROW_MAPPER = (rs, rowNum) -> new AttendanceRow(
+            rs.getLong("employee_id"),
+            rs.getObject("attendance_date", LocalDate.class),
+            AttendanceStatus.valueOf(rs.getString("status")),
+            rs.getObject("leave_request_id", Long.class));
+
+    private static final RowMapper<Long> EMPLOYEE_ID_MAPPER = (rs, rowNum) -> rs.getLong("employee_id");
+
+    /**
+     * Inserts a PRESENT row for every missing (employee, date) pair of a date range in one statement.
+     * Approved leaves already have their LEAVE rows, written when the leave was approved.
+     */
+    private static final String BACKFILL_SQL = """
+            WITH inserted AS (
+                INSERT INTO attendance (employee_id, attendance_date, status, created_at)
+                SELECT u.id, d::date, 'PRESENT', now()
+                FROM users u
+                CROSS JOIN generate_series(?::date, ?::date, interval '1 day') AS d
+                WHERE u.role = 'EMPLOYEE' AND u.status = ?
+                  AND (u.joining_date IS NULL OR u.joining_date <= d::date)
+                  AND NOT EXISTS (SELECT 1 FROM attendance a
+                                  WHERE a.employee_id = u.id AND a.attendance_date = d::date)
+                ON CONFLICT (employee_id, attendance_date) DO NOTHING
+                RETURNING 1
+            )
+            SELECT COUNT(*) FROM inserted
+            """;
+
+    /**
+     * Attendance periods (EXCEPTIONS storage mode). A day is covered by extending the employee's
+     * period that ends the day before, or else by opening a one-day period; employees already
+     * covered on the day are left alone so periods never overlap.
+     * The employees come from the EMPLOYEES placeholder, bound ahead of the remaining parameters.
+     */
+    private static final String NOT_COVERED = "NOT EXISTS (SELECT 1 FROM attendance_period c " +
+            "WHERE c.employee_id = e.employee_id AND ? BETWEEN c.start_date AND c.end_date) ";
+
+    private static final String EXTEND_PERIODS_SQL = "UPDATE attendance_period p SET end_date = ? " +
+            "FROM EMPLOYEES " +
+            "WHERE p.employee_id = e.employee_id AND p.end_date = ? AND " + NOT_COVERED +
+            "RETURNING p.employee_id";
+
+    private static final String OPEN_PERIODS_SQL = "INSERT INTO attendance_period (employee_id, start_date, end_date) " +
+            "SELECT e.employee_id, ?, ? FROM EMPLOYEES " +
+            "WHERE " + NOT_COVERED +
+            "ON CONFLICT (employee_id, start_date) DO NOTHING " +
+            "RETURNING employee_id";
+
+    private static final String LISTED_EMPLOYEES = "unnest(?) AS e(employee_id)";
+
+    /**
+     * Covers a date range for active employees in one statement, as BACKFILL_SQL does for rows.
+     * The days not covered yet are grouped into runs of consecutive days (consecutive dates
+     * share the same date - row number); a run extends the employee's period that ends the day
+     * before it, or else becomes a new period. Returns the number of days covered.
+     */
+    private static final String COVER_DAYS_SQL = """
+            WITH uncovered AS (
+                SELECT u.id AS employee_id, d::date AS day
+                FROM users u
+                CROSS JOIN generate_series(?::date, ?::date, interval '1 day') AS d
+                WHERE u.role = 'EMPLOYEE' AND u.status = ?
+                  AND (u.joining_date IS NULL OR u.joining_date <= d::date)
+                  AND NOT EXISTS (SELECT 1 FROM attendance_period c
+                                  WHERE c.employee_id = u.id AND d::date BETWEEN c.start_date AND c.end_date)
+            ),
+            runs AS (
+                SELECT employee_id, MIN(day) AS start_date, MAX(day) AS end_date, COUNT(*) AS days
+                FROM (
+                    SELECT employee_id, day,
+                           day - (ROW_NUMBER() OVER (PARTITION BY employee_id ORDER BY day))::int AS run
+                    FROM uncovered
+                ) numbered
+                GROUP BY employee_id, run
+            ),
+            extended AS (
+                UPDATE attendance_period p SET end_date = r.end_date
+                FROM runs r
+                WHERE p.employee_id = r.employee_id AND p.end_date = r.start_date - 1
+                RETURNING r.employee_id, r.start_date
+            ),
+            opened AS (
+                INSERT INTO attendance_period (employee_id, start_date, end_date)
+                SELECT r.employee_id, r.start_date, r.end_date
+                FROM runs r
+                WHERE NOT EXISTS (SELECT 1 FROM extended x
+                                  WHERE x.employee_id = r.employee_id AND x.start_date = r.start_date)
+                ON CONFLICT (employee_id, start_date) DO NOTHING
+                RETURNING employee_id, start_date
+            )
+            SELECT COALESCE(SUM(r.days), 0)
+            FROM runs r
+            WHERE EXISTS (SELECT 1 FROM extended x WHERE x.employee_id = r.employee_id AND x.start_date = r.start_date)
+               OR EXISTS (SELECT 1 FROM opened o WHERE o.employee_id = r.employee_id AND o.start_date = r.start_date)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public AttendanceBatchRepository(JdbcTemplate jdbcTemplate,
+            @Value("${attendance.generation.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Insert rows whose (employee, date) has no attendance yet; existing rows are left untouched.
+     * Returns the rows that were actually written.
+     */
+    public List<AttendanceRow> insertAll(List<AttendanceRow> rows) {
+        return write(INSERT_SQL, rows);
+    }
+
+    /**
+     * Insert rows, or overwrite status and leave request of existing rows for the same (employee, date).
+     * Returns the rows that were written.
+     */
+    public List<AttendanceRow> upsertAll(List<AttendanceRow> rows) {
+        return write(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Generate every missing attendance row for active employees between two dates (inclusive).
+     * Returns the number of PRESENT rows inserted.
+     */
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        Integer inserted = jdbcTemplate.queryForObject(BACKFILL_SQL, Integer.class,
+                Date.valueOf(startDate), Date.valueOf(endDate), Status.ACTIVE.ordinal());
+        return inserted != null ? inserted : 0;
+    }
+
+    /**
+     * Mark a day as generated for the given employees by extending or opening their attendance periods.
+     * Returns the employees that were not covered on the day yet.
+     */
+    public List<Long> coverDay(LocalDate date, List<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        Object[] ids = employeeIds.toArray();
+        return coverDay(LISTED_EMPLOYEES, date, (connection, ps, index) -> {
+            ps.setArray(index, connection.createArrayOf("bigint", ids));
+            return index + 1;
+        });
+    }
+
+    /**
+     * Cover every day between two dates (inclusive) for active employees who had joined by then.
+     * Returns the number of (employee, day) pairs that were not covered yet.
+     */
+    public int coverDays(LocalDate startDate, LocalDate endDate) {
+        Integer covered = jdbcTemplate.queryForObject(COVER_DAYS_SQL, Integer.class,
+                Date.valueOf(startDate), Date.valueOf(endDate), Status.ACTIVE.ordinal());
+        return covered != null ? covered : 0;
+    }
+
+    /**
+     * Delete all attendance between two dates (inclusive): rows, and the part of attendance
+     * periods inside the range, splitting periods that span it.
+     * Returns the number of rows deleted.
+     */
+    public int deleteRange(LocalDate startDate, LocalDate endDate) {
+        Date start = Date.valueOf(startDate);
+        Date end = Date.valueOf(endDate);
+        Date dayBefore = Date.valueOf(startDate.minusDays(1));
+        Date dayAfter = Date.valueOf(endDate.plusDays(1));
+
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM attendance WHERE attendance_date BETWEEN ? AND ?", start, end);
+        jdbcTemplate.update("DELETE FROM attendance_period WHERE start_date >= ? AND end_date <= ?", start, end);
+        jdbcTemplate.update("INSERT INTO attendance_period (employee_id, start_date, end_date) " +
+                "SELECT employee_id, ?, end_date FROM attendance_period WHERE start_date < ? AND end_date > ?",
+                dayAfter, start, end);
+        jdbcTemplate.update("UPDATE attendance_period SET end_date = ? WHERE start_date < ? AND end_date >= ?",
+                dayBefore, start, start);
+        jdbcTemplate.update("UPDATE attendance_period SET start_date = ? " +
+                "WHERE start_date BETWEEN ? AND ? AND end_date > ?", dayAfter, start, end, end);
+        return deleted;
+    }
+
+    private List<Long> coverDay(String employees, LocalDate date, EmployeeBinder binder) {
+        String extendSql = EXTEND_PERIODS_SQL.replace("EMPLOYEES", employees);
+        String openSql = OPEN_PERIODS_SQL.replace("EMPLOYEES", employees);
+        Date day = Date.valueOf(date);
+        Date previousDay = Date.valueOf(date.minusDays(1));
+
+        List<Long> covered = new ArrayList<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(extendSql);
+            ps.setDate(1, day);
+            int index = binder.bind(connection, ps, 2);
+            ps.setDate(index, previousDay);
+            ps.setDate(index + 1, day);
+            return ps;
+        }, EMPLOYEE_ID_MAPPER));
+        covered.addAll(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(openSql);
+            ps.setDate(1, day);
+            ps.setDate(2, day);
+            int index = binder.bind(connection, ps, 3);
+            ps.setDate(index, day);
+            return ps;
+        }, EMPLOYEE_ID_MAPPER));
+        return covered;
+    }
+
+    private List<AttendanceRow> write(String sql, List<AttendanceRow> rows) {
+        List<AttendanceRow> written = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<AttendanceRow> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            written.addAll(jdbcTemplate.query(connection -> prepare(connection, sql, batch), ROW_MAPPER));
+        }
+        return written;
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, List<AttendanceRow> batch)
+            throws SQLException {
+        Object[] employeeIds = new Object[batch.size()];
+        Object[] dates = new Object[batch.size()];
+        Object[] statuses = new Object[batch.size()];
+        Object[] leaveRequestIds = new Object[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            AttendanceRow row = batch.get(i);
+            employeeIds[i] = row.employeeId();
+            dates[i] = Date.valueOf(row.attendanceDate());
+            statuses[i] = row.status().name();
+            leaveRequestIds[i] = row.leaveRequestId();
+        }
+
+        PreparedStatement ps = connection.prepareStatement(sql);
+        ps.setArray(1, connection.createArrayOf("bigint", employeeIds));
+        ps.setArray(2, connection.createArrayOf("date", dates));
+        ps.setArray(3, connection.createArrayOf("varchar", statuses));
+        ps.setArray(4, connection.createArrayOf("bigint", leaveRequestIds));
+        return ps;
+    }
+
+    /**
+     * Binds the parameters of an EMPLOYEES source starting at index; returns the next free index.
+     */
+    @FunctionalInterface
+    private interface EmployeeBinder {
+        int bind(Connection connection, PreparedStatement ps, int index) throws SQLException;
+    }
+
+    /**
+     * A single attendance row to be written.
+     */
+    public record AttendanceRow(Long employeeId, LocalDate attendanceDate, AttendanceStatus status,
+            Long leaveRequestId) {
+    }
+}
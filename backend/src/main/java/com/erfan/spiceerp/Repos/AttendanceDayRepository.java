@@ -0,0 +1,284 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Exception.BusinessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lean attendance reads over plain JDBC, used by the EXCEPTIONS storage mode and by caches.
+ * Stored attendance rows are combined with one synthesized PRESENT day for every day of an
+ * attendance period that has no stored row, so callers see the same days as in FULL mode.
+ * Synthesized days have no id and no creation time.
+ */
+@Repository
+public class AttendanceDayRepository {
+
+    private static final LocalDate UNBOUNDED_START = LocalDate.of(1900, 1, 1);
+    private static final LocalDate UNBOUNDED_END = LocalDate.of(9999, 12, 31);
+
+    private static final String DAYS_SQL = """
+            SELECT v.id, v.employee_id, u.name AS employee_name, u.employee_code, u.department,
+                   v.attendance_date, v.status, v.leave_request_id, v.created_at
+            FROM (
+                SELECT a.id, a.employee_id, a.attendance_date, a.status, a.leave_request_id, a.created_at
+                FROM attendance a
+                WHERE a.attendance_date BETWEEN :startDate AND :endDate EMPLOYEE_FILTER_A
+                UNION ALL
+                SELECT NULL, p.employee_id, d::date, 'PRESENT', NULL, NULL
+                FROM attendance_period p
+                CROSS JOIN LATERAL generate_series(GREATEST(p.start_date, :startDate),
+                                                   LEAST(p.end_date, :endDate), interval '1 day') AS d
+                WHERE p.start_date <= :endDate AND p.end_date >= :startDate EMPLOYEE_FILTER_P
+                  AND NOT EXISTS (SELECT 1 FROM attendance s
+                                  WHERE s.employee_id = p.employee_id AND s.attendance_date = d::date)
+            ) v
+            JOIN users u ON u.id = v.employee_id
+            """;
+
+    /**
+     * Every attendance day between :startDate and :endDate, joined to the employee as u.
+     */
+    static final String ALL_DAYS_SQL = DAYS_SQL
+            .replace("EMPLOYEE_FILTER_A", "")
+            .replace("EMPLOYEE_FILTER_P", "");
+
+    private static final String EMPLOYEE_DAYS_SQL = DAYS_SQL
+            .replace("EMPLOYEE_FILTER_A", "AND a.employee_id = :employeeId")
+            .replace("EMPLOYEE_FILTER_P", "AND p.employee_id = :employeeId");
+
+    private static final String EMPLOYEES_DAYS_SQL = DAYS_SQL
+            .replace("EMPLOYEE_FILTER_A", "AND a.employee_id IN (:employeeIds)")
+            .replace("EMPLOYEE_FILTER_P", "AND p.employee_id IN (:employeeIds)");
+
+    /**
+     * Sortable properties, named like the Attendance entity paths the FULL mode sorts by.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "v.id",
+            "attendanceDate", "v.attendance_date",
+            "status", "v.status",
+            "createdAt", "v.created_at",
+            "employee.id", "v.employee_id",
+            "employee.name", "u.name",
+            "employee.employeeCode", "u.employee_code");
+
+    private static final RowMapper<AttendanceDay> ROW_MAPPER = (rs, rowNum) -> new AttendanceDay(
+            rs.getObject("id", Long.class),
+            rs.getLong("employee_id"),
+            rs.getString("employee_name"),
+            rs.getString("employee_code"),
+            rs.getObject("attendance_date", LocalDate.class),
+            AttendanceStatus.valueOf(rs.getString("status")),
+            rs.getObject("leave_request_id", Long.class),
+            rs.getObject("created_at", LocalDateTime.class));
+
+    /**
+     * (employee, date, status) of stored rows only, as kept in FULL mode.
+     */
+    private static final String STORED_MARKS_SQL = """
+            SELECT a.employee_id, a.attendance_date, a.status
+            FROM attendance a
+            WHERE a.attendance_date BETWEEN :startDate AND :endDate
+            """;
+
+    private static final RowMapper<AttendanceMark> MARK_MAPPER = (rs, rowNum) -> new AttendanceMark(
+            rs.getLong("employee_id"),
+            rs.getObject("attendance_date", LocalDate.class),
+            AttendanceStatus.valueOf(rs.getString("status")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RowEstimateRepository rowEstimateRepository;
+
+    public AttendanceDayRepository(NamedParameterJdbcTemplate jdbcTemplate,
+            RowEstimateRepository rowEstimateRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowEstimateRepository = rowEstimateRepository;
+    }
+
+    /**
+     * Find all attendance days of an employee, latest first.
+     */
+    public List<AttendanceDay> findByEmployee(Long employeeId) {
+        return findByEmployeeAndDateRange(employeeId, UNBOUNDED_START, UNBOUNDED_END);
+    }
+
+    /**
+     * Stream all attendance days of an employee, latest first, read from a database cursor;
+     * the stream must be closed.
+     */
+    public Stream<AttendanceDay> streamByEmployee(Long employeeId) {
+        return jdbcTemplate.queryForStream(EMPLOYEE_DAYS_SQL + "ORDER BY v.attendance_date DESC",
+                employeeParams(employeeId, UNBOUNDED_START, UNBOUNDED_END), ROW_MAPPER);
+    }
+
+    /**
+     * Find the attendance days of an employee within a date range, latest first.
+     */
+    public List<AttendanceDay> findByEmployeeAndDateRange(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(EMPLOYEE_DAYS_SQL + "ORDER BY v.attendance_date DESC",
+                employeeParams(employeeId, startDate, endDate), ROW_MAPPER);
+    }
+
+    /**
+     * Count the days of an employee with a status within a date range.
+     */
+    public long countByEmployeeAndStatus(Long employeeId, AttendanceStatus status, LocalDate startDate,
+            LocalDate endDate) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (" + EMPLOYEE_DAYS_SQL + ") c WHERE c.status = :status",
+                employeeParams(employeeId, startDate, endDate).addValue("status", status.name()), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Find the attendance days of all employees on a date.
+     */
+    public List<AttendanceDay> findByDate(LocalDate date) {
+        return jdbcTemplate.query(ALL_DAYS_SQL + "ORDER BY v.employee_id", dateParams(date), ROW_MAPPER);
+    }
+
+    /**
+     * Find the attendance days of some employees on a date, by employee.
+     */
+    public List<AttendanceDay> findByDateAndEmployees(LocalDate date, Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(EMPLOYEES_DAYS_SQL + "ORDER BY v.employee_id",
+                dateParams(date).addValue("employeeIds", employeeIds), ROW_MAPPER);
+    }
+
+    /**
+     * Stream the attendance days of all employees on a date, by employee, read from a
+     * database cursor; the stream must be closed.
+     */
+    public Stream<AttendanceDay> streamByDate(LocalDate date) {
+        return jdbcTemplate.queryForStream(ALL_DAYS_SQL + "ORDER BY v.employee_id", dateParams(date), ROW_MAPPER);
+    }
+
+    /**
+     * Find one page of the attendance days on a date.
+     */
+    public List<AttendanceDay> findByDate(LocalDate date, Pageable pageable) {
+        String sql = ALL_DAYS_SQL + orderBy(pageable.getSort());
+        if (pageable.isPaged()) {
+            sql += " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+        }
+        return jdbcTemplate.query(sql, dateParams(date), ROW_MAPPER);
+    }
+
+    /**
+     * Count the attendance days on a date.
+     */
+    public long countByDate(LocalDate date) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + ALL_DAYS_SQL + ") c",
+                dateParams(date), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Estimate the attendance days on a date from the planner statistics.
+     */
+    public long estimateCountByDate(LocalDate date) {
+        return rowEstimateRepository.estimate(ALL_DAYS_SQL, dateParams(date));
+    }
+
+    /**
+     * Find up to limit attendance days on a date, by employee id, after a given employee id
+     * (keyset pagination; null for the first slice).
+     */
+    public List<AttendanceDay> findByDateAfterEmployeeId(LocalDate date, Long employeeId, int limit) {
+        MapSqlParameterSource params = dateParams(date).addValue("limit", limit);
+        String where = "";
+        if (employeeId != null) {
+            where = "WHERE v.employee_id > :employeeId ";
+            params.addValue("employeeId", employeeId);
+        }
+        return jdbcTemplate.query(ALL_DAYS_SQL + where + "ORDER BY v.employee_id LIMIT :limit", params, ROW_MAPPER);
+    }
+
+    /**
+     * Find up to limit attendance days on a date, by employee name, after a given
+     * (employee name, employee id) (keyset pagination; null for the first slice).
+     */
+    public List<AttendanceDay> findByDateAfterEmployeeName(LocalDate date, String employeeName, Long employeeId,
+            int limit) {
+        MapSqlParameterSource params = dateParams(date).addValue("limit", limit);
+        String where = "";
+        if (employeeId != null) {
+            where = "WHERE (u.name, v.employee_id) > (:employeeName, :employeeId) ";
+            params.addValue("employeeName", employeeName).addValue("employeeId", employeeId);
+        }
+        return jdbcTemplate.query(ALL_DAYS_SQL + where + "ORDER BY u.name, v.employee_id LIMIT :limit", params,
+                ROW_MAPPER);
+    }
+
+    /**
+     * Find (employee, date, status) of every attendance day of some employees in a date range.
+     * With synthesizePresent the PRESENT days of attendance periods are included (EXCEPTIONS mode).
+     */
+    public List<AttendanceMark> findMarks(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate,
+            boolean synthesizePresent) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = synthesizePresent ? EMPLOYEES_DAYS_SQL : STORED_MARKS_SQL + "AND a.employee_id IN (:employeeIds)";
+        MapSqlParameterSource params = new MapSqlParameterSource("employeeIds", employeeIds)
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+        return jdbcTemplate.query(sql, params, MARK_MAPPER);
+    }
+
+    private MapSqlParameterSource employeeParams(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        return new MapSqlParameterSource("employeeId", employeeId)
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+    }
+
+    private MapSqlParameterSource dateParams(LocalDate date) {
+        return new MapSqlParameterSource("startDate", Date.valueOf(date))
+                .addValue("endDate", Date.valueOf(date));
+    }
+
+    private String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "ORDER BY v.employee_id";
+        }
+        return sort.stream()
+                .map(order -> {
+                    String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new BusinessException("Cannot sort attendance by " + order.getProperty());
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", "ORDER BY ", ", v.employee_id"));
+    }
+
+    /**
+     * The status of one employee on one day.
+     */
+    public record AttendanceMark(Long employeeId, LocalDate attendanceDate, AttendanceStatus status) {
+    }
+
+    /**
+     * A stored or synthesized attendance day.
+     */
+    public record AttendanceDay(Long id, Long employeeId, String employeeName, String employeeCode,
+            LocalDate attendanceDate, AttendanceStatus status, Long leaveRequestId, LocalDateTime createdAt) {
+    }
+}
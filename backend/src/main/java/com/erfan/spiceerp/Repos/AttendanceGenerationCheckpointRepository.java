@@ -0,0 +1,38 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Models.AttendanceGenerationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Repository for attendance generation checkpoints.
+ */
+@Repository
+public interface AttendanceGenerationCheckpointRepository extends JpaRepository<AttendanceGenerationCheckpoint, Long> {
+
+    /**
+     * Find the start ids of all chunks already completed for a date.
+     */
+    @Query("SELECT c.chunkStartId FROM AttendanceGenerationCheckpoint c WHERE c.attendanceDate = :attendanceDate")
+    Set<Long> findChunkStartIdsByAttendanceDate(@Param("attendanceDate") LocalDate attendanceDate);
+
+    /**
+     * Record a completed chunk; a checkpoint written concurrently by another run is kept.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attendance_generation_checkpoint " +
+            "(attendance_date, chunk_start_id, chunk_end_id, present_count, existing_count, completed_at) " +
+            "VALUES (:attendanceDate, :chunkStartId, :chunkEndId, :presentCount, :existingCount, LOCALTIMESTAMP) " +
+            "ON CONFLICT (attendance_date, chunk_start_id) DO NOTHING", nativeQuery = true)
+    int saveIfAbsent(@Param("attendanceDate") LocalDate attendanceDate,
+            @Param("chunkStartId") Long chunkStartId,
+            @Param("chunkEndId") Long chunkEndId,
+            @Param("presentCount") Integer presentCount,
+            @Param("existingCount") Integer existingCount);
+}
@@ -0,0 +1,128 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Dto.AttendancePartitionDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Manages the monthly range partitions of the attendance table (see V5__Partition_attendance_by_month.sql).
+ * Partitions are named attendance_YYYY_MM; rows without a partition land in attendance_default.
+ */
+@Repository
+public class AttendancePartitionRepository {
+
+    private static final String PREFIX = "attendance_";
+    private static final String DEFAULT_PARTITION = "attendance_default";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT COALESCE((SELECT c.relkind = 'p' FROM pg_class c WHERE c.oid = to_regclass('attendance')), false)";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname AS name, GREATEST(c.reltuples, 0)::bigint AS estimated_rows,
+                   pg_total_relation_size(c.oid) AS size_bytes
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('attendance')
+            ORDER BY c.relname
+            """;
+
+    private static final RowMapper<AttendancePartitionDto> PARTITION_MAPPER = (rs, rowNum) -> AttendancePartitionDto
+            .builder()
+            .name(rs.getString("name"))
+            .month(monthOf(rs.getString("name")))
+            .estimatedRows(rs.getLong("estimated_rows"))
+            .sizeBytes(rs.getLong("size_bytes"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendancePartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Whether the attendance table is partitioned (false until V5 has been applied).
+     */
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+    }
+
+    /**
+     * List the partitions currently attached to the attendance table.
+     */
+    public List<AttendancePartitionDto> findPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, PARTITION_MAPPER);
+    }
+
+    /**
+     * Create the partition of a month unless it exists. The partition is built as a plain table,
+     * filled with any rows of the month that went to the DEFAULT partition, then attached.
+     * Returns false when the partition already existed.
+     */
+    @Transactional
+    public boolean createPartition(YearMonth month) {
+        String name = nameOf(month);
+        if (exists(name)) {
+            return false;
+        }
+        Date from = Date.valueOf(month.atDay(1));
+        Date to = Date.valueOf(month.plusMonths(1).atDay(1));
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE attendance INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        if (exists(DEFAULT_PARTITION)) {
+            jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                    " WHERE attendance_date >= ? AND attendance_date < ? RETURNING *) " +
+                    "INSERT INTO " + name + " SELECT * FROM moved", from, to);
+        }
+        jdbcTemplate.execute("ALTER TABLE attendance ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return true;
+    }
+
+    /**
+     * Detach the partition of a month, keeping it as a standalone table that can be archived or dropped.
+     * Returns false when the month has no partition.
+     */
+    @Transactional
+    public boolean detachPartition(YearMonth month) {
+        String name = nameOf(month);
+        if (!exists(name)) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE attendance DETACH PARTITION " + name);
+        return true;
+    }
+
+    /**
+     * Drop the partition of a month with all its rows. Returns false when the month has no partition.
+     */
+    @Transactional
+    public boolean dropPartition(YearMonth month) {
+        String name = nameOf(month);
+        if (!exists(name)) {
+            return false;
+        }
+        jdbcTemplate.execute("DROP TABLE " + name);
+        return true;
+    }
+
+    private boolean exists(String name) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+    }
+
+    private static String nameOf(YearMonth month) {
+        return PREFIX + month.format(NAME_FORMAT);
+    }
+
+    private static YearMonth monthOf(String name) {
+        return name.equals(DEFAULT_PARTITION) ? null : YearMonth.parse(name.substring(PREFIX.length()), NAME_FORMAT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Models.AttendancePeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repository for AttendancePeriod entity operations.
+ */
+@Repository
+public interface AttendancePeriodRepository extends JpaRepository<AttendancePeriod, Long> {
+
+    /**
+     * Find the latest day covered by any attendance period.
+     */
+    @Query("SELECT MAX(p.endDate) FROM AttendancePeriod p")
+    LocalDate findLatestEndDate();
+
+    /**
+     * Find the earliest day covered by any attendance period.
+     */
+    @Query("SELECT MIN(p.startDate) FROM AttendancePeriod p")
+    LocalDate findEarliestStartDate();
+}
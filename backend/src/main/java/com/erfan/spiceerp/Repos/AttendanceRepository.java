@@ -2,17 +2,23 @@ package com.erfan.spiceerp.Repos;
 
 import com.erfan.spiceerp.Enums.AttendanceStatus;
 import com.erfan.spiceerp.Models.Attendance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Attendance entity operations.
@@ -30,14 +36,42 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
      */
     boolean existsByEmployeeIdAndAttendanceDate(Long employeeId, LocalDate attendanceDate);
 
+    /**
+     * Find the latest date that has an attendance record with the given status.
+     */
+    @Query("SELECT MAX(a.attendanceDate) FROM Attendance a WHERE a.status = :status")
+    LocalDate findLatestAttendanceDateByStatus(@Param("status") AttendanceStatus status);
+
+    /**
+     * Find the earliest date that has an attendance record.
+     */
+    @Query("SELECT MIN(a.attendanceDate) FROM Attendance a")
+    LocalDate findEarliestAttendanceDate();
+
+    /**
+     * Find the latest date that has an attendance record.
+     */
+    @Query("SELECT MAX(a.attendanceDate) FROM Attendance a")
+    LocalDate findLatestAttendanceDate();
+
     /**
      * Find all attendance records for an employee.
      */
+    @EntityGraph(attributePaths = "employee")
     List<Attendance> findByEmployeeIdOrderByAttendanceDateDesc(Long employeeId);
 
+    /**
+     * Stream all attendance records for an employee, latest first, read from a database
+     * cursor; must be consumed and closed within a transaction.
+     */
+    @EntityGraph(attributePaths = "employee")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Attendance> streamByEmployeeIdOrderByAttendanceDateDesc(Long employeeId);
+
     /**
      * Find attendance records for an employee within a date range.
      */
+    @EntityGraph(attributePaths = "employee")
     @Query("SELECT a FROM Attendance a WHERE a.employee.id = :employeeId " +
             "AND a.attendanceDate BETWEEN :startDate AND :endDate " +
             "ORDER BY a.attendanceDate DESC")
@@ -49,13 +83,54 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     /**
      * Find all attendance records for a specific date.
      */
+    @EntityGraph(attributePaths = "employee")
     List<Attendance> findByAttendanceDate(LocalDate attendanceDate);
 
+    /**
+     * Stream all attendance records for a specific date, by employee, read from a database
+     * cursor; must be consumed and closed within a transaction.
+     */
+    @EntityGraph(attributePaths = "employee")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Attendance> streamByAttendanceDateOrderByEmployeeId(LocalDate attendanceDate);
+
     /**
      * Find all attendance records for a specific date with pagination.
      */
+    @EntityGraph(attributePaths = "employee")
     Page<Attendance> findByAttendanceDate(LocalDate attendanceDate, Pageable pageable);
 
+    /**
+     * Find the first slice of attendance records for a date, without counting them.
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :date")
+    Slice<Attendance> findSliceByAttendanceDate(@Param("date") LocalDate date, Pageable pageable);
+
+    /**
+     * Find the attendance records for a date after a given employee id (keyset pagination).
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :date AND a.employee.id > :employeeId")
+    Slice<Attendance> findSliceByAttendanceDateAfterEmployeeId(
+            @Param("date") LocalDate date,
+            @Param("employeeId") Long employeeId,
+            Pageable pageable);
+
+    /**
+     * Find the attendance records for a date after a given (employee name, employee id)
+     * (keyset pagination).
+     */
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :date " +
+            "AND (a.employee.name > :employeeName " +
+            "OR (a.employee.name = :employeeName AND a.employee.id > :employeeId))")
+    Slice<Attendance> findSliceByAttendanceDateAfterEmployeeName(
+            @Param("date") LocalDate date,
+            @Param("employeeName") String employeeName,
+            @Param("employeeId") Long employeeId,
+            Pageable pageable);
+
     /**
      * Update attendance status for a specific record.
      */
@@ -68,9 +143,17 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             @Param("status") AttendanceStatus status,
             @Param("leaveRequestId") Long leaveRequestId);
 
+    /**
+     * Delete the attendance rows written for a leave request.
+     */
+    @Modifying
+    @Query("DELETE FROM Attendance a WHERE a.leaveRequest.id = :leaveRequestId")
+    int deleteByLeaveRequestId(@Param("leaveRequestId") Long leaveRequestId);
+
     /**
      * Find attendance records by employee and status within a date range.
      */
+    @EntityGraph(attributePaths = "employee")
     @Query("SELECT a FROM Attendance a WHERE a.employee.id = :employeeId " +
             "AND a.status = :status " +
             "AND a.attendanceDate BETWEEN :startDate AND :endDate")
@@ -95,6 +178,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     /**
      * Find attendance records by status for a date.
      */
+    @EntityGraph(attributePaths = "employee")
     List<Attendance> findByAttendanceDateAndStatus(LocalDate attendanceDate, AttendanceStatus status);
 
     /**
@@ -0,0 +1,170 @@
+package com.erfan.spiceerp.Repos;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and reads the attendance_monthly_rollup table.
+ * Buckets are bumped by one for each newly generated PRESENT day and recomputed from the
+ * attendance days for writes that can change a day's status (leaves, backfills). Recomputing
+ * counts stored rows plus PRESENT days synthesized from attendance periods, so it is correct
+ * in both storage modes (attendance_period is empty in FULL mode).
+ */
+@Repository
+public class AttendanceRollupRepository {
+
+    private static final String ADD_PRESENT_DAYS_SQL = """
+            INSERT INTO attendance_monthly_rollup (employee_id, month, present_days, leave_days, updated_at)
+            SELECT e.employee_id, :month, 1, 0, now()
+            FROM unnest(CAST(:employeeIds AS bigint[])) AS e(employee_id)
+            WHERE NOT EXISTS (SELECT 1 FROM attendance a
+                              WHERE a.employee_id = e.employee_id AND a.attendance_date = :date
+                                AND a.status <> 'PRESENT')
+            ON CONFLICT (employee_id, month) DO UPDATE
+            SET present_days = attendance_monthly_rollup.present_days + 1, updated_at = now()
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM attendance_monthly_rollup r
+            WHERE r.month BETWEEN :fromMonth AND :toMonth EMPLOYEE_FILTER_R
+            """;
+
+    /**
+     * Every attendance day of a date range: stored rows plus the PRESENT days of attendance periods
+     * that have no stored row.
+     */
+    private static final String DAYS_SQL = """
+            SELECT a.employee_id, a.attendance_date, a.status
+            FROM attendance a
+            WHERE a.attendance_date BETWEEN :fromDate AND :toDate EMPLOYEE_FILTER_A
+            UNION ALL
+            SELECT p.employee_id, d::date, 'PRESENT'
+            FROM attendance_period p
+            CROSS JOIN LATERAL generate_series(GREATEST(p.start_date, :fromDate),
+                                               LEAST(p.end_date, :toDate), interval '1 day') AS d
+            WHERE p.start_date <= :toDate AND p.end_date >= :fromDate EMPLOYEE_FILTER_P
+              AND NOT EXISTS (SELECT 1 FROM attendance s
+                              WHERE s.employee_id = p.employee_id AND s.attendance_date = d::date)
+            """;
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO attendance_monthly_rollup (employee_id, month, present_days, leave_days, updated_at)
+            SELECT v.employee_id, date_trunc('month', v.attendance_date)::date,
+                   COUNT(*) FILTER (WHERE v.status = 'PRESENT'),
+                   COUNT(*) FILTER (WHERE v.status = 'LEAVE'),
+                   now()
+            FROM (""" + DAYS_SQL + """
+            ) v
+            GROUP BY v.employee_id, date_trunc('month', v.attendance_date)
+            ON CONFLICT (employee_id, month) DO UPDATE
+            SET present_days = EXCLUDED.present_days, leave_days = EXCLUDED.leave_days, updated_at = now()
+            """;
+
+    private static final String COUNT_DAYS_SQL = """
+            SELECT COUNT(*) FILTER (WHERE v.status = 'PRESENT') AS present_days,
+                   COUNT(*) FILTER (WHERE v.status = 'LEAVE') AS leave_days
+            FROM (""" + DAYS_SQL + """
+            ) v
+            """;
+
+    private static final String SUM_BY_MONTH_SQL = """
+            SELECT r.month, SUM(r.present_days) AS present_days, SUM(r.leave_days) AS leave_days
+            FROM attendance_monthly_rollup r
+            WHERE r.month BETWEEN :fromMonth AND :toMonth EMPLOYEE_FILTER_R
+            GROUP BY r.month
+            """;
+
+    private static final RowMapper<DayTotals> TOTALS_MAPPER = (rs, rowNum) -> new DayTotals(
+            rs.getLong("present_days"), rs.getLong("leave_days"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AttendanceRollupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Count one more PRESENT day for each employee, skipping employees whose day is stored with another status.
+     */
+    public void addPresentDays(LocalDate date, List<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(ADD_PRESENT_DAYS_SQL, new MapSqlParameterSource("employeeIds", employeeIds.toArray(Long[]::new))
+                .addValue("month", Date.valueOf(date.withDayOfMonth(1)))
+                .addValue("date", Date.valueOf(date)));
+    }
+
+    /**
+     * Recompute the buckets of the months from fromMonth to toMonth (first days of month), for some
+     * employees or for everyone when employeeIds is null.
+     */
+    public void rebuild(Collection<Long> employeeIds, LocalDate fromMonth, LocalDate toMonth) {
+        MapSqlParameterSource params = monthParams(employeeIds, fromMonth, toMonth)
+                .addValue("fromDate", Date.valueOf(fromMonth))
+                .addValue("toDate", Date.valueOf(toMonth.plusMonths(1).minusDays(1)));
+        jdbcTemplate.update(filtered(DELETE_SQL, employeeIds), params);
+        jdbcTemplate.update(filtered(REBUILD_SQL, employeeIds), params);
+    }
+
+    /**
+     * Sum the buckets of each month from fromMonth to toMonth, for some employees or for everyone
+     * when employeeIds is null. Months without any bucket are missing from the result.
+     */
+    public Map<LocalDate, DayTotals> sumByMonth(Collection<Long> employeeIds, LocalDate fromMonth, LocalDate toMonth) {
+        Map<LocalDate, DayTotals> totals = new HashMap<>();
+        jdbcTemplate.query(filtered(SUM_BY_MONTH_SQL, employeeIds), monthParams(employeeIds, fromMonth, toMonth),
+                rs -> {
+                    totals.put(rs.getDate("month").toLocalDate(), TOTALS_MAPPER.mapRow(rs, 0));
+                });
+        return totals;
+    }
+
+    /**
+     * Count PRESENT and LEAVE days straight from the attendance, for the partial months at the
+     * edges of a range. Covers some employees, or everyone when employeeIds is null.
+     */
+    public DayTotals countDays(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource("fromDate", Date.valueOf(startDate))
+                .addValue("toDate", Date.valueOf(endDate));
+        if (employeeIds != null) {
+            params.addValue("employeeIds", employeeIds);
+        }
+        return jdbcTemplate.queryForObject(filtered(COUNT_DAYS_SQL, employeeIds), params, TOTALS_MAPPER);
+    }
+
+    private MapSqlParameterSource monthParams(Collection<Long> employeeIds, LocalDate fromMonth, LocalDate toMonth) {
+        MapSqlParameterSource params = new MapSqlParameterSource("fromMonth", Date.valueOf(fromMonth))
+                .addValue("toMonth", Date.valueOf(toMonth));
+        if (employeeIds != null) {
+            params.addValue("employeeIds", employeeIds);
+        }
+        return params;
+    }
+
+    private static String filtered(String sql, Collection<Long> employeeIds) {
+        boolean filter = employeeIds != null;
+        return sql
+                .replace("EMPLOYEE_FILTER_R", filter ? "AND r.employee_id IN (:employeeIds)" : "")
+                .replace("EMPLOYEE_FILTER_A", filter ? "AND a.employee_id IN (:employeeIds)" : "")
+                .replace("EMPLOYEE_FILTER_P", filter ? "AND p.employee_id IN (:employeeIds)" : "");
+    }
+
+    /**
+     * PRESENT and LEAVE day counts.
+     */
+    public record DayTotals(long presentDays, long leaveDays) {
+        public DayTotals plus(DayTotals other) {
+            return new DayTotals(presentDays + other.presentDays, leaveDays + other.leaveDays);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Dto.DashboardDto;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated reads for the admin dashboard, each answered by one query returning only what
+ * the dashboard shows.
+ */
+@Repository
+public class DashboardRepository {
+
+    private static final Status[] EMPLOYEE_STATUSES = Status.values();
+
+    /**
+     * users.status is stored as the enum ordinal.
+     */
+    private static final String HEADCOUNT_SQL = """
+            SELECT status, COUNT(*) AS employees
+            FROM users
+            WHERE role = 'EMPLOYEE'
+            GROUP BY status
+            """;
+
+    private static final String LEAVE_COLUMNS = """
+            SELECT l.id, l.employee_id, u.employee_code, u.name AS employee_name, l.leave_type,
+                   l.start_date, l.end_date, l.total_days, l.status, l.applied_at
+            FROM leave_request l
+            JOIN users u ON u.id = l.employee_id
+            """;
+
+    private static final String LEAVES_OVERLAPPING_SQL = LEAVE_COLUMNS + """
+            WHERE l.status = :status AND l.start_date <= :endDate AND l.end_date >= :startDate
+            ORDER BY l.start_date, u.name
+            """;
+
+    private static final String RECENT_REQUESTS_SQL = LEAVE_COLUMNS + """
+            ORDER BY l.applied_at DESC, l.id DESC
+            LIMIT :limit
+            """;
+
+    private static final RowMapper<DashboardDto.Leave> LEAVE_MAPPER = (rs, rowNum) -> DashboardDto.Leave.builder()
+            .id(rs.getLong("id"))
+            .employeeId(rs.getLong("employee_id"))
+            .employeeCode(rs.getString("employee_code"))
+            .employeeName(rs.getString("employee_name"))
+            .leaveType(LeaveType.valueOf(rs.getString("leave_type")))
+            .startDate(rs.getObject("start_date", LocalDate.class))
+            .endDate(rs.getObject("end_date", LocalDate.class))
+            .totalDays(rs.getObject("total_days", Integer.class))
+            .status(LeaveStatus.valueOf(rs.getString("status")))
+            .appliedAt(rs.getObject("applied_at", LocalDateTime.class))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DashboardRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Count employees by status; statuses without employees count zero.
+     */
+    public Map<Status, Long> countEmployeesByStatus() {
+        Map<Status, Long> headcount = new EnumMap<>(Status.class);
+        for (Status status : EMPLOYEE_STATUSES) {
+            headcount.put(status, 0L);
+        }
+        jdbcTemplate.query(HEADCOUNT_SQL, rs -> {
+            headcount.put(EMPLOYEE_STATUSES[rs.getInt("status")], rs.getLong("employees"));
+        });
+        return headcount;
+    }
+
+    /**
+     * Find the leaves with a status overlapping a date range, by start date.
+     */
+    public List<DashboardDto.Leave> findLeavesOverlapping(LeaveStatus status, LocalDate startDate,
+            LocalDate endDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status.name())
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+        return jdbcTemplate.query(LEAVES_OVERLAPPING_SQL, params, LEAVE_MAPPER);
+    }
+
+    /**
+     * Find the most recently applied leave requests.
+     */
+    public List<DashboardDto.Leave> findRecentLeaveRequests(int limit) {
+        return jdbcTemplate.query(RECENT_REQUESTS_SQL, new MapSqlParameterSource("limit", limit), LEAVE_MAPPER);
+    }
+}
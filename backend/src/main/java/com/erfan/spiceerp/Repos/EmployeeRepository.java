@@ -2,15 +2,22 @@ package com.erfan.spiceerp.Repos;
 
 import com.erfan.spiceerp.Enums.Status;
 import com.erfan.spiceerp.Models.Employee;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Employee entity operations.
@@ -38,11 +45,46 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
          */
         boolean existsByEmail(String email);
 
+        /**
+         * Lock an employee row for the rest of the transaction.
+         * Serializes leave approvals of one employee.
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT e FROM Employee e WHERE e.id = :id")
+        Optional<Employee> findByIdForUpdate(@Param("id") Long id);
+
         /**
          * Find all employees with a given status.
          */
         List<Employee> findByStatus(Status status);
 
+        /**
+         * Find ids of employees with a given status within an id range.
+         */
+        @Query("SELECT e.id FROM Employee e WHERE e.status = :status " +
+                        "AND e.id BETWEEN :fromId AND :toId ORDER BY e.id")
+        List<Long> findIdsByStatusAndIdRange(@Param("status") Status status,
+                        @Param("fromId") Long fromId,
+                        @Param("toId") Long toId);
+
+        /**
+         * Find the ids of all employees, ascending.
+         */
+        @Query("SELECT e.id FROM Employee e ORDER BY e.id")
+        List<Long> findAllIds();
+
+        /**
+         * Find the lowest employee id with a given status.
+         */
+        @Query("SELECT MIN(e.id) FROM Employee e WHERE e.status = :status")
+        Long findMinIdByStatus(@Param("status") Status status);
+
+        /**
+         * Find the highest employee id with a given status.
+         */
+        @Query("SELECT MAX(e.id) FROM Employee e WHERE e.status = :status")
+        Long findMaxIdByStatus(@Param("status") Status status);
+
         /**
          * Find all active employees.
          */
@@ -54,6 +96,34 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
          */
         Page<Employee> findByStatus(Status status, Pageable pageable);
 
+        /**
+         * Find the first slice of employees, without counting them.
+         */
+        @Query("SELECT e FROM Employee e")
+        Slice<Employee> findSlice(Pageable pageable);
+
+        /**
+         * Find the employees after a given id, newest first (keyset pagination).
+         */
+        @Query("SELECT e FROM Employee e WHERE e.id < :id")
+        Slice<Employee> findSliceBeforeId(@Param("id") Long id, Pageable pageable);
+
+        /**
+         * Find the employees after a given (name, id), by name (keyset pagination).
+         */
+        @Query("SELECT e FROM Employee e WHERE e.name > :name OR (e.name = :name AND e.id > :id)")
+        Slice<Employee> findSliceAfterName(@Param("name") String name,
+                        @Param("id") Long id,
+                        Pageable pageable);
+
+        /**
+         * Stream all employees by id, read from a database cursor; must be consumed and closed
+         * within a transaction.
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("SELECT e FROM Employee e ORDER BY e.id")
+        Stream<Employee> streamAll();
+
         /**
          * Find employees by department.
          */
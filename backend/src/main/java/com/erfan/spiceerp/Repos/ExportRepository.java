@@ -0,0 +1,133 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Forward-only reads for the CSV exports. Rows are handed to the callback one at a time while
+ * the driver fetches them fetch-size rows per round trip, so nothing is held beyond the current
+ * batch. PostgreSQL only uses a cursor inside a transaction; callers must run in one.
+ */
+@Repository
+public class ExportRepository {
+
+    private static final String LEAVE_REQUESTS_SQL = """
+            SELECT l.id, u.employee_code, u.name AS employee_name, u.department, l.leave_type,
+                   l.start_date, l.end_date, l.total_days, l.status, l.applied_at,
+                   r.name AS reviewed_by, l.reviewed_at, l.reason, l.rejection_reason
+            FROM leave_request l
+            JOIN users u ON u.id = l.employee_id
+            LEFT JOIN users r ON r.id = l.reviewed_by
+            WHERE 1 = 1
+            """;
+
+    private static final String LEAVE_BALANCES_SQL = """
+            SELECT b.year, u.employee_code, u.name AS employee_name, u.department, b.leave_type,
+                   b.total, b.used, b.remaining
+            FROM leave_balance b
+            JOIN users u ON u.id = b.employee_id
+            WHERE 1 = 1
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource,
+            @Value("${export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    /**
+     * Stream the attendance days in a date range, by date and employee.
+     * Columns: employee_id, employee_code, employee_name, department, attendance_date, status.
+     */
+    public void streamAttendance(LocalDate startDate, LocalDate endDate, String department,
+            AttendanceStatus status, RowCallbackHandler handler) {
+        MapSqlParameterSource params = new MapSqlParameterSource("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+        StringBuilder sql = new StringBuilder(AttendanceDayRepository.ALL_DAYS_SQL).append("WHERE 1 = 1 ");
+        if (department != null) {
+            sql.append("AND u.department = :department ");
+            params.addValue("department", department);
+        }
+        if (status != null) {
+            sql.append("AND v.status = :status ");
+            params.addValue("status", status.name());
+        }
+        sql.append("ORDER BY v.attendance_date, v.employee_id");
+        jdbcTemplate.query(sql.toString(), params, handler);
+    }
+
+    /**
+     * Stream the leave requests overlapping a date range (either end may be null), oldest first.
+     */
+    public void streamLeaveRequests(LocalDate startDate, LocalDate endDate, String department,
+            LeaveStatus status, LeaveType leaveType, RowCallbackHandler handler) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(LEAVE_REQUESTS_SQL);
+        if (startDate != null) {
+            sql.append("AND l.end_date >= :startDate ");
+            params.addValue("startDate", Date.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append("AND l.start_date <= :endDate ");
+            params.addValue("endDate", Date.valueOf(endDate));
+        }
+        if (department != null) {
+            sql.append("AND u.department = :department ");
+            params.addValue("department", department);
+        }
+        if (status != null) {
+            sql.append("AND l.status = :status ");
+            params.addValue("status", status.name());
+        }
+        if (leaveType != null) {
+            sql.append("AND l.leave_type = :leaveType ");
+            params.addValue("leaveType", leaveType.name());
+        }
+        sql.append("ORDER BY l.applied_at, l.id");
+        jdbcTemplate.query(sql.toString(), params, handler);
+    }
+
+    /**
+     * Stream the leave balances, optionally of one year, by year and employee.
+     * The status filter is the employee's status.
+     */
+    public void streamLeaveBalances(Integer year, String department, Status employeeStatus,
+            LeaveType leaveType, RowCallbackHandler handler) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(LEAVE_BALANCES_SQL);
+        if (year != null) {
+            sql.append("AND b.year = :year ");
+            params.addValue("year", year);
+        }
+        if (department != null) {
+            sql.append("AND u.department = :department ");
+            params.addValue("department", department);
+        }
+        if (employeeStatus != null) {
+            // users.status is stored as the enum ordinal
+            sql.append("AND u.status = :status ");
+            params.addValue("status", employeeStatus.ordinal());
+        }
+        if (leaveType != null) {
+            sql.append("AND b.leave_type = :leaveType ");
+            params.addValue("leaveType", leaveType.name());
+        }
+        sql.append("ORDER BY b.year, u.employee_code, b.leave_type");
+        jdbcTemplate.query(sql.toString(), params, handler);
+    }
+}
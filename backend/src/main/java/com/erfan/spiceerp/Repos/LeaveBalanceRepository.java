@@ -2,12 +2,14 @@ package com.erfan.spiceerp.Repos;
 
 import com.erfan.spiceerp.Enums.LeaveType;
 import com.erfan.spiceerp.Models.LeaveBalance;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,7 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
     /**
      * Find all leave balances for an employee.
      */
+    @EntityGraph(attributePaths = "employee")
     List<LeaveBalance> findByEmployeeId(Long employeeId);
 
     /**
@@ -30,6 +33,7 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
     /**
      * Find all leave balances for an employee for a specific year.
      */
+    @EntityGraph(attributePaths = "employee")
     List<LeaveBalance> findByEmployeeIdAndYear(Long employeeId, Integer year);
 
     /**
@@ -48,7 +52,8 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
     boolean existsByEmployeeIdAndLeaveTypeAndYear(Long employeeId, LeaveType leaveType, Integer year);
 
     /**
-     * Update used leaves count.
+     * Deduct leaves when the remaining balance covers them.
+     * Returns 0 when it does not (or there is no balance), leaving the balance unchanged.
      */
     @Modifying
     @Query("UPDATE LeaveBalance lb SET lb.used = lb.used + :days, lb.remaining = lb.remaining - :days " +
@@ -72,9 +77,22 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
             @Param("year") Integer year,
             @Param("days") Integer days);
 
+    /**
+     * Track used leaves for many employees without touching remaining (for LOP).
+     */
+    @Modifying
+    @Query("UPDATE LeaveBalance lb SET lb.used = lb.used + :days " +
+            "WHERE lb.employee.id IN :employeeIds AND lb.leaveType = :leaveType AND lb.year = :year")
+    int trackLeaveUsage(
+            @Param("employeeIds") Collection<Long> employeeIds,
+            @Param("leaveType") LeaveType leaveType,
+            @Param("year") Integer year,
+            @Param("days") Integer days);
+
     /**
      * Find all leave balances for a specific year.
      */
+    @EntityGraph(attributePaths = "employee")
     List<LeaveBalance> findByYear(Integer year);
 
     /**
@@ -2,15 +2,24 @@ package com.erfan.spiceerp.Repos;
 
 import com.erfan.spiceerp.Enums.LeaveStatus;
 import com.erfan.spiceerp.Models.LeaveRequest;
+import com.erfan.spiceerp.Models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for LeaveRequest entity operations.
@@ -21,49 +30,99 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
         /**
          * Find all leave requests for an employee.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         List<LeaveRequest> findByEmployeeIdOrderByAppliedAtDesc(Long employeeId);
 
         /**
          * Find all leave requests for an employee with pagination.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         Page<LeaveRequest> findByEmployeeId(Long employeeId, Pageable pageable);
 
         /**
          * Find leave requests by status.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         List<LeaveRequest> findByStatus(LeaveStatus status);
 
         /**
          * Find all pending leave requests.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         List<LeaveRequest> findByStatusOrderByAppliedAtAsc(LeaveStatus status);
 
+        /**
+         * Stream all leave requests by id, read from a database cursor; must be consumed and
+         * closed within a transaction.
+         */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("SELECT l FROM LeaveRequest l ORDER BY l.id")
+        Stream<LeaveRequest> streamAll();
+
         /**
          * Find pending leave requests with pagination.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         Page<LeaveRequest> findByStatus(LeaveStatus status, Pageable pageable);
 
+        /**
+         * Find the first slice of leave requests with a status, without counting them.
+         */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
+        @Query("SELECT l FROM LeaveRequest l WHERE l.status = :status")
+        Slice<LeaveRequest> findSliceByStatus(@Param("status") LeaveStatus status, Pageable pageable);
+
+        /**
+         * Find the leave requests with a status applied after a given (appliedAt, id),
+         * oldest first (keyset pagination).
+         */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
+        @Query("SELECT l FROM LeaveRequest l WHERE l.status = :status " +
+                        "AND (l.appliedAt > :appliedAt OR (l.appliedAt = :appliedAt AND l.id > :id))")
+        Slice<LeaveRequest> findSliceByStatusAfter(
+                        @Param("status") LeaveStatus status,
+                        @Param("appliedAt") LocalDateTime appliedAt,
+                        @Param("id") Long id,
+                        Pageable pageable);
+
         /**
          * Find leave requests for an employee with a specific status.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         List<LeaveRequest> findByEmployeeIdAndStatus(Long employeeId, LeaveStatus status);
 
         /**
          * Check for overlapping approved leaves for an employee.
-         * Returns true if there's an overlap with another approved leave.
+         * Returns true if there's an overlap with an approved leave. Reads the GiST index of the
+         * approved leave exclusion constraint, which matches on employee and range overlap.
          */
-        @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END FROM LeaveRequest l " +
-                        "WHERE l.employee.id = :employeeId " +
-                        "AND l.status = :approvedStatus " +
-                        "AND l.startDate <= :endDate " +
-                        "AND l.endDate >= :startDate " +
-                        "AND (:excludeId IS NULL OR l.id != :excludeId)")
+        @Query(value = "SELECT EXISTS (SELECT 1 FROM leave_request " +
+                        "WHERE employee_id = :employeeId " +
+                        "AND status = 'APPROVED' " +
+                        "AND leave_period && daterange(:startDate, :endDate, '[]'))", nativeQuery = true)
         boolean hasOverlappingApprovedLeave(
                         @Param("employeeId") Long employeeId,
                         @Param("startDate") LocalDate startDate,
-                        @Param("endDate") LocalDate endDate,
-                        @Param("excludeId") Long excludeId,
-                        @Param("approvedStatus") LeaveStatus approvedStatus);
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * Review a pending leave request in one statement.
+         * Returns 0 when the request is no longer pending. Approving a leave that overlaps an
+         * approved leave of the employee fails on LeaveRequest.APPROVED_OVERLAP_CONSTRAINT with a
+         * DataIntegrityViolationException, so concurrent approvals cannot both succeed.
+         */
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE LeaveRequest l SET l.status = :status, l.reviewedBy = :reviewedBy, " +
+                        "l.reviewedAt = :reviewedAt, l.rejectionReason = :rejectionReason " +
+                        "WHERE l.id = :id AND l.status = :pendingStatus")
+        int reviewPending(
+                        @Param("id") Long id,
+                        @Param("pendingStatus") LeaveStatus pendingStatus,
+                        @Param("status") LeaveStatus status,
+                        @Param("reviewedBy") User reviewedBy,
+                        @Param("reviewedAt") LocalDateTime reviewedAt,
+                        @Param("rejectionReason") String rejectionReason);
 
         /**
          * Find approved leaves for an employee on a specific date.
@@ -89,6 +148,7 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
         /**
          * Find leave requests for an employee within a date range.
          */
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
         @Query("SELECT l FROM LeaveRequest l WHERE l.employee.id = :employeeId " +
                         "AND l.startDate >= :startDate AND l.endDate <= :endDate " +
                         "ORDER BY l.appliedAt DESC")
@@ -116,4 +176,11 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
          * Find all leave requests by employee and status, ordered by start date.
          */
         List<LeaveRequest> findByEmployeeIdAndStatusOrderByStartDateAsc(Long employeeId, LeaveStatus status);
+
+        /**
+         * Find all leave requests with their employee and reviewer.
+         */
+        @Override
+        @EntityGraph(attributePaths = { "employee", "reviewedBy" })
+        List<LeaveRequest> findAll();
 }
@@ -0,0 +1,157 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aggregated reads for the monthly department registers: one query per register, plus a
+ * fingerprint (data version) of the same rows computed in the database, so an unchanged
+ * register can be recognised without transferring its data.
+ */
+@Repository
+public class RegisterRepository {
+
+    private static final Status[] EMPLOYEE_STATUSES = Status.values();
+
+    /**
+     * Employees of the department with their attendance days in the month (none for employees
+     * without attendance). users.status is stored as the enum ordinal.
+     */
+    private static final String ATTENDANCE_REGISTER_SQL = """
+            SELECT e.id AS employee_id, e.employee_code, e.name AS employee_name, e.designation,
+                   e.status AS employee_status, d.attendance_date, d.status
+            FROM users e
+            LEFT JOIN (DAYS) d ON d.employee_id = e.id
+            WHERE e.role = 'EMPLOYEE' AND e.department = :department
+            """.replace("DAYS", AttendanceDayRepository.ALL_DAYS_SQL);
+
+    private static final String LEAVE_REGISTER_SQL = """
+            SELECT u.id AS employee_id, u.employee_code, u.name AS employee_name, l.id, l.leave_type,
+                   l.start_date, l.end_date, l.total_days, l.reviewed_at,
+                   b.total AS balance_total, b.used AS balance_used, b.remaining AS balance_remaining
+            FROM leave_request l
+            JOIN users u ON u.id = l.employee_id
+            LEFT JOIN leave_balance b ON b.employee_id = l.employee_id AND b.leave_type = l.leave_type
+                                     AND b.year = :year
+            WHERE u.department = :department AND l.status = :status
+              AND l.start_date <= :endDate AND l.end_date >= :startDate
+            """;
+
+    private static final RowMapper<RegisterDay> DAY_MAPPER = (rs, rowNum) -> {
+        String status = rs.getString("status");
+        return new RegisterDay(
+                rs.getLong("employee_id"),
+                rs.getString("employee_code"),
+                rs.getString("employee_name"),
+                rs.getString("designation"),
+                EMPLOYEE_STATUSES[rs.getInt("employee_status")],
+                rs.getObject("attendance_date", LocalDate.class),
+                status != null ? AttendanceStatus.valueOf(status) : null);
+    };
+
+    private static final RowMapper<LeaveEntry> LEAVE_MAPPER = (rs, rowNum) -> new LeaveEntry(
+            rs.getLong("employee_id"),
+            rs.getString("employee_code"),
+            rs.getString("employee_name"),
+            LeaveType.valueOf(rs.getString("leave_type")),
+            rs.getObject("start_date", LocalDate.class),
+            rs.getObject("end_date", LocalDate.class),
+            rs.getInt("total_days"),
+            rs.getObject("reviewed_at", LocalDateTime.class),
+            rs.getObject("balance_total", Integer.class),
+            rs.getObject("balance_used", Integer.class),
+            rs.getObject("balance_remaining", Integer.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RegisterRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find the departments that have employees.
+     */
+    public List<String> findDepartments() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT department FROM users " +
+                "WHERE role = 'EMPLOYEE' AND department IS NOT NULL ORDER BY department",
+                new MapSqlParameterSource(), String.class);
+    }
+
+    /**
+     * Find every employee of a department with their attendance days in a date range, one row
+     * per employee-day (or one row with no date for an employee without attendance).
+     */
+    public List<RegisterDay> findAttendanceRegister(String department, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(ATTENDANCE_REGISTER_SQL + "ORDER BY e.employee_code, e.id, d.attendance_date",
+                rangeParams(department, startDate, endDate), DAY_MAPPER);
+    }
+
+    /**
+     * Fingerprint of {@link #findAttendanceRegister}: changes whenever any of its rows does.
+     */
+    public String findAttendanceRegisterVersion(String department, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForObject("SELECT md5(COALESCE(string_agg(concat_ws('|', r.employee_id, " +
+                "r.employee_code, r.employee_name, r.designation, r.employee_status, r.attendance_date, r.status), " +
+                "',' ORDER BY r.employee_id, r.attendance_date), '')) FROM (" + ATTENDANCE_REGISTER_SQL + ") r",
+                rangeParams(department, startDate, endDate), String.class);
+    }
+
+    /**
+     * Find the approved leaves of a department's employees overlapping a date range, with the
+     * employee's balance of that leave type for the year of the range start.
+     */
+    public List<LeaveEntry> findLeaveRegister(String department, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(LEAVE_REGISTER_SQL + "ORDER BY u.employee_code, u.id, l.start_date",
+                leaveParams(department, startDate, endDate), LEAVE_MAPPER);
+    }
+
+    /**
+     * Fingerprint of {@link #findLeaveRegister}: changes whenever any of its rows does.
+     */
+    public String findLeaveRegisterVersion(String department, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForObject("SELECT md5(COALESCE(string_agg(concat_ws('|', r.id, r.employee_code, " +
+                "r.employee_name, r.leave_type, r.start_date, r.end_date, r.total_days, r.reviewed_at, " +
+                "r.balance_total, r.balance_used, r.balance_remaining), ',' ORDER BY r.id), '')) FROM (" +
+                LEAVE_REGISTER_SQL + ") r",
+                leaveParams(department, startDate, endDate), String.class);
+    }
+
+    private MapSqlParameterSource rangeParams(String department, LocalDate startDate, LocalDate endDate) {
+        return new MapSqlParameterSource("department", department)
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+    }
+
+    private MapSqlParameterSource leaveParams(String department, LocalDate startDate, LocalDate endDate) {
+        return rangeParams(department, startDate, endDate)
+                .addValue("year", startDate.getYear())
+                .addValue("status", LeaveStatus.APPROVED.name());
+    }
+
+    /**
+     * One employee-day of an attendance register; date and status are null for an employee
+     * without attendance in the range.
+     */
+    public record RegisterDay(Long employeeId, String employeeCode, String employeeName, String designation,
+            Status employeeStatus, LocalDate date, AttendanceStatus status) {
+    }
+
+    /**
+     * One approved leave of a leave register, with the remaining balance of its type.
+     */
+    public record LeaveEntry(Long employeeId, String employeeCode, String employeeName, LeaveType leaveType,
+            LocalDate startDate, LocalDate endDate, int totalDays, LocalDateTime approvedAt,
+            Integer balanceTotal, Integer balanceUsed, Integer balanceRemaining) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.erfan.spiceerp.Repos;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File store for rendered reports under reports.cache.directory.
+ * A report is stored as {name}-{version}.{extension}; storing a new version of a name removes
+ * the older ones. Files are written to a temporary file first and moved into place, so a
+ * reader never sees a partial report.
+ */
+@Repository
+public class ReportFileRepository {
+
+    private final Path directory;
+
+    public ReportFileRepository(@Value("${reports.cache.directory:data/report-cache}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Find the stored file of a report version, or null when it has not been stored.
+     */
+    public Path find(String name, String version, String extension) {
+        Path file = directory.resolve(fileName(name, version, extension));
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * Store a report version written by the writer, replacing older versions of the report.
+     */
+    public Path store(String name, String version, String extension, ReportWriter writer) {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(fileName(name, version, extension));
+            Path temp = Files.createTempFile(directory, name + "-", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    writer.write(out);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            deleteOtherVersions(name, file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store report " + name, e);
+        }
+    }
+
+    private void deleteOtherVersions(String name, Path current) throws IOException {
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(directory, name + "-*")) {
+            for (Path version : versions) {
+                if (!version.equals(current) && !version.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(version);
+                }
+            }
+        }
+    }
+
+    private static String fileName(String name, String version, String extension) {
+        return name + "-" + version + "." + extension;
+    }
+
+    /**
+     * Writes the content of a report.
+     */
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
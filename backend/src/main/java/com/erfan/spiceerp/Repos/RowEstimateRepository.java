@@ -0,0 +1,53 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Row count estimates from the planner statistics, for list totals that do not need to be exact.
+ * The query is planned with EXPLAIN but not run, so the cost does not grow with the table.
+ */
+@Repository
+public class RowEstimateRepository {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RowEstimateRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Estimate the number of employees.
+     */
+    public long estimateEmployees() {
+        return estimate("SELECT 1 FROM users WHERE role = 'EMPLOYEE'", EmptySqlParameterSource.INSTANCE);
+    }
+
+    /**
+     * Estimate the number of leave requests with a status.
+     */
+    public long estimateLeaveRequests(LeaveStatus status) {
+        return estimate("SELECT 1 FROM leave_request WHERE status = :status",
+                new MapSqlParameterSource("status", status.name()));
+    }
+
+    /**
+     * Estimate the number of rows a query returns.
+     */
+    public long estimate(String sql, SqlParameterSource params) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, params, String.class);
+        try {
+            return JSON.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable query plan", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Models.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+/**
+ * Repository for scheduler leases.
+ * All timestamps come from the database clock so nodes with skewed clocks agree on expiry,
+ * and are stored with their time zone (V9__Scheduler_lock_timestamptz.sql).
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take the lease if it does not exist yet or has expired.
+     * Returns 1 when the lease was acquired, 0 when another node holds it.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO scheduler_lock (name, locked_by, locked_at, lock_until) " +
+            "VALUES (:name, :lockedBy, now(), now() + :leaseMillis * INTERVAL '1 millisecond') " +
+            "ON CONFLICT (name) DO UPDATE SET locked_by = EXCLUDED.locked_by, " +
+            "locked_at = EXCLUDED.locked_at, lock_until = EXCLUDED.lock_until " +
+            "WHERE scheduler_lock.lock_until <= now()", nativeQuery = true)
+    int tryAcquire(@Param("name") String name,
+            @Param("lockedBy") String lockedBy,
+            @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Extend a lease held by this node.
+     * Returns 0 if another node has taken the lease over.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_lock " +
+            "SET lock_until = now() + :leaseMillis * INTERVAL '1 millisecond' " +
+            "WHERE name = :name AND locked_by = :lockedBy", nativeQuery = true)
+    int renew(@Param("name") String name,
+            @Param("lockedBy") String lockedBy,
+            @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Names of the leases that have not expired by the database clock.
+     */
+    @Query(value = "SELECT name FROM scheduler_lock WHERE lock_until > now()", nativeQuery = true)
+    Set<String> findHeldNames();
+
+    /**
+     * Release a lease held by this node and record the successful run.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_lock SET lock_until = now(), " +
+            "last_run_at = now(), last_run_by = locked_by " +
+            "WHERE name = :name AND locked_by = :lockedBy", nativeQuery = true)
+    int release(@Param("name") String name, @Param("lockedBy") String lockedBy);
+
+    /**
+     * Release a lease held by this node after its run failed, leaving the last successful run
+     * as it is.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_lock SET lock_until = now(), " +
+            "last_failed_at = now(), last_failed_by = locked_by " +
+            "WHERE name = :name AND locked_by = :lockedBy", nativeQuery = true)
+    int releaseAfterFailure(@Param("name") String name, @Param("lockedBy") String lockedBy);
+}
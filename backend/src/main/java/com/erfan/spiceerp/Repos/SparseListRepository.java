@@ -0,0 +1,250 @@
+package com.erfan.spiceerp.Repos;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Exception.BusinessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Reads list rows restricted to a requested set of DTO fields (sparse fieldsets).
+ * Only the columns behind the requested fields are selected, and a join is only made when a
+ * requested field needs it, so unrequested columns (such as the TEXT leave reason) and the
+ * employee and reviewer joins are never read. Rows are returned as maps keyed by DTO field
+ * name, in the field order of the DTO, with values of the same types as the DTO's.
+ */
+@Repository
+public class SparseListRepository {
+
+    private static final Status[] EMPLOYEE_STATUSES = Status.values();
+
+    private static final LocalDate UNBOUNDED_START = LocalDate.of(1900, 1, 1);
+    private static final LocalDate UNBOUNDED_END = LocalDate.of(9999, 12, 31);
+
+    /**
+     * EmployeeDto fields (the password is never returned).
+     */
+    private static final Source EMPLOYEES = new Source("users e", Map.of())
+            .column("id", "e.id", null, Long.class)
+            .column("employeeCode", "e.employee_code", null, String.class)
+            .column("fullName", "e.name", null, String.class)
+            .column("email", "e.email", null, String.class)
+            .column("phone", "e.phone", null, String.class)
+            .column("joiningDate", "e.joining_date", null, LocalDate.class)
+            .column("status", "e.status", null,
+                    (rs, i) -> rs.getObject(i) != null ? EMPLOYEE_STATUSES[rs.getInt(i)] : null)
+            .column("department", "e.department", null, String.class)
+            .column("designation", "e.designation", null, String.class);
+
+    /**
+     * LeaveRequestDto fields.
+     */
+    private static final Source LEAVE_REQUESTS = new Source("leave_request l", Map.of(
+            "employee", "JOIN users e ON e.id = l.employee_id",
+            "reviewer", "LEFT JOIN users r ON r.id = l.reviewed_by"))
+            .column("id", "l.id", null, Long.class)
+            .column("employeeId", "l.employee_id", null, Long.class)
+            .column("employeeName", "e.name", "employee", String.class)
+            .column("employeeCode", "e.employee_code", "employee", String.class)
+            .column("leaveType", "l.leave_type", null, (rs, i) -> enumValue(LeaveType.class, rs.getString(i)))
+            .column("startDate", "l.start_date", null, LocalDate.class)
+            .column("endDate", "l.end_date", null, LocalDate.class)
+            .column("totalDays", "l.total_days", null, Integer.class)
+            .column("reason", "l.reason", null, String.class)
+            .column("status", "l.status", null, (rs, i) -> enumValue(LeaveStatus.class, rs.getString(i)))
+            .column("appliedAt", "l.applied_at", null, LocalDateTime.class)
+            .column("reviewedById", "l.reviewed_by", null, Long.class)
+            .column("reviewedByName", "r.name", "reviewer", String.class)
+            .column("reviewedAt", "l.reviewed_at", null, LocalDateTime.class)
+            .column("rejectionReason", "l.rejection_reason", null, String.class);
+
+    /**
+     * AttendanceDto fields over the stored rows (FULL storage mode).
+     */
+    private static final Source ATTENDANCE = attendance("attendance a",
+            Map.of("employee", "JOIN users e ON e.id = a.employee_id"), "e.name", "e.employee_code", "employee");
+
+    /**
+     * AttendanceDto fields over stored and synthesized days (EXCEPTIONS storage mode); the
+     * days query already joins the employee.
+     */
+    private static final Source ATTENDANCE_DAYS = attendance("(" + AttendanceDayRepository.ALL_DAYS_SQL + ") a",
+            Map.of(), "a.employee_name", "a.employee_code", null);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SparseListRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find employees, by id, optionally with a status and matching a search on name or code.
+     */
+    public List<Map<String, Object>> findEmployees(Set<String> fields, Status status, String search) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder(" WHERE e.role = 'EMPLOYEE'");
+        if (status != null) {
+            where.append(" AND e.status = :status");
+            params.addValue("status", status.ordinal());
+        }
+        if (search != null) {
+            where.append(" AND (LOWER(e.name) LIKE :search OR LOWER(e.employee_code) LIKE :search)");
+            params.addValue("search", "%" + search.toLowerCase() + "%");
+        }
+        return EMPLOYEES.query(jdbcTemplate, fields, where + " ORDER BY e.id", params);
+    }
+
+    /**
+     * Find leave requests, optionally with a status or of one employee. Pending requests are
+     * ordered oldest first, an employee's latest first, and all requests by id.
+     */
+    public List<Map<String, Object>> findLeaveRequests(Set<String> fields, LeaveStatus status, Long employeeId) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = " WHERE 1 = 1";
+        String order = " ORDER BY l.id";
+        if (status != null) {
+            where += " AND l.status = :status";
+            order = " ORDER BY l.applied_at, l.id";
+            params.addValue("status", status.name());
+        }
+        if (employeeId != null) {
+            where += " AND l.employee_id = :employeeId";
+            order = " ORDER BY l.applied_at DESC, l.id DESC";
+            params.addValue("employeeId", employeeId);
+        }
+        return LEAVE_REQUESTS.query(jdbcTemplate, fields, where + order, params);
+    }
+
+    /**
+     * Find the attendance of one employee, latest first, or of every employee on a date, by
+     * employee. Synthesized days are included when attendance is stored as exceptions.
+     */
+    public List<Map<String, Object>> findAttendance(Set<String> fields, Long employeeId, LocalDate date,
+            boolean synthesizedDays) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", Date.valueOf(date != null ? date : UNBOUNDED_START))
+                .addValue("endDate", Date.valueOf(date != null ? date : UNBOUNDED_END));
+        String where;
+        if (employeeId != null) {
+            where = " WHERE a.employee_id = :employeeId ORDER BY a.attendance_date DESC";
+            params.addValue("employeeId", employeeId);
+        } else {
+            where = " WHERE a.attendance_date = :startDate ORDER BY a.employee_id";
+        }
+        return (synthesizedDays ? ATTENDANCE_DAYS : ATTENDANCE).query(jdbcTemplate, fields, where, params);
+    }
+
+    private static Source attendance(String from, Map<String, String> joins, String employeeName,
+            String employeeCode, String employeeJoin) {
+        return new Source(from, joins)
+                .column("id", "a.id", null, Long.class)
+                .column("employeeId", "a.employee_id", null, Long.class)
+                .column("employeeName", employeeName, employeeJoin, String.class)
+                .column("employeeCode", employeeCode, employeeJoin, String.class)
+                .column("attendanceDate", "a.attendance_date", null, LocalDate.class)
+                .column("status", "a.status", null, (rs, i) -> enumValue(AttendanceStatus.class, rs.getString(i)))
+                .column("leaveRequestId", "a.leave_request_id", null, Long.class)
+                .column("createdAt", "a.created_at", null, LocalDateTime.class);
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    /**
+     * Reads the value of a selected column by its index.
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    /**
+     * A column behind a DTO field, with the join it needs, if any.
+     */
+    private record Column(String expression, String join, ColumnReader reader) {
+    }
+
+    /**
+     * A table (or query) with the DTO fields it can select and the joins they may need.
+     */
+    private static final class Source {
+
+        private final String from;
+        private final Map<String, String> joins;
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        private Source(String from, Map<String, String> joins) {
+            this.from = from;
+            this.joins = joins;
+        }
+
+        private Source column(String field, String expression, String join, Class<?> type) {
+            return column(field, expression, join, (rs, i) -> rs.getObject(i, type));
+        }
+
+        private Source column(String field, String expression, String join, ColumnReader reader) {
+            columns.put(field, new Column(expression, join, reader));
+            return this;
+        }
+
+        /**
+         * Select the requested fields, in DTO order, joining only what they need.
+         */
+        private List<Map<String, Object>> query(NamedParameterJdbcTemplate jdbcTemplate, Set<String> fields,
+                String whereAndOrder, MapSqlParameterSource params) {
+            for (String field : fields) {
+                if (!columns.containsKey(field)) {
+                    throw new BusinessException("Unknown field: " + field + ". Available fields: "
+                            + String.join(",", columns.keySet()));
+                }
+            }
+            List<String> selected = new ArrayList<>(fields.size());
+            List<ColumnReader> readers = new ArrayList<>(fields.size());
+            StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM " + from);
+            Set<String> neededJoins = new LinkedHashSet<>();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                if (fields.contains(entry.getKey())) {
+                    Column column = entry.getValue();
+                    selected.add(entry.getKey());
+                    readers.add(column.reader());
+                    select.add(column.expression());
+                    if (column.join() != null) {
+                        neededJoins.add(column.join());
+                    }
+                }
+            }
+            StringBuilder sql = new StringBuilder(select.toString());
+            for (String join : neededJoins) {
+                sql.append(' ').append(joins.get(join));
+            }
+            sql.append(whereAndOrder);
+
+            RowMapper<Map<String, Object>> mapper = (rs, rowNum) -> {
+                Map<String, Object> row = new LinkedHashMap<>(selected.size() * 2);
+                for (int i = 0; i < selected.size(); i++) {
+                    row.put(selected.get(i), readers.get(i).read(rs, i + 1));
+                }
+                return row;
+            };
+            return jdbcTemplate.query(sql.toString(), params, mapper);
+        }
+    }
+}
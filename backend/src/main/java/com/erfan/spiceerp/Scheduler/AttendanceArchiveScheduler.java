@@ -0,0 +1,48 @@
+package com.erfan.spiceerp.Scheduler;
+
+import com.erfan.spiceerp.Services.AttendanceArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for archiving closed years of attendance.
+ * Runs at 02:00 AM on the first day of every month under the cluster-wide
+ * "attendance-archive" lease; a year is picked up by the first run after it closes.
+ */
+@Component
+public class AttendanceArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceArchiveScheduler.class);
+
+    private static final String ARCHIVE_LOCK = "attendance-archive";
+
+    private final AttendanceArchiveService attendanceArchiveService;
+    private final SchedulerLockManager schedulerLockManager;
+    private final boolean enabled;
+
+    public AttendanceArchiveScheduler(AttendanceArchiveService attendanceArchiveService,
+            SchedulerLockManager schedulerLockManager,
+            @Value("${attendance.archive.enabled:false}") boolean enabled) {
+        this.attendanceArchiveService = attendanceArchiveService;
+        this.schedulerLockManager = schedulerLockManager;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Archive every closed year still in the database.
+     */
+    @Scheduled(cron = "0 0 2 1 * *")
+    public void archiveClosedYears() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            schedulerLockManager.runExclusively(ARCHIVE_LOCK, attendanceArchiveService::archiveClosedYears);
+        } catch (Exception e) {
+            logger.error("Error during attendance archiving", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.erfan.spiceerp.Scheduler;
+
+import com.erfan.spiceerp.Dto.AttendanceJobDto;
+import com.erfan.spiceerp.Enums.JobStatus;
+import com.erfan.spiceerp.Exception.ResourceNotFoundException;
+import com.erfan.spiceerp.Services.AttendanceGenerationService;
+import com.erfan.spiceerp.Services.AttendanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of background attendance generation jobs.
+ * A job is submitted per date and runs on the attendance job executor under the
+ * cluster-wide generation lease. While a job for a date is queued or running, further
+ * triggers for that date return the same job instead of starting another one.
+ * Jobs are kept in memory only; finished jobs are dropped after attendance.jobs.retention.
+ */
+@Component
+public class AttendanceGenerationJobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceGenerationJobs.class);
+
+    private final AttendanceGenerationService attendanceGenerationService;
+    private final SchedulerLockManager schedulerLockManager;
+    private final TaskExecutor jobExecutor;
+    private final Duration retention;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Job> activeJobs = new ConcurrentHashMap<>();
+
+    public AttendanceGenerationJobs(AttendanceGenerationService attendanceGenerationService,
+            SchedulerLockManager schedulerLockManager,
+            @Qualifier("attendanceJobExecutor") TaskExecutor jobExecutor,
+            @Value("${attendance.jobs.retention:PT24H}") Duration retention) {
+        this.attendanceGenerationService = attendanceGenerationService;
+        this.schedulerLockManager = schedulerLockManager;
+        this.jobExecutor = jobExecutor;
+        this.retention = retention;
+    }
+
+    /**
+     * Start generating attendance for a date in the background.
+     * Returns the already active job for the date if there is one.
+     */
+    public AttendanceJobDto submit(LocalDate date) {
+        pruneFinishedJobs();
+
+        Job job = new Job(UUID.randomUUID().toString(), date);
+        Job active = activeJobs.putIfAbsent(date, job);
+        if (active != null) {
+            logger.info("Attendance generation for {} is already queued as job {}", date, active.id);
+            return active.toDto();
+        }
+
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+            logger.info("Queued attendance generation job {} for {}", job.id, date);
+        } catch (TaskRejectedException e) {
+            job.finish("Too many attendance generation jobs queued, try again later");
+            activeJobs.remove(date, job);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Get the progress of a job.
+     */
+    public AttendanceJobDto getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Attendance job", "id", jobId);
+        }
+        return job.toDto();
+    }
+
+    private void run(Job job) {
+        job.start();
+        try {
+            boolean ran = schedulerLockManager.runExclusively(AttendanceScheduler.GENERATION_LOCK,
+                    () -> attendanceGenerationService.generateAttendance(job.date, job));
+            job.finish(ran ? null : "Attendance generation is already running on another node");
+        } catch (Exception e) {
+            logger.error("Attendance generation job {} for {} failed", job.id, job.date, e);
+            job.finish(e.getMessage());
+        } finally {
+            activeJobs.remove(job.date, job);
+        }
+
+        if (job.status == JobStatus.COMPLETED) {
+            logger.info("Attendance generation job {} for {} completed in {} ms",
+                    job.id, job.date, job.elapsedMillis());
+        } else {
+            logger.warn("Attendance generation job {} for {} finished with errors: {}",
+                    job.id, job.date, job.errors);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Mutable state of one job; progress callbacks arrive from the generation worker threads.
+     */
+    private static final class Job implements AttendanceGenerationService.ProgressListener {
+
+        private final String id;
+        private final LocalDate date;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicInteger processedChunks = new AtomicInteger();
+        private final AtomicInteger failedChunks = new AtomicInteger();
+        private final AtomicInteger presentDays = new AtomicInteger();
+        private final AtomicInteger existingDays = new AtomicInteger();
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile int totalChunks;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        private Job(String id, LocalDate date) {
+            this.id = id;
+            this.date = date;
+        }
+
+        @Override
+        public void onPlanned(int totalChunks, int skippedChunks) {
+            this.totalChunks = totalChunks;
+            processedChunks.addAndGet(skippedChunks);
+        }
+
+        @Override
+        public void onChunkCompleted(AttendanceService.ChunkResult result) {
+            presentDays.addAndGet(result.presentDays());
+            existingDays.addAndGet(result.existingDays());
+            processedChunks.incrementAndGet();
+        }
+
+        @Override
+        public void onChunkFailed(long fromId, long toId, Throwable error) {
+            errors.add("Employees " + fromId + "-" + toId + ": " + error.getMessage());
+            failedChunks.incrementAndGet();
+            processedChunks.incrementAndGet();
+        }
+
+        private void start() {
+            startedAt = Instant.now();
+            status = JobStatus.RUNNING;
+        }
+
+        private void finish(String error) {
+            if (error != null) {
+                errors.add(error);
+            }
+            finishedAt = Instant.now();
+            status = errors.isEmpty() ? JobStatus.COMPLETED : JobStatus.FAILED;
+        }
+
+        private long elapsedMillis() {
+            if (startedAt == null) {
+                return 0;
+            }
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            return Duration.between(startedAt, end).toMillis();
+        }
+
+        private AttendanceJobDto toDto() {
+            return AttendanceJobDto.builder()
+                    .id(id)
+                    .attendanceDate(date)
+                    .status(status)
+                    .totalChunks(totalChunks)
+                    .processedChunks(processedChunks.get())
+                    .failedChunks(failedChunks.get())
+                    .presentDays(presentDays.get())
+                    .existingDays(existingDays.get())
+                    .elapsedMillis(elapsedMillis())
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errors(new ArrayList<>(errors))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.erfan.spiceerp.Scheduler;
+
+import com.erfan.spiceerp.Dto.AttendancePartitionDto;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.erfan.spiceerp.Exception.ResourceNotFoundException;
+import com.erfan.spiceerp.Repos.AttendancePartitionRepository;
+import com.erfan.spiceerp.Services.AttendanceChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the attendance table.
+ * Creates the partitions of the current month and the next attendance.partitions.months-ahead
+ * months at startup and daily at 00:30, under the cluster-wide "attendance-partitions" lease.
+ * Does nothing while the table is not partitioned.
+ */
+@Component
+public class AttendancePartitionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendancePartitionScheduler.class);
+
+    private static final String PARTITION_LOCK = "attendance-partitions";
+
+    private final AttendancePartitionRepository partitionRepository;
+    private final SchedulerLockManager schedulerLockManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int monthsAhead;
+
+    public AttendancePartitionScheduler(AttendancePartitionRepository partitionRepository,
+            SchedulerLockManager schedulerLockManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${attendance.partitions.months-ahead:3}") int monthsAhead) {
+        this.partitionRepository = partitionRepository;
+        this.schedulerLockManager = schedulerLockManager;
+        this.eventPublisher = eventPublisher;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Create upcoming attendance partitions ahead of time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 0 * * *")
+    public void createUpcomingPartitions() {
+        try {
+            if (!partitionRepository.isPartitioned()) {
+                logger.debug("Attendance table is not partitioned, skipping partition maintenance");
+                return;
+            }
+            schedulerLockManager.runExclusively(PARTITION_LOCK, () -> {
+                YearMonth current = YearMonth.now();
+                for (int i = 0; i <= monthsAhead; i++) {
+                    YearMonth month = current.plusMonths(i);
+                    if (partitionRepository.createPartition(month)) {
+                        logger.info("Created attendance partition for {}", month);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Error during attendance partition maintenance", e);
+        }
+    }
+
+    /**
+     * List the attendance partitions.
+     */
+    public List<AttendancePartitionDto> getPartitions() {
+        return partitionRepository.findPartitions();
+    }
+
+    /**
+     * Detach a past month's partition from the attendance table. Its rows stop showing in
+     * attendance reads; the monthly rollup keeps the month's summary counts.
+     */
+    public void detachPartition(YearMonth month) {
+        if (!partitionRepository.isPartitioned()) {
+            throw new BusinessException("Attendance table is not partitioned");
+        }
+        if (!month.isBefore(YearMonth.now())) {
+            throw new BusinessException("Only partitions of past months can be detached");
+        }
+        if (!partitionRepository.detachPartition(month)) {
+            throw new ResourceNotFoundException("Attendance partition", "month", month);
+        }
+        eventPublisher.publishEvent(AttendanceChangedEvent.allEmployees(month.atDay(1), month.atEndOfMonth()));
+        logger.info("Detached attendance partition for {}", month);
+    }
+}
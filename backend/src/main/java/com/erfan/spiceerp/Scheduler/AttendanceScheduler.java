@@ -1,51 +1,95 @@
 package com.erfan.spiceerp.Scheduler;
 
+import com.erfan.spiceerp.Dto.AttendanceJobDto;
+import com.erfan.spiceerp.Services.AttendanceGenerationService;
 import com.erfan.spiceerp.Services.AttendanceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+
 /**
  * Scheduler for automated attendance generation.
  * Runs daily at 00:05 AM to generate attendance records for all active
- * employees.
+ * employees. Every run holds the cluster-wide "attendance-generation" lease,
+ * so only one replica generates attendance at a time.
  */
 @Component
 public class AttendanceScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(AttendanceScheduler.class);
 
-    private final AttendanceService attendanceService;
+    static final String GENERATION_LOCK = "attendance-generation";
+
+    private final AttendanceGenerationService attendanceGenerationService;
+    private final SchedulerLockManager schedulerLockManager;
+    private final AttendanceGenerationJobs attendanceGenerationJobs;
+    private final boolean catchUpEnabled;
 
-    public AttendanceScheduler(AttendanceService attendanceService) {
-        this.attendanceService = attendanceService;
+    public AttendanceScheduler(AttendanceGenerationService attendanceGenerationService,
+            SchedulerLockManager schedulerLockManager,
+            AttendanceGenerationJobs attendanceGenerationJobs,
+            @Value("${attendance.catch-up.enabled:true}") boolean catchUpEnabled) {
+        this.attendanceGenerationService = attendanceGenerationService;
+        this.schedulerLockManager = schedulerLockManager;
+        this.attendanceGenerationJobs = attendanceGenerationJobs;
+        this.catchUpEnabled = catchUpEnabled;
     }
 
     /**
      * Generate daily attendance for all active employees.
-     * Runs at 00:05 AM every day.
+     * Runs at 00:05 AM every day and is retried every 10 minutes until 01:00,
+     * so if the node holding the lease dies mid-run another node picks the
+     * run up from its checkpoints once the lease expires. Retries after a
+     * completed run skip every checkpointed chunk; retries while today's job
+     * is still running join that job.
      * 
      * Cron expression: second minute hour day-of-month month day-of-week
-     * 0 5 0 * * * = At 00:05:00 AM every day
+     * 0 5/10 0 * * * = At 00:05, 00:15, ..., 00:55 AM every day
      */
-    @Scheduled(cron = "0 5 0 * * *")
+    @Scheduled(cron = "0 5/10 0 * * *")
     public void generateDailyAttendance() {
         logger.info("Starting scheduled attendance generation...");
         try {
-            attendanceService.generateDailyAttendance();
-            logger.info("Scheduled attendance generation completed successfully");
+            AttendanceJobDto job = attendanceGenerationJobs.submit(LocalDate.now());
+            logger.info("Scheduled attendance generation running as job {}", job.getId());
         } catch (Exception e) {
             logger.error("Error during scheduled attendance generation", e);
         }
     }
 
+    /**
+     * Catch up on days missed while the application was down.
+     * Runs once at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpMissedDays() {
+        if (!catchUpEnabled) {
+            return;
+        }
+        logger.info("Checking for missed attendance days...");
+        try {
+            schedulerLockManager.runExclusively(GENERATION_LOCK, () -> {
+                AttendanceService.BackfillResult result = attendanceGenerationService.catchUpMissedDays();
+                logger.info("Attendance catch-up completed for {} to {}", result.startDate(), result.endDate());
+            });
+        } catch (Exception e) {
+            logger.error("Error during attendance catch-up", e);
+        }
+    }
+
     /**
      * Manual trigger for attendance generation (for testing or manual runs).
-     * This is called internally when needed, not by scheduler.
+     * Runs in the background; returns the job to poll, which is the already
+     * running job if today's attendance is being generated.
      */
-    public void triggerAttendanceGeneration() {
+    public AttendanceJobDto triggerAttendanceGeneration() {
         logger.info("Manual trigger for attendance generation...");
-        attendanceService.generateDailyAttendance();
+        return attendanceGenerationJobs.submit(LocalDate.now());
     }
 }
@@ -0,0 +1,204 @@
+package com.erfan.spiceerp.Scheduler;
+
+import com.erfan.spiceerp.Dto.SchedulerLockDto;
+import com.erfan.spiceerp.Models.SchedulerLock;
+import com.erfan.spiceerp.Repos.SchedulerLockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cluster-wide lock for scheduled jobs, backed by the scheduler_lock lease table.
+ * Any job in this package can wrap its body in {@link #runExclusively(String, Runnable)}
+ * so that only one replica runs it. The lease is renewed while the job runs; if the
+ * holder dies the lease expires and the next trigger on another node takes over. If the
+ * holder cannot renew its lease, the job's thread is interrupted and the run fails, so it
+ * does not keep running alongside the node that takes the lease over.
+ */
+@Component
+public class SchedulerLockManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLockManager.class);
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String nodeId;
+    private final Duration lease;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduler-lock-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SchedulerLockManager(SchedulerLockRepository schedulerLockRepository,
+            @Value("${scheduler.node-id:}") String nodeId,
+            @Value("${scheduler.lock.lease:PT5M}") Duration lease) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.lease = lease;
+    }
+
+    /**
+     * Run a task only if this node can take the named lease.
+     * Returns false without running the task when another node holds the lease, and throws
+     * IllegalStateException when the lease was lost while the task ran.
+     */
+    public boolean runExclusively(String lockName, Runnable task) {
+        if (schedulerLockRepository.tryAcquire(lockName, nodeId, lease.toMillis()) == 0) {
+            logger.info("Skipping {}: lease is held by another node", lockName);
+            return false;
+        }
+
+        logger.info("Node {} acquired lease {}", nodeId, lockName);
+        Holder holder = new Holder(lockName, Thread.currentThread(), System.nanoTime() + lease.toNanos());
+        long renewEvery = Math.max(1000, lease.toMillis() / 3);
+        ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(() -> renew(holder),
+                renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        boolean succeeded = false;
+        try {
+            task.run();
+            succeeded = true;
+        } catch (RuntimeException e) {
+            if (holder.finish()) {
+                IllegalStateException stopped = leaseLost(lockName);
+                stopped.addSuppressed(e);
+                throw stopped;
+            }
+            throw e;
+        } finally {
+            renewal.cancel(false);
+            if (holder.finish()) {
+                // Clear the interrupt meant for the task before leaving
+                Thread.interrupted();
+            } else if (succeeded) {
+                schedulerLockRepository.release(lockName, nodeId);
+                logger.info("Node {} released lease {}", nodeId, lockName);
+            } else {
+                schedulerLockRepository.releaseAfterFailure(lockName, nodeId);
+                logger.info("Node {} released lease {} after a failed run", nodeId, lockName);
+            }
+        }
+        if (holder.finish()) {
+            throw leaseLost(lockName);
+        }
+        return true;
+    }
+
+    /**
+     * Get the current holder, last run and last failure of every lease.
+     * Whether a lease is held is decided by the database clock, as are its expiry and renewal.
+     */
+    public List<SchedulerLockDto> getLocks() {
+        Set<String> held = schedulerLockRepository.findHeldNames();
+        return schedulerLockRepository.findAll().stream()
+                .map(lock -> mapToDto(lock, held.contains(lock.getName())))
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    private void renew(Holder holder) {
+        if (holder.isLost()) {
+            return;
+        }
+        try {
+            if (schedulerLockRepository.renew(holder.lockName, nodeId, lease.toMillis()) == 0) {
+                logger.error("Node {} lost lease {} to another node, stopping the job", nodeId, holder.lockName);
+                holder.lose();
+                return;
+            }
+            holder.expiresAt = System.nanoTime() + lease.toNanos();
+        } catch (Exception e) {
+            if (System.nanoTime() - holder.expiresAt >= 0) {
+                logger.error("Failed to renew lease {} before it expired, stopping the job", holder.lockName, e);
+                holder.lose();
+            } else {
+                logger.warn("Failed to renew lease {}, retrying", holder.lockName, e);
+            }
+        }
+    }
+
+    private static IllegalStateException leaseLost(String lockName) {
+        return new IllegalStateException("Lease " + lockName + " was lost while the job ran; the run was stopped");
+    }
+
+    private SchedulerLockDto mapToDto(SchedulerLock lock, boolean held) {
+        return SchedulerLockDto.builder()
+                .name(lock.getName())
+                .held(held)
+                .lockedBy(lock.getLockedBy())
+                .lockedAt(lock.getLockedAt())
+                .lockUntil(lock.getLockUntil())
+                .lastRunAt(lock.getLastRunAt())
+                .lastRunBy(lock.getLastRunBy())
+                .lastFailedAt(lock.getLastFailedAt())
+                .lastFailedBy(lock.getLastFailedBy())
+                .build();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * A lease this node holds while its task runs, renewed by the heartbeat thread.
+     */
+    private static final class Holder {
+
+        private final String lockName;
+        private final Thread runner;
+        private volatile long expiresAt;
+        private boolean lost;
+        private boolean finished;
+
+        private Holder(String lockName, Thread runner, long expiresAt) {
+            this.lockName = lockName;
+            this.runner = runner;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized boolean isLost() {
+            return lost;
+        }
+
+        /**
+         * Mark the lease lost and interrupt the task, unless it has already finished.
+         */
+        synchronized void lose() {
+            if (!finished) {
+                lost = true;
+                runner.interrupt();
+            }
+        }
+
+        /**
+         * Mark the task finished and return whether the lease was lost while it ran.
+         * Later calls return the same answer.
+         */
+        synchronized boolean finish() {
+            finished = true;
+            return lost;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.AttendanceArchiveSegmentDto;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.erfan.spiceerp.Repos.AttendanceArchiveRepository;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceMark;
+import com.erfan.spiceerp.Repos.AttendancePartitionRepository;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service that moves closed years of attendance out of the database into the attendance archive.
+ * A year is closed once it ended more than attendance.archive.keep-months months ago. Years are
+ * archived oldest first: the year's segment file is written, then its rows and periods are
+ * deleted from the database (its partitions dropped when attendance is partitioned). A run that
+ * stops between the two steps is finished by the next one. The archive directory must be shared
+ * by all instances (see AttendanceArchiveRepository).
+ */
+@Service
+public class AttendanceArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceArchiveService.class);
+
+    private static final int READ_BATCH_SIZE = 1000;
+
+    private final AttendanceService attendanceService;
+    private final AttendanceArchiveRepository archiveRepository;
+    private final AttendancePartitionRepository partitionRepository;
+    private final EmployeeRepository employeeRepository;
+    private final int keepMonths;
+
+    public AttendanceArchiveService(AttendanceService attendanceService,
+            AttendanceArchiveRepository archiveRepository,
+            AttendancePartitionRepository partitionRepository,
+            EmployeeRepository employeeRepository,
+            @Value("${attendance.archive.keep-months:13}") int keepMonths) {
+        this.attendanceService = attendanceService;
+        this.archiveRepository = archiveRepository;
+        this.partitionRepository = partitionRepository;
+        this.employeeRepository = employeeRepository;
+        this.keepMonths = keepMonths;
+    }
+
+    /**
+     * Record segment files already in the archive directory, written before archived years were
+     * kept in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerSegmentFiles() {
+        List<Integer> years = archiveRepository.registerSegmentFiles();
+        if (!years.isEmpty()) {
+            logger.info("Attendance archive holds segment(s) of {}", years);
+        }
+    }
+
+    /**
+     * Archive every closed year.
+     */
+    public List<AttendanceArchiveSegmentDto> archiveClosedYears() {
+        return archiveThrough(getLastClosedYear());
+    }
+
+    /**
+     * Archive every year up to and including the given one, which must be closed.
+     */
+    public List<AttendanceArchiveSegmentDto> archiveThrough(int year) {
+        int lastClosedYear = getLastClosedYear();
+        if (year > lastClosedYear) {
+            throw new BusinessException("Only years up to " + lastClosedYear + " can be archived");
+        }
+
+        Integer lastArchived = archiveRepository.findLastArchivedYear();
+        LocalDate earliest = attendanceService.getEarliestAttendanceDate();
+        if (earliest == null && lastArchived == null) {
+            return List.of();
+        }
+        // Start at the oldest year still in the database, without leaving a gap after the archive
+        int fromYear = earliest != null ? earliest.getYear() : lastArchived + 1;
+        if (lastArchived != null && lastArchived + 1 < fromYear) {
+            fromYear = lastArchived + 1;
+        }
+
+        for (int y = fromYear; y <= year; y++) {
+            if (!archiveRepository.isArchived(y)) {
+                writeSegment(y);
+            }
+            purge(y);
+        }
+        return getSegments();
+    }
+
+    /**
+     * List the archived years.
+     */
+    public List<AttendanceArchiveSegmentDto> getSegments() {
+        return archiveRepository.findSegments();
+    }
+
+    private int getLastClosedYear() {
+        return LocalDate.now().minusMonths(keepMonths).getYear() - 1;
+    }
+
+    private void writeSegment(int year) {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        AttendanceArchiveRepository.SegmentWriter writer = archiveRepository.createSegment(year);
+
+        List<Long> employeeIds = employeeRepository.findAllIds();
+        int days = 0;
+        for (int from = 0; from < employeeIds.size(); from += READ_BATCH_SIZE) {
+            List<Long> batch = employeeIds.subList(from, Math.min(from + READ_BATCH_SIZE, employeeIds.size()));
+            Map<Long, List<AttendanceMark>> byEmployee = new TreeMap<>();
+            for (AttendanceMark mark : attendanceService.getLiveAttendanceMarks(batch, startDate, endDate)) {
+                byEmployee.computeIfAbsent(mark.employeeId(), id -> new ArrayList<>()).add(mark);
+                days++;
+            }
+            byEmployee.forEach(writer::add);
+        }
+        writer.commit();
+        logger.info("Archived {} attendance day(s) of {}", days, year);
+    }
+
+    private void purge(int year) {
+        if (partitionRepository.isPartitioned()) {
+            for (int month = 1; month <= 12; month++) {
+                partitionRepository.dropPartition(YearMonth.of(year, month));
+            }
+        }
+        attendanceService.purgeArchivedYear(year);
+    }
+}
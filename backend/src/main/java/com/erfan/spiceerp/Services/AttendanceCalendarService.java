@@ -0,0 +1,271 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.AttendanceCalendarDto;
+import com.erfan.spiceerp.Dto.AttendanceMatrixDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.erfan.spiceerp.Models.Employee;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceMark;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves attendance calendars and registers from an in-memory cache.
+ * Each employee-year is held as one bitset per attendance status, indexed by epoch day
+ * from January 1st, and loaded on first use. Entries are evicted when an
+ * {@link AttendanceChangedEvent} commits for their employee and year. Writes made by other
+ * instances publish no event here, so entries are also reloaded once they are older than
+ * attendance.calendar.max-age. Beyond attendance.calendar.max-entries the least recently
+ * used entries are dropped.
+ */
+@Service
+public class AttendanceCalendarService {
+
+    private static final char NO_ATTENDANCE = '-';
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MAX_DAYS = 366;
+
+    private final AttendanceService attendanceService;
+    private final EmployeeRepository employeeRepository;
+    private final long maxAgeNanos;
+
+    // Access ordered, so the eldest entry is the least recently used; guarded by itself
+    private final Map<CalendarKey, EmployeeYear> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AttendanceCalendarService(AttendanceService attendanceService,
+            EmployeeRepository employeeRepository,
+            @Value("${attendance.calendar.max-entries:100000}") int maxEntries,
+            @Value("${attendance.calendar.max-age:PT1M}") Duration maxAge) {
+        this.attendanceService = attendanceService;
+        this.employeeRepository = employeeRepository;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CalendarKey, EmployeeYear> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get an employee's attendance for a month, or for the whole year when month is null.
+     */
+    public AttendanceCalendarDto getCalendar(Long employeeId, int year, Integer month) {
+        LocalDate startDate = startOf(year, month);
+        LocalDate endDate = endOf(year, month);
+        Map<CalendarKey, EmployeeYear> years = resolve(List.of(employeeId), startDate, endDate);
+
+        StringBuilder days = new StringBuilder(MAX_DAYS);
+        int present = 0;
+        int onLeave = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            AttendanceStatus status = statusOn(years, employeeId, date);
+            if (status == AttendanceStatus.PRESENT) {
+                present++;
+            } else if (status == AttendanceStatus.LEAVE) {
+                onLeave++;
+            }
+            days.append(status != null ? status.getCode() : NO_ATTENDANCE);
+        }
+
+        return AttendanceCalendarDto.builder()
+                .employeeId(employeeId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .days(days.toString())
+                .presentDays(present)
+                .leaveDays(onLeave)
+                .build();
+    }
+
+    /**
+     * Get the attendance register (employee x day) for a month, or for the whole year when month is null.
+     * Lists active employees and any other employee with attendance in the period.
+     */
+    public AttendanceMatrixDto getMatrix(int year, Integer month, String department) {
+        LocalDate startDate = startOf(year, month);
+        LocalDate endDate = endOf(year, month);
+        List<Employee> employees = department != null
+                ? employeeRepository.findByDepartment(department)
+                : employeeRepository.findAll(Sort.by("id"));
+        Map<CalendarKey, EmployeeYear> years = resolve(employees.stream().map(Employee::getId).toList(),
+                startDate, endDate);
+
+        List<AttendanceMatrixDto.Row> rows = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            StringBuilder days = new StringBuilder(MAX_DAYS);
+            boolean any = false;
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                AttendanceStatus status = statusOn(years, employee.getId(), date);
+                any |= status != null;
+                days.append(status != null ? status.getCode() : NO_ATTENDANCE);
+            }
+            if (any || employee.getStatus() == Status.ACTIVE) {
+                rows.add(AttendanceMatrixDto.Row.builder()
+                        .employeeId(employee.getId())
+                        .employeeCode(employee.getEmployeeCode())
+                        .employeeName(employee.getName())
+                        .days(days.toString())
+                        .build());
+            }
+        }
+
+        Map<Character, AttendanceStatus> codes = new HashMap<>();
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            codes.put(status.getCode(), status);
+        }
+        return AttendanceMatrixDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .codes(codes)
+                .emptyDay(NO_ATTENDANCE)
+                .rows(rows)
+                .build();
+    }
+
+    /**
+     * Evict the cached years touched by an attendance write once it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        invalidations.incrementAndGet();
+        synchronized (cache) {
+            for (int year = event.startDate().getYear(); year <= event.endDate().getYear(); year++) {
+                int changedYear = year;
+                if (event.affectsAllEmployees()) {
+                    cache.keySet().removeIf(key -> key.year() == changedYear);
+                } else {
+                    event.employeeIds().forEach(employeeId -> cache.remove(new CalendarKey(employeeId, changedYear)));
+                }
+            }
+        }
+    }
+
+    private AttendanceStatus statusOn(Map<CalendarKey, EmployeeYear> years, Long employeeId, LocalDate date) {
+        return years.get(new CalendarKey(employeeId, date.getYear())).statusOn(date);
+    }
+
+    /**
+     * Get the employee-years covering a period, loading the ones not cached yet (or cached for
+     * longer than the max age) a batch of employees per query.
+     */
+    private Map<CalendarKey, EmployeeYear> resolve(List<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        Map<CalendarKey, EmployeeYear> years = new HashMap<>();
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            List<Long> missing = new ArrayList<>();
+            long now = System.nanoTime();
+            synchronized (cache) {
+                for (Long employeeId : employeeIds) {
+                    CalendarKey key = new CalendarKey(employeeId, year);
+                    EmployeeYear cached = cache.get(key);
+                    if (cached != null && now - cached.loadedAtNanos < maxAgeNanos) {
+                        years.put(key, cached);
+                    } else {
+                        missing.add(employeeId);
+                    }
+                }
+            }
+            for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+                years.putAll(load(missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size())), year));
+            }
+        }
+        return years;
+    }
+
+    /**
+     * Load employee-years from the database. A load that overlaps an invalidation is returned
+     * for the current request but not cached, since it may have read data from before the change.
+     */
+    private Map<CalendarKey, EmployeeYear> load(List<Long> employeeIds, int year) {
+        long version = invalidations.get();
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+
+        Map<Long, EmployeeYear> byEmployee = new HashMap<>();
+        for (Long employeeId : employeeIds) {
+            byEmployee.put(employeeId, new EmployeeYear(firstDay));
+        }
+        for (AttendanceMark mark : attendanceService.getAttendanceMarks(employeeIds, firstDay,
+                firstDay.withDayOfYear(firstDay.lengthOfYear()))) {
+            byEmployee.get(mark.employeeId()).mark(mark.attendanceDate(), mark.status());
+        }
+
+        Map<CalendarKey, EmployeeYear> loaded = new HashMap<>();
+        byEmployee.forEach((employeeId, employeeYear) -> loaded.put(new CalendarKey(employeeId, year), employeeYear));
+        synchronized (cache) {
+            if (invalidations.get() == version) {
+                cache.putAll(loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static LocalDate startOf(int year, Integer month) {
+        validate(year, month);
+        return month != null ? YearMonth.of(year, month).atDay(1) : LocalDate.of(year, 1, 1);
+    }
+
+    private static LocalDate endOf(int year, Integer month) {
+        return month != null ? YearMonth.of(year, month).atEndOfMonth() : LocalDate.of(year, 12, 31);
+    }
+
+    private static void validate(int year, Integer month) {
+        if (year < 1900 || year > 9999) {
+            throw new BusinessException("Year must be between 1900 and 9999");
+        }
+        if (month != null && (month < 1 || month > 12)) {
+            throw new BusinessException("Month must be between 1 and 12");
+        }
+    }
+
+    private record CalendarKey(Long employeeId, int year) {
+    }
+
+    /**
+     * One employee's attendance for a year: a bitset per status, bit n being the n-th day of the year.
+     */
+    private static final class EmployeeYear {
+
+        private final long firstEpochDay;
+        private final long loadedAtNanos = System.nanoTime();
+        private final Map<AttendanceStatus, BitSet> days = new EnumMap<>(AttendanceStatus.class);
+
+        private EmployeeYear(LocalDate firstDay) {
+            this.firstEpochDay = firstDay.toEpochDay();
+        }
+
+        private void mark(LocalDate date, AttendanceStatus status) {
+            days.computeIfAbsent(status, s -> new BitSet(MAX_DAYS)).set(index(date));
+        }
+
+        private AttendanceStatus statusOn(LocalDate date) {
+            int index = index(date);
+            for (Map.Entry<AttendanceStatus, BitSet> entry : days.entrySet()) {
+                if (entry.getValue().get(index)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        private int index(LocalDate date) {
+            return (int) (date.toEpochDay() - firstEpochDay);
+        }
+    }
+}
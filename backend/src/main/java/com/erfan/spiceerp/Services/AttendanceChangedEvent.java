@@ -0,0 +1,20 @@
+package com.erfan.spiceerp.Services;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Published by AttendanceService whenever attendance of a date range is written or removed.
+ * A null employee id collection means every employee may have changed.
+ * Listeners that keep derived attendance data should react after the transaction commits.
+ */
+public record AttendanceChangedEvent(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+
+    public static AttendanceChangedEvent allEmployees(LocalDate startDate, LocalDate endDate) {
+        return new AttendanceChangedEvent(null, startDate, endDate);
+    }
+
+    public boolean affectsAllEmployees() {
+        return employeeIds == null;
+    }
+}
@@ -0,0 +1,207 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Repos.AttendanceGenerationCheckpointRepository;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Service that drives attendance generation for a whole day.
+ * The active employee id space is split into fixed-width ranges; each range is
+ * generated in its own transaction on a bounded worker pool and checkpointed,
+ * so a failed or interrupted run can be resumed without redoing finished chunks.
+ */
+@Service
+public class AttendanceGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceGenerationService.class);
+
+    private final AttendanceService attendanceService;
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceGenerationCheckpointRepository checkpointRepository;
+    private final TodayAttendanceBoard todayAttendanceBoard;
+    private final TaskExecutor executor;
+    private final long chunkSize;
+    private final int catchUpMaxDays;
+
+    public AttendanceGenerationService(AttendanceService attendanceService,
+            EmployeeRepository employeeRepository,
+            AttendanceGenerationCheckpointRepository checkpointRepository,
+            TodayAttendanceBoard todayAttendanceBoard,
+            @Qualifier("attendanceGenerationExecutor") TaskExecutor executor,
+            @Value("${attendance.generation.chunk-size:5000}") long chunkSize,
+            @Value("${attendance.catch-up.max-days:31}") int catchUpMaxDays) {
+        this.attendanceService = attendanceService;
+        this.employeeRepository = employeeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.todayAttendanceBoard = todayAttendanceBoard;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.catchUpMaxDays = catchUpMaxDays;
+    }
+
+    /**
+     * Generate daily attendance for all active employees.
+     * Called by scheduler at 00:05 AM daily.
+     */
+    public GenerationResult generateDailyAttendance() {
+        return generateAttendance(LocalDate.now());
+    }
+
+    /**
+     * Generate attendance for all active employees on a date, resuming from checkpoints.
+     */
+    public GenerationResult generateAttendance(LocalDate date) {
+        return generateAttendance(date, ProgressListener.NONE);
+    }
+
+    /**
+     * Generate attendance for all active employees on a date, reporting progress per chunk.
+     */
+    public GenerationResult generateAttendance(LocalDate date, ProgressListener listener) {
+        logger.info("Generating attendance for date: {}", date);
+
+        Long minId = employeeRepository.findMinIdByStatus(Status.ACTIVE);
+        Long maxId = employeeRepository.findMaxIdByStatus(Status.ACTIVE);
+        if (minId == null || maxId == null) {
+            logger.info("No active employees, nothing to generate for {}", date);
+            listener.onPlanned(0, 0);
+            return new GenerationResult(date, 0, 0, 0, 0, 0, 0);
+        }
+
+        Set<Long> completedChunks = checkpointRepository.findChunkStartIdsByAttendanceDate(date);
+
+        // Chunk boundaries are aligned to the chunk size so they stay stable across reruns
+        List<Long> pendingChunks = new ArrayList<>();
+        int skipped = 0;
+        for (long fromId = (minId / chunkSize) * chunkSize; fromId <= maxId; fromId += chunkSize) {
+            if (completedChunks.contains(fromId)) {
+                skipped++;
+            } else {
+                pendingChunks.add(fromId);
+            }
+        }
+        listener.onPlanned(pendingChunks.size() + skipped, skipped);
+
+        List<CompletableFuture<AttendanceService.ChunkResult>> chunks = new ArrayList<>();
+        List<CompletableFuture<AttendanceService.ChunkResult>> futures = new ArrayList<>();
+        for (long chunkStart : pendingChunks) {
+            long chunkEnd = chunkStart + chunkSize - 1;
+            CompletableFuture<AttendanceService.ChunkResult> chunk = CompletableFuture
+                    .supplyAsync(() -> attendanceService.generateAttendanceChunk(date, chunkStart, chunkEnd), executor);
+            chunks.add(chunk);
+            futures.add(chunk
+                    .thenApply(result -> {
+                        listener.onChunkCompleted(result);
+                        return result;
+                    })
+                    .exceptionally(ex -> {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                                ? ex.getCause() : ex;
+                        logger.error("Attendance generation failed for {} and employees {}-{}",
+                                date, chunkStart, chunkEnd, cause);
+                        listener.onChunkFailed(chunkStart, chunkEnd, cause);
+                        return null;
+                    }));
+        }
+
+        int failed = 0;
+        int employees = 0;
+        int present = 0;
+        int existing = 0;
+        for (CompletableFuture<AttendanceService.ChunkResult> future : futures) {
+            AttendanceService.ChunkResult result;
+            try {
+                result = future.get();
+            } catch (InterruptedException e) {
+                // Stopped, e.g. because the generation lease was lost: chunks not started yet
+                // are dropped and stay unchecked for the next run
+                chunks.forEach(chunk -> chunk.cancel(false));
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Attendance generation for " + date + " was interrupted");
+            } catch (ExecutionException e) {
+                // Chunk failures are already turned into a null result
+                throw new IllegalStateException(e.getCause());
+            }
+            if (result == null) {
+                failed++;
+                continue;
+            }
+            employees += result.employees();
+            present += result.presentDays();
+            existing += result.existingDays();
+        }
+
+        GenerationResult result = new GenerationResult(date, futures.size() + skipped, skipped, failed,
+                employees, present, existing);
+        logger.info("Attendance generated for {}. Chunks: {} (skipped {}, failed {}), Created: {}, Existing: {}",
+                date, result.chunks(), skipped, failed, present, existing);
+
+        // Start the day's board from the complete attendance rather than chunk by chunk
+        if (todayAttendanceBoard.isToday(date)) {
+            todayAttendanceBoard.rebuild(date);
+        }
+        return result;
+    }
+
+    /**
+     * Generate attendance for days the scheduler missed.
+     * Starts at the latest date that has attendance, since that day may only be partially
+     * generated, and never looks back more than attendance.catch-up.max-days days.
+     */
+    public AttendanceService.BackfillResult catchUpMissedDays() {
+        LocalDate today = LocalDate.now();
+        LocalDate earliest = today.minusDays(catchUpMaxDays);
+        LocalDate latest = attendanceService.getLatestGeneratedDate();
+
+        LocalDate startDate;
+        if (latest == null || latest.isAfter(today)) {
+            startDate = today;
+        } else {
+            startDate = latest.isBefore(earliest) ? earliest : latest;
+        }
+        return attendanceService.backfillAttendance(startDate, today);
+    }
+
+    /**
+     * Receives progress of a generation run. Chunk callbacks arrive on worker threads.
+     */
+    public interface ProgressListener {
+
+        ProgressListener NONE = new ProgressListener() {
+        };
+
+        default void onPlanned(int totalChunks, int skippedChunks) {
+        }
+
+        default void onChunkCompleted(AttendanceService.ChunkResult result) {
+        }
+
+        default void onChunkFailed(long fromId, long toId, Throwable error) {
+        }
+    }
+
+    /**
+     * Outcome of a generation run for one date.
+     */
+    public record GenerationResult(LocalDate date, int chunks, int skippedChunks, int failedChunks,
+            int employees, int presentDays, int existingDays) {
+        public boolean isComplete() {
+            return failedChunks == 0;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.erfan.spiceerp.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Data versions and a cache of gzip-compressed JSON responses for attendance reads.
+ * A version is kept per date, per employee-month, per month for writes covering every
+ * employee, and for employee details; each write takes a new value of one sequence, so the
+ * highest version behind a response identifies its data. The versions are bumped when an
+ * {@link AttendanceChangedEvent} or {@link EmployeeChangedEvent} commits, and are scoped to
+ * this process by an epoch, so a strong ETag is computed without reading the database.
+ * Writes made by other instances publish no event here, so only closed days (before today)
+ * get an ETag: after attendance.response-cache.max-age, or once the maps hold
+ * MAX_VERSIONS entries, the versions are dropped and every ETag moves past them, which
+ * bounds both the maps and how long a correction made elsewhere goes unnoticed.
+ * Responses covering closed days only are kept, compressed, until the configured size is
+ * reached, least recently used first, and dropped with the versions.
+ */
+@Service
+public class AttendanceResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceResponseCache.class);
+
+    private static final int MAX_VERSIONS = 100_000;
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final long maxAgeNanos;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    // Lowest version of every ETag, raised when the versions roll over; updates hold sequence
+    private volatile long floorVersion;
+    private volatile long versionsSinceNanos = System.nanoTime();
+    private final AtomicLong employeesVersion = new AtomicLong();
+    private final Map<LocalDate, Long> dateVersions = new ConcurrentHashMap<>();
+    private final Map<YearMonth, Long> allEmployeesMonthVersions = new ConcurrentHashMap<>();
+    private final Map<EmployeeMonth, Long> employeeMonthVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> employeeVersions = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<Object, CachedResponse> responses = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AttendanceResponseCache(ObjectMapper objectMapper,
+            @Value("${attendance.response-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${attendance.response-cache.max-age:PT5M}") Duration maxAge) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Strong ETag of the attendance of every employee on a date, or null when the date is not
+     * closed yet.
+     */
+    public String getDateETag(LocalDate date) {
+        if (!isClosed(date)) {
+            return null;
+        }
+        long version = Math.max(currentFloor(),
+                Math.max(dateVersions.getOrDefault(date, 0L), employeesVersion.get()));
+        return "\"" + epoch + "-d" + date + "-" + version + "\"";
+    }
+
+    /**
+     * Strong ETag of an employee's attendance within a date range, or null when the range ends
+     * today or later.
+     */
+    public String getEmployeeRangeETag(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        if (!isClosed(endDate)) {
+            return null;
+        }
+        long version = Math.max(currentFloor(), employeeVersions.getOrDefault(employeeId, 0L));
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate));
+                month = month.plusMonths(1)) {
+            version = Math.max(version, allEmployeesMonthVersions.getOrDefault(month, 0L));
+            version = Math.max(version, employeeMonthVersions.getOrDefault(new EmployeeMonth(employeeId, month), 0L));
+        }
+        return "\"" + epoch + "-e" + employeeId + "-" + startDate + "-" + endDate + "-" + version + "\"";
+    }
+
+    /**
+     * Get the gzip-compressed JSON of the attendance of a date, as of the given ETag, loading
+     * it when not cached. Only closed dates, which have an ETag, are cached.
+     */
+    public byte[] getDateResponse(LocalDate date, String etag, Supplier<?> loader) {
+        return get(date, etag, date, loader);
+    }
+
+    /**
+     * Get the gzip-compressed JSON of an employee's attendance within a date range, as of the
+     * given ETag, loading it when not cached. Only ranges ending before today are cached.
+     */
+    public byte[] getEmployeeRangeResponse(Long employeeId, LocalDate startDate, LocalDate endDate, String etag,
+            Supplier<?> loader) {
+        return get(new RangeKey(employeeId, startDate, endDate), etag, endDate, loader);
+    }
+
+    /**
+     * Bump the versions of the dates and employee-months a committed attendance write
+     * touched, and drop the cached responses covering them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        synchronized (sequence) {
+            long version = sequence.incrementAndGet();
+            for (LocalDate date = event.startDate(); !date.isAfter(event.endDate()); date = date.plusDays(1)) {
+                dateVersions.put(date, version);
+            }
+            for (YearMonth month = YearMonth.from(event.startDate());
+                    !month.isAfter(YearMonth.from(event.endDate())); month = month.plusMonths(1)) {
+                if (event.affectsAllEmployees()) {
+                    allEmployeesMonthVersions.put(month, version);
+                } else {
+                    for (Long employeeId : event.employeeIds()) {
+                        employeeMonthVersions.put(new EmployeeMonth(employeeId, month), version);
+                    }
+                }
+            }
+        }
+        evict(key -> key instanceof LocalDate date
+                ? !date.isBefore(event.startDate()) && !date.isAfter(event.endDate())
+                : key instanceof RangeKey range
+                        && (event.affectsAllEmployees() || event.employeeIds().contains(range.employeeId()))
+                        && !range.startDate().isAfter(event.endDate()) && !range.endDate().isBefore(event.startDate()));
+    }
+
+    /**
+     * Bump the versions of responses showing an employee's details, and drop them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (sequence) {
+            long version = sequence.incrementAndGet();
+            employeesVersion.set(version);
+            employeeVersions.put(event.employeeId(), version);
+        }
+        evict(key -> key instanceof LocalDate
+                || key instanceof RangeKey range && range.employeeId().equals(event.employeeId()));
+    }
+
+    /**
+     * Get the lowest version of the ETags, first rolling the versions over when they are older
+     * than the max age or too many.
+     */
+    private long currentFloor() {
+        long now = System.nanoTime();
+        if (now - versionsSinceNanos < maxAgeNanos && versionCount() <= MAX_VERSIONS) {
+            return floorVersion;
+        }
+        synchronized (sequence) {
+            if (now - versionsSinceNanos < maxAgeNanos && versionCount() <= MAX_VERSIONS) {
+                return floorVersion;
+            }
+            floorVersion = sequence.incrementAndGet();
+            dateVersions.clear();
+            allEmployeesMonthVersions.clear();
+            employeeMonthVersions.clear();
+            employeeVersions.clear();
+            versionsSinceNanos = now;
+        }
+        evict(key -> true);
+        logger.debug("Attendance response versions rolled over");
+        return floorVersion;
+    }
+
+    private long versionCount() {
+        return dateVersions.size() + allEmployeesMonthVersions.size() + employeeMonthVersions.size()
+                + employeeVersions.size();
+    }
+
+    private static boolean isClosed(LocalDate lastDay) {
+        return lastDay.isBefore(LocalDate.now());
+    }
+
+    private byte[] get(Object key, String etag, LocalDate lastDay, Supplier<?> loader) {
+        boolean closed = etag != null && isClosed(lastDay);
+        if (closed) {
+            synchronized (responses) {
+                CachedResponse cached = responses.get(key);
+                if (cached != null && cached.etag().equals(etag)) {
+                    hits.incrementAndGet();
+                    return cached.gzip();
+                }
+            }
+        }
+        misses.incrementAndGet();
+        byte[] gzip = gzipJson(loader.get());
+        if (closed && gzip.length <= maxBytes / 4) {
+            synchronized (responses) {
+                CachedResponse previous = responses.put(key, new CachedResponse(etag, gzip));
+                cachedBytes += gzip.length - (previous != null ? previous.gzip().length : 0);
+                Iterator<CachedResponse> eldest = responses.values().iterator();
+                while (cachedBytes > maxBytes && eldest.hasNext()) {
+                    cachedBytes -= eldest.next().gzip().length;
+                    eldest.remove();
+                }
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Attendance response cache: {} hit(s), {} miss(es), {} bytes cached",
+                    hits.get(), misses.get(), cachedBytes);
+        }
+        return gzip;
+    }
+
+    private void evict(Predicate<Object> covered) {
+        synchronized (responses) {
+            Iterator<Map.Entry<Object, CachedResponse>> entries = responses.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Object, CachedResponse> entry = entries.next();
+                if (covered.test(entry.getKey())) {
+                    cachedBytes -= entry.getValue().gzip().length;
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    private byte[] gzipJson(Object body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes, 8192)) {
+            objectMapper.writeValue(out, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private record EmployeeMonth(Long employeeId, YearMonth month) {
+    }
+
+    private record RangeKey(Long employeeId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record CachedResponse(String etag, byte[] gzip) {
+    }
+}
@@ -1,29 +1,64 @@
 package com.erfan.spiceerp.Services;
 
 import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Dto.CursorPageDto;
 import com.erfan.spiceerp.Enums.AttendanceStatus;
-import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.AttendanceStorageMode;
+import com.erfan.spiceerp.Enums.PageCount;
 import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Exception.BusinessException;
 import com.erfan.spiceerp.Exception.ResourceNotFoundException;
 import com.erfan.spiceerp.Models.Attendance;
-import com.erfan.spiceerp.Models.Employee;
 import com.erfan.spiceerp.Models.LeaveRequest;
+import com.erfan.spiceerp.Models.Employee;
+import com.erfan.spiceerp.Repos.AttendanceArchiveRepository;
+import com.erfan.spiceerp.Repos.AttendanceBatchRepository;
+import com.erfan.spiceerp.Repos.AttendanceBatchRepository.AttendanceRow;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceDay;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceMark;
+import com.erfan.spiceerp.Repos.AttendancePeriodRepository;
+import com.erfan.spiceerp.Repos.AttendanceGenerationCheckpointRepository;
 import com.erfan.spiceerp.Repos.AttendanceRepository;
+import com.erfan.spiceerp.Repos.AttendanceRollupRepository;
+import com.erfan.spiceerp.Repos.AttendanceRollupRepository.DayTotals;
 import com.erfan.spiceerp.Repos.EmployeeRepository;
-import com.erfan.spiceerp.Repos.LeaveRequestRepository;
+import com.erfan.spiceerp.Repos.SparseListRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing attendance records.
+ * In the EXCEPTIONS storage mode (attendance.storage.mode) only non-PRESENT days are stored
+ * as rows; generated PRESENT days are kept as attendance periods and synthesized on read,
+ * so the read methods return the same days in both modes. Every write publishes an
+ * {@link AttendanceChangedEvent} and keeps the monthly rollup, which serves the summaries,
+ * up to date in the same transaction.
+ * Years moved to the attendance archive are read from their segment files instead of the
+ * database, and can no longer be written.
  */
 @Service
 @Transactional
@@ -32,71 +67,179 @@ public class AttendanceService {
     private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
 
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceBatchRepository attendanceBatchRepository;
+    private final AttendanceDayRepository attendanceDayRepository;
+    private final AttendancePeriodRepository attendancePeriodRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final AttendanceArchiveRepository attendanceArchiveRepository;
+    private final SparseListRepository sparseListRepository;
+    private final AttendanceGenerationCheckpointRepository checkpointRepository;
     private final EmployeeRepository employeeRepository;
-    private final LeaveRequestRepository leaveRequestRepository;
-    private final LeaveService leaveService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadThroughCache<LocalDate, List<AttendanceDto>> attendanceByDateCache;
+    private final AttendanceStorageMode storageMode;
 
     public AttendanceService(AttendanceRepository attendanceRepository,
+            AttendanceBatchRepository attendanceBatchRepository,
+            AttendanceDayRepository attendanceDayRepository,
+            AttendancePeriodRepository attendancePeriodRepository,
+            AttendanceRollupRepository attendanceRollupRepository,
+            AttendanceArchiveRepository attendanceArchiveRepository,
+            SparseListRepository sparseListRepository,
+            AttendanceGenerationCheckpointRepository checkpointRepository,
             EmployeeRepository employeeRepository,
-            LeaveRequestRepository leaveRequestRepository,
-            LeaveService leaveService) {
+            EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("attendanceByDateCache") ReadThroughCache<LocalDate, List<AttendanceDto>> attendanceByDateCache,
+            @Value("${attendance.storage.mode:FULL}") AttendanceStorageMode storageMode) {
         this.attendanceRepository = attendanceRepository;
+        this.attendanceBatchRepository = attendanceBatchRepository;
+        this.attendanceDayRepository = attendanceDayRepository;
+        this.attendancePeriodRepository = attendancePeriodRepository;
+        this.attendanceRollupRepository = attendanceRollupRepository;
+        this.attendanceArchiveRepository = attendanceArchiveRepository;
+        this.sparseListRepository = sparseListRepository;
+        this.checkpointRepository = checkpointRepository;
         this.employeeRepository = employeeRepository;
-        this.leaveRequestRepository = leaveRequestRepository;
-        this.leaveService = leaveService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.attendanceByDateCache = attendanceByDateCache;
+        this.storageMode = storageMode;
     }
 
     /**
-     * Generate daily attendance for all active employees.
-     * Called by scheduler at 00:05 AM daily.
+     * Generate attendance for the active employees of one id range on a date.
+     * Runs in its own transaction and records a checkpoint with the written rows,
+     * so a rerun of the day can skip the chunk.
+     *
+     * Employees on approved leave already have a LEAVE row, written when the leave was
+     * approved, so the chunk only inserts PRESENT rows with batched conflict-tolerant
+     * inserts that skip every employee who already has a row. In the EXCEPTIONS storage
+     * mode the employees' attendance periods are extended to the date instead.
      */
-    public void generateDailyAttendance() {
-        LocalDate today = LocalDate.now();
-        logger.info("Generating daily attendance for date: {}", today);
+    public ChunkResult generateAttendanceChunk(LocalDate date, long fromId, long toId) {
+        logger.debug("Generating attendance for {} and employees {}-{}", date, fromId, toId);
 
-        List<Employee> activeEmployees = employeeRepository.findByStatus(Status.ACTIVE);
-        int created = 0;
-        int updated = 0;
+        List<Long> activeEmployeeIds = employeeRepository.findIdsByStatusAndIdRange(Status.ACTIVE, fromId, toId);
 
-        for (Employee employee : activeEmployees) {
-            // Check if attendance already exists for today
-            if (attendanceRepository.existsByEmployeeIdAndAttendanceDate(employee.getId(), today)) {
-                logger.debug("Attendance already exists for employee {} on {}", employee.getId(), today);
-                continue;
+        List<Long> createdIds;
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            createdIds = attendanceBatchRepository.coverDay(date, activeEmployeeIds);
+        } else {
+            // Default attendance is PRESENT
+            List<AttendanceRow> rows = new ArrayList<>(activeEmployeeIds.size());
+            for (Long employeeId : activeEmployeeIds) {
+                rows.add(new AttendanceRow(employeeId, date, AttendanceStatus.PRESENT, null));
             }
+            createdIds = attendanceBatchRepository.insertAll(rows).stream()
+                    .map(AttendanceRow::employeeId)
+                    .collect(Collectors.toList());
+        }
+        attendanceRollupRepository.addPresentDays(date, createdIds);
+        int created = createdIds.size();
+        int existing = activeEmployeeIds.size() - created;
 
-            // Check for approved leave for today
-            List<LeaveRequest> approvedLeaves = leaveRequestRepository
-                    .findApprovedLeavesForDate(employee.getId(), today, LeaveStatus.APPROVED);
-
-            Attendance attendance;
-            if (!approvedLeaves.isEmpty()) {
-                // Employee is on approved leave
-                LeaveRequest leaveRequest = approvedLeaves.get(0);
-                attendance = Attendance.builder()
-                        .employee(employee)
-                        .attendanceDate(today)
-                        .status(AttendanceStatus.LEAVE)
-                        .leaveRequest(leaveRequest)
-                        .build();
-
-                // Deduct leave balance (only 1 day)
-                leaveService.deductLeaveBalance(employee.getId(), leaveRequest.getLeaveType(), 1);
-                updated++;
-            } else {
-                // Default attendance is PRESENT
-                attendance = Attendance.builder()
-                        .employee(employee)
-                        .attendanceDate(today)
-                        .status(AttendanceStatus.PRESENT)
-                        .build();
-                created++;
-            }
+        checkpointRepository.saveIfAbsent(date, fromId, toId, created, existing);
+        eventPublisher.publishEvent(new AttendanceChangedEvent(activeEmployeeIds, date, date));
+
+        // Keep the persistence context flat across chunks
+        entityManager.flush();
+        entityManager.clear();
 
-            attendanceRepository.save(attendance);
+        return new ChunkResult(activeEmployeeIds.size(), created, existing);
+    }
+
+    /**
+     * Generate every missing attendance row between two dates (inclusive) in one pass.
+     * Used to recover days the scheduler missed, e.g. while the application was down.
+     */
+    public BackfillResult backfillAttendance(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new BusinessException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date cannot be before start date");
         }
+        if (endDate.isAfter(LocalDate.now())) {
+            throw new BusinessException("Attendance cannot be generated for future dates");
+        }
+        ensureNotArchived(startDate);
+
+        logger.info("Backfilling attendance from {} to {}", startDate, endDate);
+        int created = storageMode == AttendanceStorageMode.EXCEPTIONS
+                ? attendanceBatchRepository.coverDays(startDate, endDate)
+                : attendanceBatchRepository.backfill(startDate, endDate);
+        attendanceRollupRepository.rebuild(null, monthOf(startDate), monthOf(endDate));
+        logger.info("Attendance backfilled from {} to {}. Created: {}", startDate, endDate, created);
+        eventPublisher.publishEvent(AttendanceChangedEvent.allEmployees(startDate, endDate));
 
-        logger.info("Daily attendance generated. Created: {}, On Leave: {}", created, updated);
+        return new BackfillResult(startDate, endDate, created);
+    }
+
+    /**
+     * Get the latest date attendance was generated for.
+     * LEAVE rows are written ahead for approved leaves, so only generated PRESENT days count.
+     */
+    @Transactional(readOnly = true)
+    public LocalDate getLatestGeneratedDate() {
+        return storageMode == AttendanceStorageMode.EXCEPTIONS
+                ? attendancePeriodRepository.findLatestEndDate()
+                : attendanceRepository.findLatestAttendanceDateByStatus(AttendanceStatus.PRESENT);
+    }
+
+    /**
+     * Get the earliest date that still has attendance in the database, or null when there is none.
+     */
+    @Transactional(readOnly = true)
+    public LocalDate getEarliestAttendanceDate() {
+        LocalDate rows = attendanceRepository.findEarliestAttendanceDate();
+        LocalDate periods = attendancePeriodRepository.findEarliestStartDate();
+        return rows == null || (periods != null && periods.isBefore(rows)) ? periods : rows;
+    }
+
+    /**
+     * Delete the database attendance of a year that has been written to the archive.
+     */
+    public int purgeArchivedYear(int year) {
+        if (!attendanceArchiveRepository.isArchived(year)) {
+            throw new BusinessException("Attendance for " + year + " has not been archived");
+        }
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        int deleted = attendanceBatchRepository.deleteRange(startDate, endDate);
+        eventPublisher.publishEvent(AttendanceChangedEvent.allEmployees(startDate, endDate));
+        logger.info("Deleted {} archived attendance row(s) of {}", deleted, year);
+        return deleted;
+    }
+
+    /**
+     * Get (employee, date, status) of every attendance day of some employees in a date range,
+     * including archived days.
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceMark> getAttendanceMarks(Collection<Long> employeeIds, LocalDate startDate,
+            LocalDate endDate) {
+        LocalDate archivedThrough = getArchivedThrough();
+        if (archivedThrough == null || startDate.isAfter(archivedThrough)) {
+            return getLiveAttendanceMarks(employeeIds, startDate, endDate);
+        }
+        List<AttendanceMark> marks = new ArrayList<>(attendanceArchiveRepository.findMarks(employeeIds, startDate,
+                endDate.isAfter(archivedThrough) ? archivedThrough : endDate));
+        if (endDate.isAfter(archivedThrough)) {
+            marks.addAll(getLiveAttendanceMarks(employeeIds, archivedThrough.plusDays(1), endDate));
+        }
+        return marks;
+    }
+
+    /**
+     * Get (employee, date, status) of the attendance days still in the database, ignoring the archive.
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceMark> getLiveAttendanceMarks(Collection<Long> employeeIds, LocalDate startDate,
+            LocalDate endDate) {
+        return attendanceDayRepository.findMarks(employeeIds, startDate, endDate,
+                storageMode == AttendanceStorageMode.EXCEPTIONS);
     }
 
     /**
@@ -104,29 +247,132 @@ public class AttendanceService {
      */
     @Transactional(readOnly = true)
     public List<AttendanceDto> getEmployeeAttendance(Long employeeId) {
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            return attendanceDayRepository.findByEmployee(employeeId).stream()
+                    .map(this::mapToDto)
+                    .collect(Collectors.toList());
+        }
         return attendanceRepository.findByEmployeeIdOrderByAttendanceDateDesc(employeeId).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get attendance for an employee within a date range.
+     * Get attendance for an employee, latest first, with only the requested AttendanceDto
+     * fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEmployeeAttendance(Long employeeId, String fields) {
+        return sparseListRepository.findAttendance(FieldSet.parse(fields), employeeId, null,
+                storageMode == AttendanceStorageMode.EXCEPTIONS);
+    }
+
+    /**
+     * Pass the attendance of an employee to the consumer, latest first, one record at a time
+     * as they are read from a database cursor. Each record is detached once mapped.
+     */
+    @Transactional(readOnly = true)
+    public void streamEmployeeAttendance(Long employeeId, Consumer<AttendanceDto> consumer) {
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            try (Stream<AttendanceDay> days = attendanceDayRepository.streamByEmployee(employeeId)) {
+                days.forEach(day -> consumer.accept(mapToDto(day)));
+            }
+            return;
+        }
+        try (Stream<Attendance> records = attendanceRepository
+                .streamByEmployeeIdOrderByAttendanceDateDesc(employeeId)) {
+            records.forEach(attendance -> {
+                consumer.accept(mapToDto(attendance));
+                entityManager.detach(attendance);
+            });
+        }
+    }
+
+    /**
+     * Get attendance for an employee within a date range, latest first, including archived days.
+     * Archived days carry no id, leave request or creation time.
      */
     @Transactional(readOnly = true)
     public List<AttendanceDto> getEmployeeAttendance(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        LocalDate archivedThrough = getArchivedThrough();
+        if (archivedThrough == null || startDate.isAfter(archivedThrough)) {
+            return getLiveEmployeeAttendance(employeeId, startDate, endDate);
+        }
+
+        List<AttendanceDto> days = new ArrayList<>();
+        if (endDate.isAfter(archivedThrough)) {
+            days.addAll(getLiveEmployeeAttendance(employeeId, archivedThrough.plusDays(1), endDate));
+        }
+        List<AttendanceMark> archived = attendanceArchiveRepository.findMarks(List.of(employeeId), startDate,
+                endDate.isAfter(archivedThrough) ? archivedThrough : endDate);
+        if (!archived.isEmpty()) {
+            Employee employee = employeeRepository.findById(employeeId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
+            for (int i = archived.size() - 1; i >= 0; i--) {
+                days.add(mapToDto(employee, archived.get(i)));
+            }
+        }
+        return days;
+    }
+
+    private List<AttendanceDto> getLiveEmployeeAttendance(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            return attendanceDayRepository.findByEmployeeAndDateRange(employeeId, startDate, endDate).stream()
+                    .map(this::mapToDto)
+                    .collect(Collectors.toList());
+        }
         return attendanceRepository.findByEmployeeIdAndDateRange(employeeId, startDate, endDate).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get attendance for a specific date (admin).
+     * Get attendance for a specific date (admin), through the attendance-by-date cache.
+     * Runs without a transaction of its own, so callers waiting for another caller's load do
+     * not hold a connection; the load reads in the repositories' transactions.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<AttendanceDto> getAttendanceByDate(LocalDate date) {
-        return attendanceRepository.findByAttendanceDate(date).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return attendanceByDateCache.get(date, () -> {
+            if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+                return attendanceDayRepository.findByDate(date).stream()
+                        .map(this::mapToDto)
+                        .collect(Collectors.toUnmodifiableList());
+            }
+            return attendanceRepository.findByAttendanceDate(date).stream()
+                    .map(this::mapToDto)
+                    .collect(Collectors.toUnmodifiableList());
+        });
+    }
+
+    /**
+     * Pass the attendance of every employee on a date to the consumer, by employee, one record
+     * at a time as they are read from a database cursor. Each record is detached once mapped.
+     */
+    @Transactional(readOnly = true)
+    public void streamAttendanceByDate(LocalDate date, Consumer<AttendanceDto> consumer) {
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            try (Stream<AttendanceDay> days = attendanceDayRepository.streamByDate(date)) {
+                days.forEach(day -> consumer.accept(mapToDto(day)));
+            }
+            return;
+        }
+        try (Stream<Attendance> records = attendanceRepository.streamByAttendanceDateOrderByEmployeeId(date)) {
+            records.forEach(attendance -> {
+                consumer.accept(mapToDto(attendance));
+                entityManager.detach(attendance);
+            });
+        }
+    }
+
+    /**
+     * Get attendance for a specific date, by employee, with only the requested AttendanceDto
+     * fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAttendanceByDate(LocalDate date, String fields) {
+        return sparseListRepository.findAttendance(FieldSet.parse(fields), null, date,
+                storageMode == AttendanceStorageMode.EXCEPTIONS);
     }
 
     /**
@@ -134,10 +380,69 @@ public class AttendanceService {
      */
     @Transactional(readOnly = true)
     public Page<AttendanceDto> getAttendanceByDate(LocalDate date, Pageable pageable) {
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            List<AttendanceDto> content = attendanceDayRepository.findByDate(date, pageable).stream()
+                    .map(this::mapToDto)
+                    .collect(Collectors.toList());
+            return PageableExecutionUtils.getPage(content, pageable, () -> attendanceDayRepository.countByDate(date));
+        }
         return attendanceRepository.findByAttendanceDate(date, pageable)
                 .map(this::mapToDto);
     }
 
+    /**
+     * Get a slice of the attendance for a date after a cursor (keyset pagination), by employee id
+     * (sort "employee.id") or employee name (sort "employee.name"). Totals are only computed
+     * when asked for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<AttendanceDto> getAttendanceByDate(LocalDate date, String cursor, int size, String sort,
+            PageCount count) {
+        PageCursor.validateSize(size);
+        boolean byName = "employee.name".equals(sort);
+        if (!byName && !"employee.id".equals(sort)) {
+            throw new BusinessException("Cannot page attendance by " + sort);
+        }
+        String[] after = PageCursor.decode(cursor, sort, byName ? 2 : 1);
+        String afterName = after != null && byName ? after[0] : null;
+        Long afterEmployeeId = after != null ? PageCursor.key(after[after.length - 1], Long::valueOf) : null;
+
+        Long total = count == PageCount.EXACT ? attendanceDayRepository.countByDate(date) : null;
+        Long estimate = count == PageCount.ESTIMATED ? attendanceDayRepository.estimateCountByDate(date) : null;
+
+        if (storageMode == AttendanceStorageMode.EXCEPTIONS) {
+            List<AttendanceDay> days = byName
+                    ? attendanceDayRepository.findByDateAfterEmployeeName(date, afterName, afterEmployeeId, size + 1)
+                    : attendanceDayRepository.findByDateAfterEmployeeId(date, afterEmployeeId, size + 1);
+            Slice<AttendanceDay> slice = new SliceImpl<>(days.subList(0, Math.min(size, days.size())),
+                    PageRequest.of(0, size), days.size() > size);
+            return PageCursor.<AttendanceDay, AttendanceDto>toPage(slice, this::mapToDto,
+                    day -> byName
+                            ? PageCursor.encode(sort, day.employeeName(), day.employeeId())
+                            : PageCursor.encode(sort, day.employeeId()),
+                    total, estimate);
+        }
+
+        Slice<Attendance> slice;
+        if (byName) {
+            Pageable pageable = PageRequest.of(0, size, Sort.by("employee.name", "employee.id"));
+            slice = after == null
+                    ? attendanceRepository.findSliceByAttendanceDate(date, pageable)
+                    : attendanceRepository.findSliceByAttendanceDateAfterEmployeeName(date, afterName,
+                            afterEmployeeId, pageable);
+        } else {
+            Pageable pageable = PageRequest.of(0, size, Sort.by("employee.id"));
+            slice = after == null
+                    ? attendanceRepository.findSliceByAttendanceDate(date, pageable)
+                    : attendanceRepository.findSliceByAttendanceDateAfterEmployeeId(date, afterEmployeeId, pageable);
+        }
+        return PageCursor.<Attendance, AttendanceDto>toPage(slice, this::mapToDto,
+                attendance -> byName
+                        ? PageCursor.encode(sort, attendance.getEmployee().getName(), attendance.getEmployee().getId())
+                        : PageCursor.encode(sort, attendance.getEmployee().getId()),
+                total, estimate);
+    }
+
     /**
      * Get attendance by ID.
      */
@@ -153,30 +458,183 @@ public class AttendanceService {
      */
     @Transactional(readOnly = true)
     public AttendanceSummary getAttendanceSummary(Long employeeId, LocalDate startDate, LocalDate endDate) {
-        Long presentCount = attendanceRepository.countByEmployeeIdAndStatusAndDateRange(
-                employeeId, AttendanceStatus.PRESENT, startDate, endDate);
-        Long leaveCount = attendanceRepository.countByEmployeeIdAndStatusAndDateRange(
-                employeeId, AttendanceStatus.LEAVE, startDate, endDate);
+        return summarize(List.of(employeeId), startDate, endDate);
+    }
+
+    /**
+     * Get attendance summary across all employees (admin).
+     */
+    @Transactional(readOnly = true)
+    public AttendanceSummary getAttendanceSummary(LocalDate startDate, LocalDate endDate) {
+        return summarize(null, startDate, endDate);
+    }
+
+    /**
+     * Recompute the monthly rollup of the months between two dates, or of all attendance
+     * when no dates are given.
+     */
+    public RollupRebuildResult rebuildRollup(LocalDate startDate, LocalDate endDate) {
+        LocalDate firstMonth = startDate != null ? monthOf(startDate) : earliestMonth();
+        LocalDate lastMonth = endDate != null ? monthOf(endDate) : latestMonth();
+        if (firstMonth == null || lastMonth == null) {
+            return new RollupRebuildResult(null, null, 0);
+        }
+        if (lastMonth.isBefore(firstMonth)) {
+            throw new BusinessException("End date cannot be before start date");
+        }
+        // Archived months are no longer in the database; their buckets are kept as they are
+        LocalDate archivedThrough = getArchivedThrough();
+        if (archivedThrough != null && !firstMonth.isAfter(archivedThrough)) {
+            firstMonth = archivedThrough.plusDays(1);
+            if (lastMonth.isBefore(firstMonth)) {
+                return new RollupRebuildResult(null, null, 0);
+            }
+        }
+
+        // One statement per month keeps each rebuild step bounded
+        int months = 0;
+        for (LocalDate month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            attendanceRollupRepository.rebuild(null, month, month);
+            months++;
+        }
+        logger.info("Attendance rollup rebuilt for {} month(s) from {} to {}", months, firstMonth, lastMonth);
+        return new RollupRebuildResult(firstMonth, lastMonth, months);
+    }
+
+    /**
+     * Sum whole months from the rollup and count only the partial months at the edges of the
+     * range from attendance, so a summary costs about the same for a month or for years.
+     * Whole months without any rollup bucket (written before the rollup was filled, e.g. by an
+     * instance of an older version) are counted from attendance too, one query per run of
+     * such months.
+     */
+    private AttendanceSummary summarize(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new BusinessException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date cannot be before start date");
+        }
+
+        LocalDate firstFullMonth = startDate.getDayOfMonth() == 1 ? startDate : monthOf(startDate).plusMonths(1);
+        LocalDate afterLastFullMonth = monthOf(endDate.plusDays(1));
+        if (!firstFullMonth.isBefore(afterLastFullMonth)) {
+            return toSummary(countDays(employeeIds, startDate, endDate));
+        }
+
+        Map<LocalDate, DayTotals> months = attendanceRollupRepository.sumByMonth(employeeIds, firstFullMonth,
+                afterLastFullMonth.minusMonths(1));
+        DayTotals totals = new DayTotals(0, 0);
+        LocalDate missingFrom = null;
+        for (LocalDate month = firstFullMonth; month.isBefore(afterLastFullMonth); month = month.plusMonths(1)) {
+            DayTotals bucket = months.get(month);
+            if (bucket == null) {
+                missingFrom = missingFrom != null ? missingFrom : month;
+                continue;
+            }
+            totals = totals.plus(bucket);
+            if (missingFrom != null) {
+                totals = totals.plus(countDays(employeeIds, missingFrom, month.minusDays(1)));
+                missingFrom = null;
+            }
+        }
+        if (missingFrom != null) {
+            totals = totals.plus(countDays(employeeIds, missingFrom, afterLastFullMonth.minusDays(1)));
+        }
+        if (startDate.isBefore(firstFullMonth)) {
+            totals = totals.plus(countDays(employeeIds, startDate, firstFullMonth.minusDays(1)));
+        }
+        if (!endDate.isBefore(afterLastFullMonth)) {
+            totals = totals.plus(countDays(employeeIds, afterLastFullMonth, endDate));
+        }
+        return toSummary(totals);
+    }
+
+    /**
+     * Count days of a short range from attendance, reading archived years from the archive.
+     */
+    private DayTotals countDays(Collection<Long> employeeIds, LocalDate startDate, LocalDate endDate) {
+        LocalDate archivedThrough = getArchivedThrough();
+        if (archivedThrough == null || startDate.isAfter(archivedThrough)) {
+            return attendanceRollupRepository.countDays(employeeIds, startDate, endDate);
+        }
+        if (!endDate.isAfter(archivedThrough)) {
+            return attendanceArchiveRepository.countDays(employeeIds, startDate, endDate);
+        }
+        return attendanceArchiveRepository.countDays(employeeIds, startDate, archivedThrough)
+                .plus(attendanceRollupRepository.countDays(employeeIds, archivedThrough.plusDays(1), endDate));
+    }
 
-        return new AttendanceSummary(presentCount, leaveCount);
+    private LocalDate earliestMonth() {
+        LocalDate earliest = getEarliestAttendanceDate();
+        return earliest != null ? monthOf(earliest) : null;
     }
 
     /**
-     * Update attendance to LEAVE for an approved leave (called when leave starts).
+     * Last day served by the archive, or null when nothing is archived.
      */
-    public void markAsLeave(Long employeeId, LocalDate date, LeaveRequest leaveRequest) {
-        Attendance attendance = attendanceRepository
-                .findByEmployeeIdAndAttendanceDate(employeeId, date)
-                .orElse(null);
+    private LocalDate getArchivedThrough() {
+        Integer year = attendanceArchiveRepository.findLastArchivedYear();
+        return year != null ? LocalDate.of(year, 12, 31) : null;
+    }
 
-        if (attendance != null) {
-            attendance.setStatus(AttendanceStatus.LEAVE);
-            attendance.setLeaveRequest(leaveRequest);
-            attendanceRepository.save(attendance);
-            logger.info("Updated attendance to LEAVE for employee {} on {}", employeeId, date);
+    private void ensureNotArchived(LocalDate date) {
+        LocalDate archivedThrough = getArchivedThrough();
+        if (archivedThrough != null && !date.isAfter(archivedThrough)) {
+            throw new BusinessException("Attendance up to " + archivedThrough + " is archived and cannot be changed");
         }
     }
 
+    private LocalDate latestMonth() {
+        LocalDate rows = attendanceRepository.findLatestAttendanceDate();
+        LocalDate periods = attendancePeriodRepository.findLatestEndDate();
+        LocalDate latest = rows == null || (periods != null && periods.isAfter(rows)) ? periods : rows;
+        return latest != null ? monthOf(latest) : null;
+    }
+
+    private static LocalDate monthOf(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private static AttendanceSummary toSummary(DayTotals totals) {
+        return new AttendanceSummary(totals.presentDays(), totals.leaveDays());
+    }
+
+    /**
+     * Write LEAVE attendance for every day of an approved leave.
+     * Days that already have attendance, e.g. when a leave is approved after it started,
+     * are switched to LEAVE.
+     */
+    public void markAsLeave(LeaveRequest leaveRequest) {
+        ensureNotArchived(leaveRequest.getStartDate());
+        Long employeeId = leaveRequest.getEmployee().getId();
+        List<AttendanceRow> rows = leaveRequest.getStartDate()
+                .datesUntil(leaveRequest.getEndDate().plusDays(1))
+                .map(date -> new AttendanceRow(employeeId, date, AttendanceStatus.LEAVE, leaveRequest.getId()))
+                .collect(Collectors.toList());
+        attendanceBatchRepository.upsertAll(rows);
+        attendanceRollupRepository.rebuild(List.of(employeeId), monthOf(leaveRequest.getStartDate()),
+                monthOf(leaveRequest.getEndDate()));
+        eventPublisher.publishEvent(new AttendanceChangedEvent(List.of(employeeId),
+                leaveRequest.getStartDate(), leaveRequest.getEndDate()));
+        logger.info("Marked {} day(s) as LEAVE for employee {} from {} to {}",
+                rows.size(), employeeId, leaveRequest.getStartDate(), leaveRequest.getEndDate());
+    }
+
+    /**
+     * Remove the LEAVE attendance written for a leave (when it is cancelled).
+     */
+    public void clearLeave(LeaveRequest leaveRequest) {
+        ensureNotArchived(leaveRequest.getStartDate());
+        Long employeeId = leaveRequest.getEmployee().getId();
+        int deleted = attendanceRepository.deleteByLeaveRequestId(leaveRequest.getId());
+        attendanceRollupRepository.rebuild(List.of(employeeId), monthOf(leaveRequest.getStartDate()),
+                monthOf(leaveRequest.getEndDate()));
+        eventPublisher.publishEvent(new AttendanceChangedEvent(List.of(employeeId),
+                leaveRequest.getStartDate(), leaveRequest.getEndDate()));
+        logger.info("Removed {} LEAVE day(s) of leave request {}", deleted, leaveRequest.getId());
+    }
+
     /**
      * Map Attendance entity to DTO.
      */
@@ -193,6 +651,53 @@ public class AttendanceService {
                 .build();
     }
 
+    /**
+     * Map a stored or synthesized attendance day to DTO.
+     */
+    private AttendanceDto mapToDto(AttendanceDay day) {
+        return AttendanceDto.builder()
+                .id(day.id())
+                .employeeId(day.employeeId())
+                .employeeName(day.employeeName())
+                .employeeCode(day.employeeCode())
+                .attendanceDate(day.attendanceDate())
+                .status(day.status())
+                .leaveRequestId(day.leaveRequestId())
+                .createdAt(day.createdAt())
+                .build();
+    }
+
+    /**
+     * Map an archived attendance day to DTO.
+     */
+    private AttendanceDto mapToDto(Employee employee, AttendanceMark mark) {
+        return AttendanceDto.builder()
+                .employeeId(employee.getId())
+                .employeeName(employee.getName())
+                .employeeCode(employee.getEmployeeCode())
+                .attendanceDate(mark.attendanceDate())
+                .status(mark.status())
+                .build();
+    }
+
+    /**
+     * Result of generating one employee id range.
+     */
+    public record ChunkResult(int employees, int presentDays, int existingDays) {
+    }
+
+    /**
+     * Result of backfilling a date range.
+     */
+    public record BackfillResult(LocalDate startDate, LocalDate endDate, int presentDays) {
+    }
+
+    /**
+     * Result of rebuilding the monthly rollup.
+     */
+    public record RollupRebuildResult(LocalDate firstMonth, LocalDate lastMonth, int months) {
+    }
+
     /**
      * Inner class for attendance summary.
      */
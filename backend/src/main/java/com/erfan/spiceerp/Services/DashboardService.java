@@ -0,0 +1,158 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.DashboardDto;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Repos.DashboardRepository;
+import com.erfan.spiceerp.Repos.LeaveRequestRepository;
+import com.erfan.spiceerp.Services.AttendanceService.AttendanceSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Builds the admin dashboard from aggregate queries run in parallel on the dashboard pool.
+ * The result is kept for a short time (dashboard.cache.ttl); when it expires one request
+ * refreshes it and concurrent requests wait for that refresh instead of querying too.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    /**
+     * Aggregate queries of one refresh.
+     */
+    public static final int QUERIES = 5;
+
+    private final DashboardRepository dashboardRepository;
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final AttendanceService attendanceService;
+    private final TaskExecutor dashboardExecutor;
+    private final long ttlNanos;
+    private final int recentRequests;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<DashboardDto>> refreshing = new AtomicReference<>();
+
+    public DashboardService(DashboardRepository dashboardRepository,
+            LeaveRequestRepository leaveRequestRepository,
+            AttendanceService attendanceService,
+            @Qualifier("dashboardExecutor") TaskExecutor dashboardExecutor,
+            @Value("${dashboard.cache.ttl:PT5S}") Duration ttl,
+            @Value("${dashboard.recent-requests:10}") int recentRequests) {
+        this.dashboardRepository = dashboardRepository;
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.attendanceService = attendanceService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.ttlNanos = ttl.toNanos();
+        this.recentRequests = recentRequests;
+    }
+
+    /**
+     * Get the dashboard, at most dashboard.cache.ttl old.
+     */
+    public DashboardDto getDashboard() {
+        Snapshot current = snapshot.get();
+        if (current != null && current.isFresh()) {
+            return current.dashboard();
+        }
+        return await(refresh());
+    }
+
+    /**
+     * Refresh the dashboard, or join the refresh already in progress.
+     */
+    private CompletableFuture<DashboardDto> refresh() {
+        CompletableFuture<DashboardDto> refresh = new CompletableFuture<>();
+        CompletableFuture<DashboardDto> inProgress = refreshing.compareAndExchange(null, refresh);
+        if (inProgress != null) {
+            return inProgress;
+        }
+        try {
+            // A refresh may have completed between the freshness check and claiming this one
+            Snapshot current = snapshot.get();
+            if (current != null && current.isFresh()) {
+                refresh.complete(current.dashboard());
+            } else {
+                DashboardDto dashboard = load();
+                snapshot.set(new Snapshot(dashboard, System.nanoTime() + ttlNanos));
+                refresh.complete(dashboard);
+            }
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+        } finally {
+            refreshing.set(null);
+        }
+        return refresh;
+    }
+
+    private DashboardDto load() {
+        long startNanos = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(DayOfWeek.MONDAY);
+        LocalDate weekEnd = weekStart.plusDays(6);
+
+        CompletableFuture<Map<Status, Long>> headcount = query(dashboardRepository::countEmployeesByStatus);
+        CompletableFuture<AttendanceSummary> todaySummary = query(
+                () -> attendanceService.getAttendanceSummary(today, today));
+        CompletableFuture<Long> pending = query(() -> leaveRequestRepository.countByStatus(LeaveStatus.PENDING));
+        CompletableFuture<List<DashboardDto.Leave>> onLeaveThisWeek = query(
+                () -> dashboardRepository.findLeavesOverlapping(LeaveStatus.APPROVED, weekStart, weekEnd));
+        CompletableFuture<List<DashboardDto.Leave>> recent = query(
+                () -> dashboardRepository.findRecentLeaveRequests(recentRequests));
+
+        DashboardDto dashboard = DashboardDto.builder()
+                .date(today)
+                .generatedAt(LocalDateTime.now())
+                .headcountByStatus(await(headcount))
+                .presentToday(await(todaySummary).presentDays())
+                .onLeaveToday(await(todaySummary).leaveDays())
+                .pendingLeaveRequests(await(pending))
+                .weekStart(weekStart)
+                .weekEnd(weekEnd)
+                .onLeaveThisWeek(await(onLeaveThisWeek))
+                .recentRequests(await(recent))
+                .build();
+        logger.debug("Dashboard refreshed in {} ms", (System.nanoTime() - startNanos) / 1_000_000);
+        return dashboard;
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, dashboardExecutor);
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A dashboard and when it expires (System.nanoTime).
+     */
+    private record Snapshot(DashboardDto dashboard, long expiresAtNanos) {
+        boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.erfan.spiceerp.Services;
+
+/**
+ * Published by EmployeeService when an employee's details are updated or the employee is
+ * removed, so caches holding the employee's name or code can drop them.
+ */
+public record EmployeeChangedEvent(Long employeeId) {
+}
@@ -1,19 +1,29 @@
 package com.erfan.spiceerp.Services;
 
+import com.erfan.spiceerp.Dto.CursorPageDto;
 import com.erfan.spiceerp.Dto.EmployeeDto;
 import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.PageCount;
 import com.erfan.spiceerp.Enums.Status;
 import com.erfan.spiceerp.Enums.UserType;
+import com.erfan.spiceerp.Exception.BusinessException;
 import com.erfan.spiceerp.Exception.DuplicateResourceException;
 import com.erfan.spiceerp.Exception.ResourceNotFoundException;
 import com.erfan.spiceerp.Models.Employee;
 import com.erfan.spiceerp.Models.LeaveBalance;
 import com.erfan.spiceerp.Repos.EmployeeRepository;
 import com.erfan.spiceerp.Repos.LeaveBalanceRepository;
+import com.erfan.spiceerp.Repos.RowEstimateRepository;
+import com.erfan.spiceerp.Repos.SparseListRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,7 +31,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.Year;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing Employee CRUD operations.
@@ -40,13 +54,25 @@ public class EmployeeService {
     private final EmployeeRepository employeeRepository;
     private final LeaveBalanceRepository leaveBalanceRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RowEstimateRepository rowEstimateRepository;
+    private final SparseListRepository sparseListRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EmployeeService(EmployeeRepository employeeRepository,
             LeaveBalanceRepository leaveBalanceRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            RowEstimateRepository rowEstimateRepository,
+            SparseListRepository sparseListRepository,
+            EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
         this.leaveBalanceRepository = leaveBalanceRepository;
         this.passwordEncoder = passwordEncoder;
+        this.rowEstimateRepository = rowEstimateRepository;
+        this.sparseListRepository = sparseListRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -123,6 +149,29 @@ public class EmployeeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get all employees, by id, with only the requested EmployeeDto fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllEmployees(String fields) {
+        return sparseListRepository.findEmployees(FieldSet.parse(fields), null, null);
+    }
+
+    /**
+     * Pass every employee to the consumer, by id, one at a time as they are read from a
+     * database cursor. Each employee is detached once mapped, so the persistence context does
+     * not grow with the number of employees.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllEmployees(Consumer<EmployeeDto> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                consumer.accept(mapToDto(employee));
+                entityManager.detach(employee);
+            });
+        }
+    }
+
     /**
      * Get all active employees.
      */
@@ -134,11 +183,44 @@ public class EmployeeService {
     }
 
     /**
-     * Get employees with pagination.
+     * Get all active employees, by id, with only the requested EmployeeDto fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllActiveEmployees(String fields) {
+        return sparseListRepository.findEmployees(FieldSet.parse(fields), Status.ACTIVE, null);
+    }
+
+    /**
+     * Get a slice of employees after a cursor (keyset pagination), newest first (sort "id")
+     * or by name (sort "name"). Totals are only computed when asked for.
      */
     @Transactional(readOnly = true)
-    public Page<EmployeeDto> getEmployees(Pageable pageable) {
-        return employeeRepository.findAll(pageable).map(this::mapToDto);
+    public CursorPageDto<EmployeeDto> getEmployees(String cursor, int size, String sort, PageCount count) {
+        PageCursor.validateSize(size);
+        Slice<Employee> slice;
+        Function<Employee, String> cursorOf;
+        if ("id".equals(sort)) {
+            String[] after = PageCursor.decode(cursor, sort, 1);
+            Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+            slice = after == null
+                    ? employeeRepository.findSlice(pageable)
+                    : employeeRepository.findSliceBeforeId(PageCursor.key(after[0], Long::valueOf), pageable);
+            cursorOf = employee -> PageCursor.encode(sort, employee.getId());
+        } else if ("name".equals(sort)) {
+            String[] after = PageCursor.decode(cursor, sort, 2);
+            Pageable pageable = PageRequest.of(0, size, Sort.by("name", "id"));
+            slice = after == null
+                    ? employeeRepository.findSlice(pageable)
+                    : employeeRepository.findSliceAfterName(after[0], PageCursor.key(after[1], Long::valueOf),
+                            pageable);
+            cursorOf = employee -> PageCursor.encode(sort, employee.getName(), employee.getId());
+        } else {
+            throw new BusinessException("Cannot page employees by " + sort);
+        }
+
+        Long total = count == PageCount.EXACT ? employeeRepository.count() : null;
+        Long estimate = count == PageCount.ESTIMATED ? rowEstimateRepository.estimateEmployees() : null;
+        return PageCursor.toPage(slice, this::mapToDto, cursorOf, total, estimate);
     }
 
     /**
@@ -159,6 +241,14 @@ public class EmployeeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search employees by name or employee code, with only the requested EmployeeDto fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchEmployees(String search, String fields) {
+        return sparseListRepository.findEmployees(FieldSet.parse(fields), null, search);
+    }
+
     /**
      * Update an existing employee.
      */
@@ -210,6 +300,7 @@ public class EmployeeService {
         }
 
         Employee updatedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id));
         logger.info("Employee updated successfully with ID: {}", updatedEmployee.getId());
 
         return mapToDto(updatedEmployee);
@@ -242,6 +333,7 @@ public class EmployeeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", id));
 
         employeeRepository.delete(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id));
 
         logger.info("Employee permanently deleted with ID: {}", id);
     }
@@ -0,0 +1,228 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.erfan.spiceerp.Models.Employee;
+import com.erfan.spiceerp.Repos.AttendanceArchiveRepository;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceMark;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import com.erfan.spiceerp.Repos.ExportRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams attendance, leave requests and leave balances as CSV.
+ * Rows go from a database cursor straight to the output stream, so memory use does not depend
+ * on the size of the export. Attendance in archived years is read from the archive a month at
+ * a time, ahead of the days still in the database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] ATTENDANCE_HEADER = { "date", "employee_code", "employee_name", "department",
+            "status" };
+    private static final String[] LEAVE_REQUEST_HEADER = { "id", "employee_code", "employee_name", "department",
+            "leave_type", "start_date", "end_date", "total_days", "status", "applied_at", "reviewed_by",
+            "reviewed_at", "reason", "rejection_reason" };
+    private static final String[] LEAVE_BALANCE_HEADER = { "year", "employee_code", "employee_name", "department",
+            "leave_type", "total", "used", "remaining" };
+
+    private final ExportRepository exportRepository;
+    private final AttendanceArchiveRepository attendanceArchiveRepository;
+    private final EmployeeRepository employeeRepository;
+
+    public ExportService(ExportRepository exportRepository,
+            AttendanceArchiveRepository attendanceArchiveRepository,
+            EmployeeRepository employeeRepository) {
+        this.exportRepository = exportRepository;
+        this.attendanceArchiveRepository = attendanceArchiveRepository;
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Check an export date range before the response is committed; either end may be null.
+     */
+    public void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
+            throw new BusinessException("End date cannot be before start date");
+        }
+    }
+
+    /**
+     * Write the attendance days in a date range as CSV, by date and employee.
+     * Returns the number of rows written.
+     */
+    public long exportAttendance(LocalDate startDate, LocalDate endDate, String department,
+            AttendanceStatus status, OutputStream out) throws IOException {
+        validateRange(startDate, endDate);
+        CSVPrinter printer = printer(out, ATTENDANCE_HEADER);
+        long[] rows = { 0 };
+
+        LocalDate liveStart = startDate;
+        Integer lastArchivedYear = attendanceArchiveRepository.findLastArchivedYear();
+        if (lastArchivedYear != null && startDate.getYear() <= lastArchivedYear) {
+            LocalDate archivedThrough = LocalDate.of(lastArchivedYear, 12, 31);
+            LocalDate archivedEnd = endDate.isAfter(archivedThrough) ? archivedThrough : endDate;
+            rows[0] += exportArchivedAttendance(startDate, archivedEnd, department, status, printer);
+            liveStart = archivedThrough.plusDays(1);
+        }
+
+        if (!liveStart.isAfter(endDate)) {
+            exportRepository.streamAttendance(liveStart, endDate, department, status,
+                    row(printer, rows, rs -> new Object[] {
+                            rs.getObject("attendance_date", LocalDate.class),
+                            rs.getString("employee_code"),
+                            rs.getString("employee_name"),
+                            rs.getString("department"),
+                            rs.getString("status") }));
+        }
+        printer.flush();
+        logger.info("Exported {} attendance row(s) from {} to {}", rows[0], startDate, endDate);
+        return rows[0];
+    }
+
+    /**
+     * Write the leave requests overlapping a date range (either end may be null) as CSV, oldest first.
+     * Returns the number of rows written.
+     */
+    public long exportLeaveRequests(LocalDate startDate, LocalDate endDate, String department,
+            LeaveStatus status, LeaveType leaveType, OutputStream out) throws IOException {
+        validateRange(startDate, endDate);
+        CSVPrinter printer = printer(out, LEAVE_REQUEST_HEADER);
+        long[] rows = { 0 };
+        exportRepository.streamLeaveRequests(startDate, endDate, department, status, leaveType,
+                row(printer, rows, rs -> new Object[] {
+                        rs.getLong("id"),
+                        rs.getString("employee_code"),
+                        rs.getString("employee_name"),
+                        rs.getString("department"),
+                        rs.getString("leave_type"),
+                        rs.getObject("start_date", LocalDate.class),
+                        rs.getObject("end_date", LocalDate.class),
+                        rs.getInt("total_days"),
+                        rs.getString("status"),
+                        rs.getObject("applied_at", LocalDateTime.class),
+                        rs.getString("reviewed_by"),
+                        rs.getObject("reviewed_at", LocalDateTime.class),
+                        rs.getString("reason"),
+                        rs.getString("rejection_reason") }));
+        printer.flush();
+        logger.info("Exported {} leave request row(s)", rows[0]);
+        return rows[0];
+    }
+
+    /**
+     * Write the leave balances, optionally of one year, as CSV. The status filter is the employee's status.
+     * Returns the number of rows written.
+     */
+    public long exportLeaveBalances(Integer year, String department, Status employeeStatus, LeaveType leaveType,
+            OutputStream out) throws IOException {
+        CSVPrinter printer = printer(out, LEAVE_BALANCE_HEADER);
+        long[] rows = { 0 };
+        exportRepository.streamLeaveBalances(year, department, employeeStatus, leaveType,
+                row(printer, rows, rs -> new Object[] {
+                        rs.getInt("year"),
+                        rs.getString("employee_code"),
+                        rs.getString("employee_name"),
+                        rs.getString("department"),
+                        rs.getString("leave_type"),
+                        rs.getInt("total"),
+                        rs.getInt("used"),
+                        rs.getInt("remaining") }));
+        printer.flush();
+        logger.info("Exported {} leave balance row(s)", rows[0]);
+        return rows[0];
+    }
+
+    /**
+     * Write archived attendance a month at a time, so at most one month of the selected
+     * employees is held in memory.
+     */
+    private long exportArchivedAttendance(LocalDate startDate, LocalDate endDate, String department,
+            AttendanceStatus status, CSVPrinter printer) throws IOException {
+        List<Employee> employees = department != null
+                ? employeeRepository.findByDepartment(department)
+                : employeeRepository.findAll(Sort.by("id"));
+        if (employees.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Employee> byId = employees.stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        long rows = 0;
+        for (LocalDate monthStart = startDate; !monthStart.isAfter(endDate);
+                monthStart = monthStart.withDayOfMonth(1).plusMonths(1)) {
+            LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+            List<AttendanceMark> marks = new ArrayList<>(attendanceArchiveRepository.findMarks(byId.keySet(),
+                    monthStart, monthEnd.isAfter(endDate) ? endDate : monthEnd));
+            marks.sort(Comparator.comparing(AttendanceMark::attendanceDate)
+                    .thenComparing(AttendanceMark::employeeId));
+            for (AttendanceMark mark : marks) {
+                if (status != null && mark.status() != status) {
+                    continue;
+                }
+                Employee employee = byId.get(mark.employeeId());
+                printer.printRecord(mark.attendanceDate(), employee.getEmployeeCode(), employee.getName(),
+                        employee.getDepartment(), mark.status());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static CSVPrinter printer(OutputStream out, String[] header) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        return new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(header).build());
+    }
+
+    /**
+     * Row callback printing each row as one CSV record; nulls are written as empty fields.
+     */
+    private static RowCallbackHandler row(CSVPrinter printer, long[] rows, RecordReader reader) {
+        return rs -> {
+            try {
+                printer.printRecord(reader.read(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        };
+    }
+
+    @FunctionalInterface
+    private interface RecordReader {
+        Object[] read(ResultSet rs) throws SQLException;
+    }
+}
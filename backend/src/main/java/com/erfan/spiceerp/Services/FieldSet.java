@@ -0,0 +1,33 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Exception.BusinessException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Parses the fields= parameter of list endpoints: a comma-separated list of DTO field names.
+ */
+public final class FieldSet {
+
+    private FieldSet() {
+    }
+
+    /**
+     * Parse a comma-separated field list; blanks around names are ignored.
+     */
+    public static Set<String> parse(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                if (!field.isBlank()) {
+                    parsed.add(field.trim());
+                }
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new BusinessException("At least one field must be requested");
+        }
+        return parsed;
+    }
+}
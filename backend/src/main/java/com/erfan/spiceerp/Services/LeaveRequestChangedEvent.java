@@ -0,0 +1,14 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.LeaveStatus;
+
+/**
+ * Published by LeaveService when a leave request is created or changes status, with the
+ * status it had before (null when created) and its new status.
+ */
+public record LeaveRequestChangedEvent(Long leaveRequestId, LeaveStatus previousStatus, LeaveStatus status) {
+
+    public boolean affectsPending() {
+        return previousStatus == LeaveStatus.PENDING || status == LeaveStatus.PENDING;
+    }
+}
@@ -1,9 +1,11 @@
 package com.erfan.spiceerp.Services;
 
+import com.erfan.spiceerp.Dto.CursorPageDto;
 import com.erfan.spiceerp.Dto.LeaveBalanceDto;
 import com.erfan.spiceerp.Dto.LeaveRequestDto;
 import com.erfan.spiceerp.Enums.LeaveStatus;
 import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.PageCount;
 import com.erfan.spiceerp.Exception.BusinessException;
 import com.erfan.spiceerp.Exception.InsufficientBalanceException;
 import com.erfan.spiceerp.Exception.ResourceNotFoundException;
@@ -15,19 +17,33 @@ import com.erfan.spiceerp.Models.User;
 import com.erfan.spiceerp.Repos.EmployeeRepository;
 import com.erfan.spiceerp.Repos.LeaveBalanceRepository;
 import com.erfan.spiceerp.Repos.LeaveRequestRepository;
+import com.erfan.spiceerp.Repos.RowEstimateRepository;
+import com.erfan.spiceerp.Repos.SparseListRepository;
 import com.erfan.spiceerp.Repos.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing leave requests and leave balances.
@@ -38,19 +54,40 @@ public class LeaveService {
 
     private static final Logger logger = LoggerFactory.getLogger(LeaveService.class);
 
+    private static final String PENDING_SORT = "appliedAt";
+
     private final LeaveRequestRepository leaveRequestRepository;
     private final LeaveBalanceRepository leaveBalanceRepository;
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
+    private final AttendanceService attendanceService;
+    private final RowEstimateRepository rowEstimateRepository;
+    private final SparseListRepository sparseListRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadThroughCache<Boolean, List<LeaveRequestDto>> pendingLeaveRequestsCache;
 
     public LeaveService(LeaveRequestRepository leaveRequestRepository,
             LeaveBalanceRepository leaveBalanceRepository,
             EmployeeRepository employeeRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            AttendanceService attendanceService,
+            RowEstimateRepository rowEstimateRepository,
+            SparseListRepository sparseListRepository,
+            EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("pendingLeaveRequestsCache")
+            ReadThroughCache<Boolean, List<LeaveRequestDto>> pendingLeaveRequestsCache) {
         this.leaveRequestRepository = leaveRequestRepository;
         this.leaveBalanceRepository = leaveBalanceRepository;
         this.employeeRepository = employeeRepository;
         this.userRepository = userRepository;
+        this.attendanceService = attendanceService;
+        this.rowEstimateRepository = rowEstimateRepository;
+        this.sparseListRepository = sparseListRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.pendingLeaveRequestsCache = pendingLeaveRequestsCache;
     }
 
     /**
@@ -66,9 +103,9 @@ public class LeaveService {
         // Validate dates
         validateLeaveDates(leaveRequestDto.getStartDate(), leaveRequestDto.getEndDate());
 
-        // Check for overlapping approved leaves
+        // Check for overlapping approved leaves (approval enforces this again atomically)
         if (leaveRequestRepository.hasOverlappingApprovedLeave(
-                employeeId, leaveRequestDto.getStartDate(), leaveRequestDto.getEndDate(), null, LeaveStatus.APPROVED)) {
+                employeeId, leaveRequestDto.getStartDate(), leaveRequestDto.getEndDate())) {
             throw new BusinessException("Leave request overlaps with another approved leave");
         }
 
@@ -100,6 +137,7 @@ public class LeaveService {
                 .build();
 
         LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        eventPublisher.publishEvent(new LeaveRequestChangedEvent(savedRequest.getId(), null, LeaveStatus.PENDING));
         logger.info("Leave request created with ID: {}", savedRequest.getId());
 
         return mapToDto(savedRequest);
@@ -107,6 +145,7 @@ public class LeaveService {
 
     /**
      * Approve leave request (by admin).
+     * Writes LEAVE attendance for the whole leave and deducts its days from the balance.
      */
     public LeaveRequestDto approveLeave(Long leaveRequestId, Long adminId) {
         logger.info("Admin {} approving leave request {}", adminId, leaveRequestId);
@@ -121,22 +160,24 @@ public class LeaveService {
         User admin = userRepository.findById(adminId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", adminId));
 
-        // Check for overlapping approved leaves again (in case another was approved
-        // meantime)
+        // Approvals of one employee queue on the employee row, so the checks below see every
+        // approval committed before ours; the V7 exclusion constraint rejects an overlap as well.
+        Long employeeId = leaveRequest.getEmployee().getId();
+        employeeRepository.findByIdForUpdate(employeeId);
+        entityManager.refresh(leaveRequest);
+        if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
+            throw new BusinessException("Only pending leave requests can be approved");
+        }
         if (leaveRequestRepository.hasOverlappingApprovedLeave(
-                leaveRequest.getEmployee().getId(),
-                leaveRequest.getStartDate(),
-                leaveRequest.getEndDate(),
-                leaveRequestId,
-                LeaveStatus.APPROVED)) {
+                employeeId, leaveRequest.getStartDate(), leaveRequest.getEndDate())) {
             throw new BusinessException("This leave overlaps with another approved leave");
         }
 
-        leaveRequest.setStatus(LeaveStatus.APPROVED);
-        leaveRequest.setReviewedBy(admin);
-        leaveRequest.setReviewedAt(LocalDateTime.now());
-
-        LeaveRequest updatedRequest = leaveRequestRepository.save(leaveRequest);
+        LeaveRequest updatedRequest = review(leaveRequest, LeaveStatus.APPROVED, admin, null, "approved");
+        deductLeaveDays(updatedRequest);
+        attendanceService.markAsLeave(updatedRequest);
+        eventPublisher.publishEvent(
+                new LeaveRequestChangedEvent(leaveRequestId, LeaveStatus.PENDING, LeaveStatus.APPROVED));
         logger.info("Leave request {} approved by admin {}", leaveRequestId, adminId);
 
         return mapToDto(updatedRequest);
@@ -158,20 +199,42 @@ public class LeaveService {
         User admin = userRepository.findById(adminId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", adminId));
 
-        leaveRequest.setStatus(LeaveStatus.REJECTED);
-        leaveRequest.setReviewedBy(admin);
-        leaveRequest.setReviewedAt(LocalDateTime.now());
-        leaveRequest.setRejectionReason(rejectionReason);
-
-        LeaveRequest updatedRequest = leaveRequestRepository.save(leaveRequest);
+        LeaveRequest updatedRequest = review(leaveRequest, LeaveStatus.REJECTED, admin, rejectionReason, "rejected");
+        eventPublisher.publishEvent(
+                new LeaveRequestChangedEvent(leaveRequestId, LeaveStatus.PENDING, LeaveStatus.REJECTED));
         logger.info("Leave request {} rejected by admin {}", leaveRequestId, adminId);
 
         return mapToDto(updatedRequest);
     }
 
+    /**
+     * Move a pending leave request to a reviewed status, unless another admin reviewed it
+     * meantime, and reload it.
+     */
+    private LeaveRequest review(LeaveRequest leaveRequest, LeaveStatus status, User admin, String rejectionReason,
+            String action) {
+        int updated;
+        try {
+            updated = leaveRequestRepository.reviewPending(leaveRequest.getId(), LeaveStatus.PENDING, status, admin,
+                    LocalDateTime.now(), rejectionReason);
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage())
+                    .contains(LeaveRequest.APPROVED_OVERLAP_CONSTRAINT)) {
+                throw new BusinessException("This leave overlaps with another approved leave");
+            }
+            throw e;
+        }
+        if (updated == 0) {
+            throw new BusinessException("Only pending leave requests can be " + action);
+        }
+        entityManager.refresh(leaveRequest);
+        return leaveRequest;
+    }
+
     /**
      * Cancel leave request (by employee).
-     * Only allowed if leave hasn't started yet.
+     * Only allowed if leave hasn't started yet. Cancelling an approved leave removes
+     * its LEAVE attendance and gives the days back to the balance.
      */
     public LeaveRequestDto cancelLeave(Long leaveRequestId, Long employeeId) {
         logger.info("Employee {} cancelling leave request {}", employeeId, leaveRequestId);
@@ -196,9 +259,16 @@ public class LeaveService {
             throw new BusinessException("Cannot cancel leave that has already started or started today");
         }
 
+        LeaveStatus previousStatus = leaveRequest.getStatus();
+        if (previousStatus == LeaveStatus.APPROVED) {
+            attendanceService.clearLeave(leaveRequest);
+            restoreLeaveDays(leaveRequest);
+        }
         leaveRequest.setStatus(LeaveStatus.CANCELLED);
 
         LeaveRequest updatedRequest = leaveRequestRepository.save(leaveRequest);
+        eventPublisher.publishEvent(
+                new LeaveRequestChangedEvent(leaveRequestId, previousStatus, LeaveStatus.CANCELLED));
         logger.info("Leave request {} cancelled by employee {}", leaveRequestId, employeeId);
 
         return mapToDto(updatedRequest);
@@ -225,13 +295,34 @@ public class LeaveService {
     }
 
     /**
-     * Get all pending leave requests (for admin).
+     * Get all leave requests for an employee, latest first, with only the requested
+     * LeaveRequestDto fields.
      */
     @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLeaveRequestsByEmployee(Long employeeId, String fields) {
+        return sparseListRepository.findLeaveRequests(FieldSet.parse(fields), null, employeeId);
+    }
+
+    /**
+     * Get all pending leave requests (for admin), through the pending leave requests cache.
+     * Runs without a transaction of its own, so callers waiting for another caller's load do
+     * not hold a connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<LeaveRequestDto> getPendingLeaveRequests() {
-        return leaveRequestRepository.findByStatusOrderByAppliedAtAsc(LeaveStatus.PENDING).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return pendingLeaveRequestsCache.get(Boolean.TRUE,
+                () -> leaveRequestRepository.findByStatusOrderByAppliedAtAsc(LeaveStatus.PENDING).stream()
+                        .map(this::mapToDto)
+                        .collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * Get all pending leave requests, oldest first, with only the requested LeaveRequestDto
+     * fields (for admin).
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPendingLeaveRequests(String fields) {
+        return sparseListRepository.findLeaveRequests(FieldSet.parse(fields), LeaveStatus.PENDING, null);
     }
 
     /**
@@ -243,6 +334,29 @@ public class LeaveService {
                 .map(this::mapToDto);
     }
 
+    /**
+     * Get a slice of pending leave requests after a cursor (keyset pagination), oldest first.
+     * Totals are only computed when asked for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<LeaveRequestDto> getPendingLeaveRequests(String cursor, int size, PageCount count) {
+        PageCursor.validateSize(size);
+        String[] after = PageCursor.decode(cursor, PENDING_SORT, 2);
+        Pageable pageable = PageRequest.of(0, size, Sort.by("appliedAt", "id"));
+        Slice<LeaveRequest> slice = after == null
+                ? leaveRequestRepository.findSliceByStatus(LeaveStatus.PENDING, pageable)
+                : leaveRequestRepository.findSliceByStatusAfter(LeaveStatus.PENDING,
+                        PageCursor.key(after[0], LocalDateTime::parse), PageCursor.key(after[1], Long::valueOf),
+                        pageable);
+
+        Long total = count == PageCount.EXACT ? leaveRequestRepository.countByStatus(LeaveStatus.PENDING) : null;
+        Long estimate = count == PageCount.ESTIMATED
+                ? rowEstimateRepository.estimateLeaveRequests(LeaveStatus.PENDING)
+                : null;
+        return PageCursor.toPage(slice, this::mapToDto,
+                leave -> PageCursor.encode(PENDING_SORT, leave.getAppliedAt(), leave.getId()), total, estimate);
+    }
+
     /**
      * Get all leave requests (for admin).
      */
@@ -253,6 +367,30 @@ public class LeaveService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get all leave requests, by id, with only the requested LeaveRequestDto fields (for
+     * admin).
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllLeaveRequests(String fields) {
+        return sparseListRepository.findLeaveRequests(FieldSet.parse(fields), null, null);
+    }
+
+    /**
+     * Pass every leave request to the consumer, by id, one at a time as they are read from a
+     * database cursor (for admin). Each request is detached once mapped; employees and
+     * reviewers stay in the persistence context, as they are shared between requests.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllLeaveRequests(Consumer<LeaveRequestDto> consumer) {
+        try (Stream<LeaveRequest> leaves = leaveRequestRepository.streamAll()) {
+            leaves.forEach(leave -> {
+                consumer.accept(mapToDto(leave));
+                entityManager.detach(leave);
+            });
+        }
+    }
+
     /**
      * Get leave balances for an employee.
      */
@@ -277,24 +415,54 @@ public class LeaveService {
     }
 
     /**
-     * Deduct leave balance for a specific day (called by scheduler).
+     * Deduct the days of an approved leave, one update per calendar year it covers.
+     * Fails the approval when a balance no longer covers its days (another leave may have been
+     * approved since this one was applied for), so a cancellation can give back exactly the
+     * days deducted here. LOP only tracks usage.
      */
-    public void deductLeaveBalance(Long employeeId, LeaveType leaveType, int days) {
-        int currentYear = Year.now().getValue();
-
-        // LOP doesn't require actual deduction - just track usage
-        LeaveBalance balance = leaveBalanceRepository
-                .findByEmployeeIdAndLeaveTypeAndYear(employeeId, leaveType, currentYear)
-                .orElse(null);
+    private void deductLeaveDays(LeaveRequest leaveRequest) {
+        Long employeeId = leaveRequest.getEmployee().getId();
+        LeaveType leaveType = leaveRequest.getLeaveType();
+        daysPerYear(leaveRequest).forEach((year, days) -> {
+            if (leaveType == LeaveType.LOP) {
+                leaveBalanceRepository.trackLeaveUsage(List.of(employeeId), LeaveType.LOP, year, days);
+            } else if (leaveBalanceRepository.deductLeaveBalance(employeeId, leaveType, year, days) == 0) {
+                // Years without a balance are not tracked, and restoring them changes nothing either
+                leaveBalanceRepository.findByEmployeeIdAndLeaveTypeAndYear(employeeId, leaveType, year)
+                        .ifPresent(balance -> {
+                            throw new InsufficientBalanceException(leaveType.name(), days, balance.getRemaining());
+                        });
+            }
+        });
+        logger.info("Deducted {} {} day(s) for employee {}", leaveRequest.getTotalDays(),
+                leaveRequest.getLeaveType(), employeeId);
+    }
 
-        if (balance != null) {
-            balance.setUsed(balance.getUsed() + days);
-            if (leaveType != LeaveType.LOP) {
-                balance.setRemaining(Math.max(0, balance.getRemaining() - days));
+    /**
+     * Give the days of a cancelled approved leave back to the balance, as deducted on approval.
+     */
+    private void restoreLeaveDays(LeaveRequest leaveRequest) {
+        Long employeeId = leaveRequest.getEmployee().getId();
+        daysPerYear(leaveRequest).forEach((year, days) -> {
+            if (leaveRequest.getLeaveType() == LeaveType.LOP) {
+                // LOP only tracked usage, so only usage is given back
+                leaveBalanceRepository.trackLeaveUsage(List.of(employeeId), LeaveType.LOP, year, -days);
+            } else {
+                leaveBalanceRepository.restoreLeaveBalance(employeeId, leaveRequest.getLeaveType(), year, days);
             }
-            leaveBalanceRepository.save(balance);
-            logger.info("Deducted {} {} day(s) for employee {}", days, leaveType, employeeId);
-        }
+        });
+        logger.info("Restored {} {} day(s) for employee {}", leaveRequest.getTotalDays(),
+                leaveRequest.getLeaveType(), employeeId);
+    }
+
+    /**
+     * Split the days of a leave by calendar year, since balances are kept per year.
+     */
+    private Map<Integer, Integer> daysPerYear(LeaveRequest leaveRequest) {
+        return leaveRequest.getStartDate()
+                .datesUntil(leaveRequest.getEndDate().plusDays(1))
+                .collect(Collectors.groupingBy(LocalDate::getYear, TreeMap::new,
+                        Collectors.summingInt(date -> 1)));
     }
 
     /**
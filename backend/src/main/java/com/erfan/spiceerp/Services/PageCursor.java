@@ -0,0 +1,94 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.CursorPageDto;
+import com.erfan.spiceerp.Exception.BusinessException;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation tokens for keyset pagination.
+ * A cursor holds the sort it was issued for and the (sort key, id) of the last row returned;
+ * the next slice starts right after that row instead of skipping an offset.
+ */
+public final class PageCursor {
+
+    public static final int MAX_SIZE = 100;
+
+    private static final char SEPARATOR = '\u001F';
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encode the position after a row: the sort name followed by the row's keys.
+     */
+    public static String encode(String sort, Object... keys) {
+        StringBuilder cursor = new StringBuilder(sort);
+        for (Object key : keys) {
+            cursor.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode the keys of a cursor issued for a sort, or null for the first slice.
+     */
+    public static String[] decode(String cursor, String sort, int keys) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid page cursor");
+        }
+        if (parts.length != keys + 1 || !parts[0].equals(sort)) {
+            throw new BusinessException("Invalid page cursor for sort " + sort);
+        }
+        return Arrays.copyOfRange(parts, 1, parts.length);
+    }
+
+    /**
+     * Parse one key of a decoded cursor.
+     */
+    public static <K> K key(String value, Function<String, K> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Check a requested slice size.
+     */
+    public static void validateSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_SIZE);
+        }
+    }
+
+    /**
+     * Build the response for a slice, with the cursor of its last row when more rows follow.
+     */
+    public static <E, D> CursorPageDto<D> toPage(Slice<E> slice, Function<E, D> mapper,
+            Function<E, String> cursorOf, Long totalElements, Long estimatedTotal) {
+        List<E> rows = slice.getContent();
+        return CursorPageDto.<D>builder()
+                .content(rows.stream().map(mapper).toList())
+                .size(rows.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? cursorOf.apply(rows.get(rows.size() - 1)) : null)
+                .totalElements(totalElements)
+                .estimatedTotal(estimatedTotal)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Dto.LeaveRequestDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Drops the entries of the read-through caches a committed write made stale.
+ * Runs after commit, so a load started after the invalidation reads the write.
+ */
+@Service
+public class ReadCacheInvalidator {
+
+    private final ReadThroughCache<LocalDate, List<AttendanceDto>> attendanceByDateCache;
+    private final ReadThroughCache<Boolean, List<LeaveRequestDto>> pendingLeaveRequestsCache;
+
+    public ReadCacheInvalidator(
+            @Qualifier("attendanceByDateCache") ReadThroughCache<LocalDate, List<AttendanceDto>> attendanceByDateCache,
+            @Qualifier("pendingLeaveRequestsCache")
+            ReadThroughCache<Boolean, List<LeaveRequestDto>> pendingLeaveRequestsCache) {
+        this.attendanceByDateCache = attendanceByDateCache;
+        this.pendingLeaveRequestsCache = pendingLeaveRequestsCache;
+    }
+
+    /**
+     * Generation, leave approval and cancellation: drop the dates written.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        attendanceByDateCache.invalidateIf(
+                date -> !date.isBefore(event.startDate()) && !date.isAfter(event.endDate()));
+    }
+
+    /**
+     * Leave requests applied for, reviewed or cancelled: drop the pending list when it changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+        if (event.affectsPending()) {
+            pendingLeaveRequestsCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Employee names and codes appear in both lists.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        attendanceByDateCache.invalidateAll();
+        pendingLeaveRequestsCache.invalidateAll();
+    }
+}
@@ -0,0 +1,196 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of service results by key.
+ * A miss is loaded by the first caller while concurrent callers for the same key wait for
+ * that load instead of running it too. Loaded values expire after the configured time and,
+ * past the configured number of entries, the least recently loaded are evicted. Invalidating
+ * a key also drops a load in progress, so a value read before a write is never kept.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ReadThroughCache(String name, int maxEntries, Duration ttl) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Get the value of a key, loading it on this thread when it is not cached, or waiting for
+     * the load another caller is running.
+     */
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.isLoaded()) {
+                if (!entry.isExpired()) {
+                    hits.incrementAndGet();
+                    return entry.value.join();
+                }
+                entries.remove(key, entry);
+                evictions.incrementAndGet();
+                continue;
+            }
+            if (entry != null) {
+                coalesced.incrementAndGet();
+                return await(entry.value);
+            }
+            Entry<V> loading = new Entry<>();
+            if (entries.putIfAbsent(key, loading) == null) {
+                misses.incrementAndGet();
+                return load(key, loading, loader);
+            }
+        }
+    }
+
+    /**
+     * Drop the value of a key, and any load of it in progress.
+     */
+    public void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop the values of the keys matching a predicate, and any loads of them in progress.
+     */
+    public void invalidateIf(Predicate<K> keys) {
+        for (Iterator<K> it = entries.keySet().iterator(); it.hasNext();) {
+            if (keys.test(it.next())) {
+                it.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop every value.
+     */
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    public CacheStatsDto getStats() {
+        long loaded = loads.get();
+        long lookups = hits.get() + misses.get() + coalesced.get();
+        return CacheStatsDto.builder()
+                .name(name)
+                .entries(entries.size())
+                .maxEntries(maxEntries)
+                .ttlSeconds(ttlNanos / 1_000_000_000)
+                .hits(hits.get())
+                .misses(misses.get())
+                .coalesced(coalesced.get())
+                .hitRatio(lookups > 0 ? (double) (hits.get() + coalesced.get()) / lookups : 0)
+                .loads(loaded)
+                .loadFailures(loadFailures.get())
+                .averageLoadMillis(loaded > 0 ? loadNanos.get() / 1_000_000.0 / loaded : 0)
+                .maxLoadMillis(maxLoadNanos.get() / 1_000_000.0)
+                .evictions(evictions.get())
+                .invalidations(invalidations.get())
+                .build();
+    }
+
+    private V load(K key, Entry<V> loading, Supplier<V> loader) {
+        long startNanos = System.nanoTime();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            loadFailures.incrementAndGet();
+            entries.remove(key, loading);
+            loading.value.completeExceptionally(e);
+            throw e;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        loads.incrementAndGet();
+        loadNanos.addAndGet(elapsedNanos);
+        maxLoadNanos.accumulateAndGet(elapsedNanos, Math::max);
+
+        loading.expiresAtNanos = System.nanoTime() + ttlNanos;
+        loading.value.complete(value);
+        if (entries.size() > maxEntries) {
+            evictOldest();
+        }
+        return value;
+    }
+
+    /**
+     * Evict the loaded entries expiring first until the cache is back within its size.
+     */
+    private void evictOldest() {
+        while (entries.size() > maxEntries) {
+            Map.Entry<K, Entry<V>> oldest = null;
+            for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                if (candidate.getValue().isLoaded() && (oldest == null
+                        || candidate.getValue().expiresAtNanos - oldest.getValue().expiresAtNanos < 0)) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> value) {
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A value being loaded, or loaded and valid until expiresAtNanos (System.nanoTime).
+     * expiresAtNanos is written before the value completes, so it is visible to any thread
+     * that sees the value loaded.
+     */
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+        private long expiresAtNanos;
+
+        boolean isLoaded() {
+            return value.isDone() && !value.isCompletedExceptionally();
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
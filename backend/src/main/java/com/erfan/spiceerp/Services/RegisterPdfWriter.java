@@ -0,0 +1,166 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Repos.RegisterRepository.LeaveEntry;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Lays out the monthly department registers as PDF.
+ */
+final class RegisterPdfWriter {
+
+    private static final DateTimeFormatter MONTH_TITLE = DateTimeFormatter.ofPattern("MMMM yyyy");
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 7);
+    private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 7);
+
+    private RegisterPdfWriter() {
+    }
+
+    /**
+     * Write a muster roll: one row per employee with the status code of each day and the
+     * PRESENT and LEAVE totals.
+     */
+    static void writeAttendanceRegister(String department, YearMonth month, List<AttendanceRegisterRow> rows,
+            OutputStream out) {
+        int days = month.lengthOfMonth();
+        Document document = new Document(PageSize.A3.rotate(), 20, 20, 20, 20);
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(title("Attendance Register - " + department + " - " + month.format(MONTH_TITLE)));
+
+        PdfPTable table = new PdfPTable(days + 5);
+        float[] widths = new float[days + 5];
+        widths[0] = 3;
+        widths[1] = 6;
+        widths[2] = 14;
+        for (int day = 0; day < days; day++) {
+            widths[3 + day] = 2;
+        }
+        widths[days + 3] = 3;
+        widths[days + 4] = 3;
+        table.setWidths(widths);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+
+        header(table, "#");
+        header(table, "Code");
+        header(table, "Name");
+        for (int day = 1; day <= days; day++) {
+            header(table, String.valueOf(day));
+        }
+        header(table, String.valueOf(AttendanceStatus.PRESENT.getCode()));
+        header(table, String.valueOf(AttendanceStatus.LEAVE.getCode()));
+
+        int number = 1;
+        for (AttendanceRegisterRow row : rows) {
+            cell(table, String.valueOf(number++), Element.ALIGN_RIGHT);
+            cell(table, row.employeeCode(), Element.ALIGN_LEFT);
+            cell(table, row.designation() != null ? row.employeeName() + " (" + row.designation() + ")"
+                    : row.employeeName(), Element.ALIGN_LEFT);
+            int present = 0;
+            int onLeave = 0;
+            for (int day = 0; day < days; day++) {
+                AttendanceStatus status = row.days()[day];
+                present += status == AttendanceStatus.PRESENT ? 1 : 0;
+                onLeave += status == AttendanceStatus.LEAVE ? 1 : 0;
+                cell(table, status != null ? String.valueOf(status.getCode()) : "", Element.ALIGN_CENTER);
+            }
+            cell(table, String.valueOf(present), Element.ALIGN_RIGHT);
+            cell(table, String.valueOf(onLeave), Element.ALIGN_RIGHT);
+        }
+        document.add(table);
+        document.add(footer(rows.size() + " employee(s). P = present, L = on leave, blank = no attendance."));
+        document.close();
+    }
+
+    /**
+     * Write a leave register: the approved leaves overlapping the month, with the days falling
+     * in the month and the remaining balance of the leave type.
+     */
+    static void writeLeaveRegister(String department, YearMonth month, List<LeaveEntry> leaves, OutputStream out) {
+        Document document = new Document(PageSize.A4.rotate(), 20, 20, 20, 20);
+        PdfWriter.getInstance(document, out);
+        document.open();
+        document.add(title("Leave Register - " + department + " - " + month.format(MONTH_TITLE)));
+
+        PdfPTable table = new PdfPTable(new float[] { 6, 14, 4, 6, 6, 4, 5, 7, 9 });
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        for (String column : new String[] { "Code", "Name", "Type", "From", "To", "Days", "In month",
+                "Approved on", "Balance (used/total)" }) {
+            header(table, column);
+        }
+
+        LocalDate firstDay = month.atDay(1);
+        LocalDate lastDay = month.atEndOfMonth();
+        for (LeaveEntry leave : leaves) {
+            LocalDate from = leave.startDate().isBefore(firstDay) ? firstDay : leave.startDate();
+            LocalDate to = leave.endDate().isAfter(lastDay) ? lastDay : leave.endDate();
+            cell(table, leave.employeeCode(), Element.ALIGN_LEFT);
+            cell(table, leave.employeeName(), Element.ALIGN_LEFT);
+            cell(table, leave.leaveType().name(), Element.ALIGN_CENTER);
+            cell(table, leave.startDate().format(DAY), Element.ALIGN_CENTER);
+            cell(table, leave.endDate().format(DAY), Element.ALIGN_CENTER);
+            cell(table, String.valueOf(leave.totalDays()), Element.ALIGN_RIGHT);
+            cell(table, String.valueOf(to.toEpochDay() - from.toEpochDay() + 1), Element.ALIGN_RIGHT);
+            cell(table, leave.approvedAt() != null ? leave.approvedAt().toLocalDate().format(DAY) : "",
+                    Element.ALIGN_CENTER);
+            cell(table, leave.balanceRemaining() != null
+                    ? leave.balanceRemaining() + " (" + leave.balanceUsed() + "/" + leave.balanceTotal() + ")"
+                    : "", Element.ALIGN_RIGHT);
+        }
+        document.add(table);
+        document.add(footer(leaves.size() + " approved leave(s)."));
+        document.close();
+    }
+
+    private static Paragraph title(String text) {
+        Paragraph title = new Paragraph(text, TITLE_FONT);
+        title.setSpacingAfter(8);
+        return title;
+    }
+
+    private static Paragraph footer(String text) {
+        Paragraph footer = new Paragraph(text, CELL_FONT);
+        footer.setSpacingBefore(6);
+        return footer;
+    }
+
+    private static void header(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
+        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+        table.addCell(cell);
+    }
+
+    private static void cell(PdfPTable table, String text, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text != null ? text : "", CELL_FONT));
+        cell.setHorizontalAlignment(alignment);
+        table.addCell(cell);
+    }
+
+    /**
+     * One employee of an attendance register: the status of each day of the month (index 0 is
+     * the 1st), null where there is no attendance.
+     */
+    record AttendanceRegisterRow(String employeeCode, String employeeName, String designation,
+            AttendanceStatus[] days) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.RegisterDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.RegisterType;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.erfan.spiceerp.Exception.ResourceNotFoundException;
+import com.erfan.spiceerp.Repos.AttendanceArchiveRepository;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceMark;
+import com.erfan.spiceerp.Repos.RegisterRepository;
+import com.erfan.spiceerp.Repos.RegisterRepository.RegisterDay;
+import com.erfan.spiceerp.Repos.ReportFileRepository;
+import com.erfan.spiceerp.Services.RegisterPdfWriter.AttendanceRegisterRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the monthly attendance and leave registers of each department as PDF.
+ * Each register is read with one aggregated query and rendered on the bounded report pool.
+ * Rendered files are kept on disk keyed by (register, department, month, data version), the
+ * version being a fingerprint of the register's rows computed by the database; a register is
+ * only rendered again when its data changes, and concurrent requests for the same version
+ * share one rendering.
+ */
+@Service
+public class RegisterReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisterReportService.class);
+
+    private static final String PDF = "pdf";
+    private static final String ARCHIVED_VERSION_SUFFIX = "a";
+
+    private final RegisterRepository registerRepository;
+    private final ReportFileRepository reportFileRepository;
+    private final AttendanceArchiveRepository attendanceArchiveRepository;
+    private final TaskExecutor reportExecutor;
+
+    private final Map<String, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>();
+
+    public RegisterReportService(RegisterRepository registerRepository,
+            ReportFileRepository reportFileRepository,
+            AttendanceArchiveRepository attendanceArchiveRepository,
+            @Qualifier("reportExecutor") TaskExecutor reportExecutor) {
+        this.registerRepository = registerRepository;
+        this.reportFileRepository = reportFileRepository;
+        this.attendanceArchiveRepository = attendanceArchiveRepository;
+        this.reportExecutor = reportExecutor;
+    }
+
+    /**
+     * Get the PDF file of a department register, rendering it if its data changed since the
+     * last rendering.
+     */
+    public Path getRegisterFile(RegisterType type, String department, YearMonth month) {
+        validate(month);
+        if (!registerRepository.findDepartments().contains(department)) {
+            throw new ResourceNotFoundException("Department", "name", department);
+        }
+        String version = version(type, department, month);
+        Path cached = reportFileRepository.find(fileKey(type, department, month), version, PDF);
+        return cached != null ? cached : await(render(type, department, month, version));
+    }
+
+    /**
+     * Render both registers of every department for a month, in parallel; registers whose
+     * data has not changed are served from the cache.
+     */
+    public List<RegisterDto> renderRegisters(YearMonth month) {
+        validate(month);
+        List<RegisterDto> registers = new ArrayList<>();
+        Map<RegisterDto, CompletableFuture<Path>> pending = new LinkedHashMap<>();
+        for (String department : registerRepository.findDepartments()) {
+            for (RegisterType type : RegisterType.values()) {
+                String version = version(type, department, month);
+                RegisterDto register = RegisterDto.builder()
+                        .type(type)
+                        .department(department)
+                        .month(month)
+                        .version(version)
+                        .build();
+                Path cached = reportFileRepository.find(fileKey(type, department, month), version, PDF);
+                if (cached != null) {
+                    register.setFileSizeBytes(size(cached));
+                } else {
+                    register.setRendered(true);
+                    pending.put(register, render(type, department, month, version));
+                }
+                registers.add(register);
+            }
+        }
+        pending.forEach((register, file) -> register.setFileSizeBytes(size(await(file))));
+        logger.info("Registers for {}: {} rendered, {} from cache", month, pending.size(),
+                registers.size() - pending.size());
+        return registers;
+    }
+
+    /**
+     * Name under which a register is downloaded.
+     */
+    public String downloadName(RegisterType type, String department, YearMonth month) {
+        String slug = department.replaceAll("[^A-Za-z0-9]+", "-").toLowerCase(Locale.ROOT);
+        return type.name().toLowerCase(Locale.ROOT) + "-register-" + slug + "-" + month + ".pdf";
+    }
+
+    /**
+     * Render a register version on the report pool, joining a rendering of the same version
+     * already in progress.
+     */
+    private CompletableFuture<Path> render(RegisterType type, String department, YearMonth month, String version) {
+        String key = fileKey(type, department, month);
+        CompletableFuture<Path> file = rendering.computeIfAbsent(key + "-" + version,
+                k -> CompletableFuture.supplyAsync(() -> reportFileRepository.store(key, version, PDF,
+                        out -> {
+                            long startNanos = System.nanoTime();
+                            if (type == RegisterType.ATTENDANCE) {
+                                RegisterPdfWriter.writeAttendanceRegister(department, month,
+                                        attendanceRows(department, month), out);
+                            } else {
+                                RegisterPdfWriter.writeLeaveRegister(department, month, registerRepository
+                                        .findLeaveRegister(department, month.atDay(1), month.atEndOfMonth()), out);
+                            }
+                            logger.info("Rendered {} register of {} for {} in {} ms", type, department, month,
+                                    (System.nanoTime() - startNanos) / 1_000_000);
+                        }), reportExecutor));
+        file.whenComplete((path, error) -> rendering.remove(key + "-" + version, file));
+        return file;
+    }
+
+    /**
+     * Build the rows of an attendance register: active employees and any other employee with
+     * attendance in the month. Archived months are read from the archive.
+     */
+    private List<AttendanceRegisterRow> attendanceRows(String department, YearMonth month) {
+        LocalDate firstDay = month.atDay(1);
+        LocalDate lastDay = month.atEndOfMonth();
+        Map<Long, AttendanceStatus[]> days = new LinkedHashMap<>();
+        Map<Long, RegisterDay> employees = new LinkedHashMap<>();
+        for (RegisterDay day : registerRepository.findAttendanceRegister(department, firstDay, lastDay)) {
+            employees.putIfAbsent(day.employeeId(), day);
+            AttendanceStatus[] statuses = days.computeIfAbsent(day.employeeId(),
+                    id -> new AttendanceStatus[month.lengthOfMonth()]);
+            if (day.date() != null) {
+                statuses[day.date().getDayOfMonth() - 1] = day.status();
+            }
+        }
+        if (isArchived(month)) {
+            for (AttendanceMark mark : attendanceArchiveRepository.findMarks(employees.keySet(), firstDay, lastDay)) {
+                days.get(mark.employeeId())[mark.attendanceDate().getDayOfMonth() - 1] = mark.status();
+            }
+        }
+
+        List<AttendanceRegisterRow> rows = new ArrayList<>(employees.size());
+        employees.forEach((employeeId, employee) -> {
+            AttendanceStatus[] statuses = days.get(employeeId);
+            boolean any = false;
+            for (AttendanceStatus status : statuses) {
+                any |= status != null;
+            }
+            if (any || employee.employeeStatus() == Status.ACTIVE) {
+                rows.add(new AttendanceRegisterRow(employee.employeeCode(), employee.employeeName(),
+                        employee.designation(), statuses));
+            }
+        });
+        return rows;
+    }
+
+    private String version(RegisterType type, String department, YearMonth month) {
+        LocalDate firstDay = month.atDay(1);
+        LocalDate lastDay = month.atEndOfMonth();
+        if (type == RegisterType.LEAVE) {
+            return registerRepository.findLeaveRegisterVersion(department, firstDay, lastDay);
+        }
+        // Archived days are no longer in the database but never change
+        String version = registerRepository.findAttendanceRegisterVersion(department, firstDay, lastDay);
+        return isArchived(month) ? version + ARCHIVED_VERSION_SUFFIX : version;
+    }
+
+    private boolean isArchived(YearMonth month) {
+        Integer lastArchivedYear = attendanceArchiveRepository.findLastArchivedYear();
+        return lastArchivedYear != null && month.getYear() <= lastArchivedYear;
+    }
+
+    /**
+     * Cache key of a register: type, month and a hash of the department, which may hold
+     * characters that are not allowed in file names.
+     */
+    private static String fileKey(RegisterType type, String department, YearMonth month) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(department.getBytes(StandardCharsets.UTF_8));
+            return type.name().toLowerCase(Locale.ROOT) + "-" + month + "-" + HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void validate(YearMonth month) {
+        if (month.isAfter(YearMonth.now())) {
+            throw new BusinessException("Registers are only available up to the current month");
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> file) {
+        try {
+            return file.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceDay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Today's attendance of every employee, held in memory by employee id.
+ * The board is built when the day's attendance has been generated (or on first use) and
+ * updated in place by every {@link AttendanceChangedEvent} covering today, so today's list,
+ * counts and status filters are answered without a query. It moves to the new date on the
+ * first generation or read of that day. Writes made by other instances are not published
+ * here, so the board is also rebuilt once it is older than attendance.today-board.max-age.
+ *
+ * Each change publishes a new immutable snapshot, so a read sees one consistent board; changes
+ * and rebuilds are serialized so that a rebuild cannot overwrite a newer change.
+ */
+@Service
+public class TodayAttendanceBoard {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodayAttendanceBoard.class);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final AttendanceDayRepository attendanceDayRepository;
+    private final long maxAgeNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Board board;
+
+    public TodayAttendanceBoard(AttendanceDayRepository attendanceDayRepository,
+            @Value("${attendance.today-board.max-age:PT1M}") Duration maxAge) {
+        this.attendanceDayRepository = attendanceDayRepository;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public boolean isToday(LocalDate date) {
+        return LocalDate.now().equals(date);
+    }
+
+    /**
+     * Get today's attendance, by employee, optionally only with one status.
+     */
+    public List<AttendanceDto> getAttendance(AttendanceStatus status) {
+        Board current = current();
+        List<AttendanceDto> attendance = new ArrayList<>(status != null
+                ? current.counts().getOrDefault(status, 0L).intValue() : current.days().size());
+        for (AttendanceDay day : current.days().values()) {
+            if (status == null || day.status() == status) {
+                attendance.add(mapToDto(day));
+            }
+        }
+        return attendance;
+    }
+
+    /**
+     * Count today's attendance by status; statuses nobody has count zero.
+     */
+    public Map<AttendanceStatus, Long> getCounts() {
+        return current().counts();
+    }
+
+    /**
+     * Load the board of a date from the database, replacing the current one.
+     */
+    public void rebuild(LocalDate date) {
+        lock.lock();
+        try {
+            load(date);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply a committed attendance write covering today: reload the attendance of the
+     * employees it names, or the whole board when it names none. A write for a newer date
+     * moves the board to that date.
+     *
+     * Runs before the other attendance listeners, so that a response cache version bumped by
+     * the same write is never served with the board as it was before the write.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        if (today.isBefore(event.startDate()) || today.isAfter(event.endDate())) {
+            return;
+        }
+        lock.lock();
+        try {
+            Board current = board;
+            if (current == null || !current.date().equals(today) || event.affectsAllEmployees()) {
+                load(today);
+            } else {
+                reload(current, event.employeeIds());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refresh the name and code an employee is shown with, or drop a deleted employee.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        lock.lock();
+        try {
+            Board current = board;
+            if (current != null && current.date().equals(LocalDate.now())) {
+                reload(current, List.of(event.employeeId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The board of today, building it first when the day has changed. A board past its maximum
+     * age is rebuilt by one reader while the others keep reading it.
+     */
+    private Board current() {
+        LocalDate today = LocalDate.now();
+        Board current = board;
+        if (current == null || !current.date().equals(today)) {
+            lock.lock();
+            try {
+                current = board;
+                if (current == null || !current.date().equals(today)) {
+                    current = load(today);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else if (System.nanoTime() - current.builtAtNanos() > maxAgeNanos && lock.tryLock()) {
+            try {
+                current = load(today);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Board load(LocalDate date) {
+        long startNanos = System.nanoTime();
+        NavigableMap<Long, AttendanceDay> days = new TreeMap<>();
+        for (AttendanceDay day : attendanceDayRepository.findByDate(date)) {
+            days.put(day.employeeId(), day);
+        }
+        Board loaded = publish(date, days);
+        logger.debug("Attendance board for {} built with {} employees in {} ms", date, days.size(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return loaded;
+    }
+
+    private void reload(Board current, Collection<Long> employeeIds) {
+        NavigableMap<Long, AttendanceDay> days = new TreeMap<>(current.days());
+        List<Long> ids = new ArrayList<>(employeeIds);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            Set<Long> missing = new HashSet<>(batch);
+            for (AttendanceDay day : attendanceDayRepository.findByDateAndEmployees(current.date(), batch)) {
+                days.put(day.employeeId(), day);
+                missing.remove(day.employeeId());
+            }
+            // Employees without attendance today any more, e.g. a cancelled leave or a deletion
+            days.keySet().removeAll(missing);
+        }
+        board = new Board(current.date(), current.builtAtNanos(), Collections.unmodifiableNavigableMap(days),
+                countByStatus(days));
+    }
+
+    private Board publish(LocalDate date, NavigableMap<Long, AttendanceDay> days) {
+        Board built = new Board(date, System.nanoTime(), Collections.unmodifiableNavigableMap(days),
+                countByStatus(days));
+        board = built;
+        return built;
+    }
+
+    private static Map<AttendanceStatus, Long> countByStatus(Map<Long, AttendanceDay> days) {
+        Map<AttendanceStatus, Long> counts = new EnumMap<>(AttendanceStatus.class);
+        for (AttendanceStatus status : AttendanceStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (AttendanceDay day : days.values()) {
+            counts.merge(day.status(), 1L, Long::sum);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static AttendanceDto mapToDto(AttendanceDay day) {
+        return AttendanceDto.builder()
+                .id(day.id())
+                .employeeId(day.employeeId())
+                .employeeName(day.employeeName())
+                .employeeCode(day.employeeCode())
+                .attendanceDate(day.attendanceDate())
+                .status(day.status())
+                .leaveRequestId(day.leaveRequestId())
+                .createdAt(day.createdAt())
+                .build();
+    }
+
+    /**
+     * The attendance of one date by employee id, its counts by status, and when it was loaded
+     * in full (System.nanoTime).
+     */
+    private record Board(LocalDate date, long builtAtNanos, NavigableMap<Long, AttendanceDay> days,
+            Map<AttendanceStatus, Long> counts) {
+    }
+}
@@ -0,0 +1,39 @@
+-- Compact_present_attendance.sql
+-- Switches existing attendance data to the EXCEPTIONS storage mode (attendance.storage.mode=EXCEPTIONS).
+-- Run this only when enabling that mode; a database kept in FULL mode must not be compacted, which
+-- is why it is kept out of db/migration and is not applied at startup.
+--
+-- Every run of consecutive generated days of an employee becomes one attendance_period row,
+-- then the PRESENT rows those periods now cover are deleted. LEAVE rows stay as they are.
+-- Only days up to today count as generated; LEAVE rows written ahead for approved leaves do not.
+-- Run it in a single transaction, with the application stopped or already in EXCEPTIONS mode.
+
+CREATE TABLE IF NOT EXISTS attendance_period (
+    id BIGSERIAL PRIMARY KEY,
+    employee_id BIGINT NOT NULL REFERENCES users(id),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    UNIQUE(employee_id, start_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_period_end ON attendance_period(end_date);
+
+-- Consecutive dates share the same (date - row number) value, which identifies the run
+INSERT INTO attendance_period (employee_id, start_date, end_date)
+SELECT employee_id, MIN(attendance_date), MAX(attendance_date)
+FROM (
+    SELECT employee_id, attendance_date,
+           attendance_date - (ROW_NUMBER() OVER (PARTITION BY employee_id ORDER BY attendance_date))::int AS run
+    FROM attendance
+    WHERE attendance_date <= CURRENT_DATE
+) days
+GROUP BY employee_id, run
+ON CONFLICT (employee_id, start_date) DO NOTHING;
+
+DELETE FROM attendance WHERE status = 'PRESENT' AND attendance_date <= CURRENT_DATE;
+
+ANALYZE attendance;
+ANALYZE attendance_period;
+
+-- The freed space is reused by new rows; run VACUUM FULL attendance in a maintenance window
+-- to return it to the operating system.
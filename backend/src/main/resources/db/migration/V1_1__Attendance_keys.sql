@@ -0,0 +1,20 @@
+-- V1_1__Attendance_keys.sql
+-- The attendance entity no longer declares its keys and indexes, since Hibernate cannot see them
+-- once V5 has partitioned the table. Databases created before that already have them; on new
+-- databases Hibernate creates a bare table and they are added here, as V1 defines them.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'attendance'::regclass AND contype = 'u') THEN
+        ALTER TABLE attendance ADD UNIQUE (employee_id, attendance_date);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'attendance'::regclass AND contype = 'f') THEN
+        ALTER TABLE attendance
+            ADD FOREIGN KEY (employee_id) REFERENCES users(id),
+            ADD FOREIGN KEY (leave_request_id) REFERENCES leave_request(id) ON DELETE SET NULL;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_attendance_employee ON attendance(employee_id);
+CREATE INDEX IF NOT EXISTS idx_attendance_date ON attendance(attendance_date);
+CREATE INDEX IF NOT EXISTS idx_attendance_employee_date ON attendance(employee_id, attendance_date);
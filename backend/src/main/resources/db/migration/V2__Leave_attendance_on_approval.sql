@@ -0,0 +1,34 @@
+-- V2__Leave_attendance_on_approval.sql
+-- LEAVE attendance rows are now written for the whole range of a leave when it is approved,
+-- and the daily generation only inserts PRESENT rows. Approved leaves that are still running
+-- or upcoming get their remaining LEAVE rows here; the balance days the old daily job would
+-- have deducted for those rows are deducted in the same statement. They are deducted in full
+-- (remaining = total - used, as LeaveBalance keeps it), since cancelling such a leave gives
+-- back all of its days.
+
+WITH days AS (
+    SELECT lr.employee_id, d::date AS attendance_date, lr.id AS leave_request_id, lr.leave_type
+    FROM leave_request lr
+    CROSS JOIN LATERAL generate_series(GREATEST(lr.start_date, CURRENT_DATE), lr.end_date, interval '1 day') AS d
+    WHERE lr.status = 'APPROVED' AND lr.end_date >= CURRENT_DATE
+), inserted AS (
+    INSERT INTO attendance (employee_id, attendance_date, status, leave_request_id, created_at)
+    SELECT employee_id, attendance_date, 'LEAVE', leave_request_id, NOW()
+    FROM days
+    ON CONFLICT (employee_id, attendance_date) DO NOTHING
+    RETURNING employee_id, attendance_date, leave_request_id
+), leave_days AS (
+    SELECT i.employee_id, lr.leave_type, EXTRACT(YEAR FROM i.attendance_date)::int AS year, COUNT(*)::int AS days
+    FROM inserted i
+    JOIN leave_request lr ON lr.id = i.leave_request_id
+    GROUP BY i.employee_id, lr.leave_type, EXTRACT(YEAR FROM i.attendance_date)
+)
+UPDATE leave_balance b
+SET used = b.used + ld.days,
+    remaining = CASE WHEN b.leave_type = 'LOP' THEN b.remaining ELSE b.remaining - ld.days END,
+    updated_at = NOW()
+FROM leave_days ld
+WHERE b.employee_id = ld.employee_id AND b.leave_type = ld.leave_type AND b.year = ld.year;
+
+-- Lets a cancellation delete a leave's rows without scanning attendance
+CREATE INDEX IF NOT EXISTS idx_attendance_leave_request ON attendance(leave_request_id);
@@ -0,0 +1,46 @@
+-- V4__Attendance_monthly_rollup.sql
+-- Creates the per-employee monthly attendance rollup that serves attendance summaries and fills
+-- it from the existing attendance. Works in both storage modes: PRESENT days are counted from
+-- attendance rows and from attendance periods (empty in FULL mode).
+-- The same rebuild is available at runtime: POST /admin/attendance/rollup/rebuild
+
+CREATE TABLE IF NOT EXISTS attendance_period (
+    id BIGSERIAL PRIMARY KEY,
+    employee_id BIGINT NOT NULL REFERENCES users(id),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    UNIQUE(employee_id, start_date)
+);
+
+CREATE TABLE IF NOT EXISTS attendance_monthly_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    employee_id BIGINT NOT NULL REFERENCES users(id),
+    month DATE NOT NULL,
+    present_days INTEGER NOT NULL,
+    leave_days INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE(employee_id, month)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_rollup_month ON attendance_monthly_rollup(month);
+
+TRUNCATE attendance_monthly_rollup;
+
+INSERT INTO attendance_monthly_rollup (employee_id, month, present_days, leave_days, updated_at)
+SELECT v.employee_id, date_trunc('month', v.attendance_date)::date,
+       COUNT(*) FILTER (WHERE v.status = 'PRESENT'),
+       COUNT(*) FILTER (WHERE v.status = 'LEAVE'),
+       now()
+FROM (
+    SELECT a.employee_id, a.attendance_date, a.status
+    FROM attendance a
+    UNION ALL
+    SELECT p.employee_id, d::date, 'PRESENT'
+    FROM attendance_period p
+    CROSS JOIN LATERAL generate_series(p.start_date, p.end_date, interval '1 day') AS d
+    WHERE NOT EXISTS (SELECT 1 FROM attendance s
+                      WHERE s.employee_id = p.employee_id AND s.attendance_date = d::date)
+) v
+GROUP BY v.employee_id, date_trunc('month', v.attendance_date);
+
+ANALYZE attendance_monthly_rollup;
@@ -0,0 +1,73 @@
+-- V5__Partition_attendance_by_month.sql
+-- Turns attendance into a table range-partitioned by attendance_date, one partition per month
+-- (PostgreSQL 12+). Queries bounded on attendance_date are then pruned to the months they touch,
+-- and an old month can be detached instead of deleted row by row.
+--
+-- Partitions are named attendance_YYYY_MM. A DEFAULT partition catches dates that have no
+-- partition yet; the attendance partition job (attendance.partitions.*) creates upcoming months
+-- ahead of time and moves any rows of a new month out of the DEFAULT partition.
+-- The primary key becomes (id, attendance_date) because unique keys of a partitioned table must
+-- include the partition key; ids stay unique as they still come from one sequence.
+-- Applied at startup (see SchemaMigrationConfig); rows are copied, so it takes about as long as
+-- rewriting the table, and other instances should be stopped while it runs. A table that is
+-- already partitioned (the script having been run by hand) is left as it is.
+
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE;
+    month DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('attendance') AND relkind = 'p') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE attendance RENAME TO attendance_unpartitioned;
+    ALTER INDEX IF EXISTS idx_attendance_employee RENAME TO idx_attendance_employee_old;
+    ALTER INDEX IF EXISTS idx_attendance_date RENAME TO idx_attendance_date_old;
+    ALTER INDEX IF EXISTS idx_attendance_employee_date RENAME TO idx_attendance_employee_date_old;
+    ALTER INDEX IF EXISTS idx_attendance_leave_request RENAME TO idx_attendance_leave_request_old;
+
+    CREATE TABLE attendance (
+        id BIGSERIAL NOT NULL,
+        employee_id BIGINT NOT NULL REFERENCES users(id),
+        attendance_date DATE NOT NULL,
+        status VARCHAR(10) NOT NULL CHECK (status IN ('PRESENT', 'LEAVE')),
+        leave_request_id BIGINT REFERENCES leave_request(id) ON DELETE SET NULL,
+        created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+        PRIMARY KEY (id, attendance_date),
+        UNIQUE (employee_id, attendance_date)
+    ) PARTITION BY RANGE (attendance_date);
+
+    CREATE INDEX idx_attendance_employee ON attendance(employee_id);
+    CREATE INDEX idx_attendance_date ON attendance(attendance_date);
+    CREATE INDEX idx_attendance_employee_date ON attendance(employee_id, attendance_date);
+    CREATE INDEX idx_attendance_leave_request ON attendance(leave_request_id);
+
+    -- One partition per month from the first attendance up to three months ahead
+    SELECT date_trunc('month', COALESCE(MIN(attendance_date), CURRENT_DATE))::date,
+           date_trunc('month', GREATEST(COALESCE(MAX(attendance_date), CURRENT_DATE),
+                                        CURRENT_DATE + INTERVAL '3 months'))::date
+    INTO first_month, last_month
+    FROM attendance_unpartitioned;
+
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+                       'attendance_' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::date);
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+
+    CREATE TABLE attendance_default PARTITION OF attendance DEFAULT;
+
+    INSERT INTO attendance (id, employee_id, attendance_date, status, leave_request_id, created_at)
+    SELECT id, employee_id, attendance_date, status, leave_request_id, COALESCE(created_at, NOW())
+    FROM attendance_unpartitioned;
+
+    PERFORM setval(pg_get_serial_sequence('attendance', 'id'),
+                   COALESCE((SELECT MAX(id) FROM attendance), 0) + 1, false);
+
+    DROP TABLE attendance_unpartitioned;
+END $$;
+
+ANALYZE attendance;
@@ -0,0 +1,15 @@
+-- V6__Keyset_pagination_indexes.sql
+-- Indexes matching the (sort key, id) order of the keyset-paginated admin lists, so each slice
+-- is read from where the previous one ended instead of counting and skipping an offset:
+--   /admin/employees/paginated?sort=name        users (name, id)
+--   /admin/leaves/pending/paginated             leave_request (status, applied_at, id)
+--   /admin/attendance/paginated                 attendance (attendance_date, employee_id)
+-- On a partitioned attendance table (V5) the index is created on every partition.
+
+CREATE INDEX IF NOT EXISTS idx_users_name ON users(name, id);
+CREATE INDEX IF NOT EXISTS idx_leave_status_applied ON leave_request(status, applied_at, id);
+CREATE INDEX IF NOT EXISTS idx_attendance_date_employee ON attendance(attendance_date, employee_id);
+
+ANALYZE users;
+ANALYZE leave_request;
+ANALYZE attendance;
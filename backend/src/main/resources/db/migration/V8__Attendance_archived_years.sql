@@ -0,0 +1,10 @@
+-- V8__Attendance_archived_years.sql
+-- Years whose attendance has moved to the archive (attendance.archive.*). A year is recorded once
+-- its segment file is written, before its rows are purged, and every instance reads it from
+-- here, so they all serve the year from the archive from then on. Segment files written before
+-- this table existed are recorded at startup from attendance.archive.directory.
+
+CREATE TABLE IF NOT EXISTS attendance_archived_year (
+    year INTEGER PRIMARY KEY,
+    archived_at TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,12 @@
+-- V9__Scheduler_lock_timestamptz.sql
+-- Lease times are set from now() and compared with it, so they are stored as TIMESTAMPTZ and
+-- stay right whatever TimeZone a session uses. Existing values were written as LOCALTIMESTAMP
+-- and are read in the migrating session's time zone. A failed run is recorded apart from
+-- last_run_at, which only a successful run sets.
+
+ALTER TABLE scheduler_lock
+    ALTER COLUMN locked_at TYPE TIMESTAMPTZ,
+    ALTER COLUMN lock_until TYPE TIMESTAMPTZ,
+    ALTER COLUMN last_run_at TYPE TIMESTAMPTZ,
+    ADD COLUMN IF NOT EXISTS last_failed_at TIMESTAMPTZ,
+    ADD COLUMN IF NOT EXISTS last_failed_by VARCHAR(255);
@@ -0,0 +1,93 @@
+package com.erfan.spiceerp.Controllers;
+
+import com.erfan.spiceerp.Dto.EmployeeDto;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Scheduler.AttendanceGenerationJobs;
+import com.erfan.spiceerp.Scheduler.AttendancePartitionScheduler;
+import com.erfan.spiceerp.Scheduler.AttendanceScheduler;
+import com.erfan.spiceerp.Scheduler.SchedulerLockManager;
+import com.erfan.spiceerp.Security.JwtService;
+import com.erfan.spiceerp.Security.JwtUtils;
+import com.erfan.spiceerp.Services.AttendanceArchiveService;
+import com.erfan.spiceerp.Services.AttendanceCalendarService;
+import com.erfan.spiceerp.Services.AttendanceResponseCache;
+import com.erfan.spiceerp.Services.AttendanceService;
+import com.erfan.spiceerp.Services.DashboardService;
+import com.erfan.spiceerp.Services.EmployeeService;
+import com.erfan.spiceerp.Services.ExportService;
+import com.erfan.spiceerp.Services.LeaveService;
+import com.erfan.spiceerp.Services.RegisterReportService;
+import com.erfan.spiceerp.Services.TodayAttendanceBoard;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing checks for AdminController, run against the controller alone (no security filter
+ * chain or database).
+ */
+class AdminControllerTest {
+
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AdminController(
+            employeeService,
+            mock(LeaveService.class),
+            mock(AttendanceService.class),
+            mock(AttendanceCalendarService.class),
+            mock(AttendanceResponseCache.class),
+            mock(TodayAttendanceBoard.class),
+            mock(AttendanceArchiveService.class),
+            mock(ExportService.class),
+            mock(RegisterReportService.class),
+            mock(DashboardService.class),
+            mock(AttendanceScheduler.class),
+            mock(AttendanceGenerationJobs.class),
+            mock(AttendancePartitionScheduler.class),
+            mock(SchedulerLockManager.class),
+            List.of(),
+            mock(JwtService.class),
+            mock(JwtUtils.class),
+            mock(NdjsonResponses.class),
+            mock(BinaryResponses.class))).build();
+
+    @Test
+    void getsEmployeeById() throws Exception {
+        when(employeeService.getEmployeeById(42L)).thenReturn(EmployeeDto.builder()
+                .id(42L)
+                .employeeCode("EMP042")
+                .fullName("Anitha Nair")
+                .status(Status.ACTIVE)
+                .build());
+
+        mockMvc.perform(get("/admin/employees/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").value(42))
+                .andExpect(jsonPath("$.data.employeeCode").value("EMP042"));
+
+        verify(employeeService).getEmployeeById(42L);
+    }
+
+    @Test
+    void literalEmployeePathsAreNotTreatedAsIds() throws Exception {
+        when(employeeService.getAllActiveEmployees()).thenReturn(List.of());
+
+        mockMvc.perform(get("/admin/employees/active"))
+                .andExpect(status().isOk());
+
+        verify(employeeService).getAllActiveEmployees();
+        verify(employeeService, never()).getEmployeeById(anyLong());
+    }
+}
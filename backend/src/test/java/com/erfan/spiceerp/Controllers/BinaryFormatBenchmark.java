@@ -0,0 +1,146 @@
+package com.erfan.spiceerp.Controllers;
+
+import com.erfan.spiceerp.Dto.ApiResponse;
+import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Dto.LeaveRequestDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark for the binary response formats. Encodes 100k attendance rows and 100k leave
+ * requests as the JSON ApiResponse the default endpoints return, and streamed through
+ * BinaryResponses as CBOR and Smile, into a discarding stream. Reports bytes on the wire and
+ * the encoding CPU time per response (thread CPU time, averaged after warm-up). The mappers
+ * are built from a Jackson2ObjectMapperBuilder configured as Spring Boot's, as in
+ * WebMvcConfig.
+ *
+ * Not part of the default test run: mvn test -Dtest=BinaryFormatBenchmark
+ */
+class BinaryFormatBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int EMPLOYEES = 1_000;
+    private static final int WARM_UP = 5;
+    private static final int RUNS = 10;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ObjectMapper json = builder().build();
+    private final BinaryResponses binaryResponses = new BinaryResponses(
+            new MappingJackson2CborHttpMessageConverter(builder().factory(new CBORFactory()).build()),
+            new MappingJackson2SmileHttpMessageConverter(builder().factory(new SmileFactory()).build()));
+
+    @Test
+    void attendance() throws Exception {
+        List<AttendanceDto> rows = new ArrayList<>(ROWS);
+        for (long i = 0; i < ROWS; i++) {
+            rows.add(AttendanceDto.builder()
+                    .id(i + 1)
+                    .employeeId(i % EMPLOYEES + 1)
+                    .employeeName("Employee " + (i % EMPLOYEES + 1))
+                    .employeeCode("EMP" + (i % EMPLOYEES + 1))
+                    .attendanceDate(FIRST_DAY.plusDays(i / EMPLOYEES))
+                    .status(i % 20 == 0 ? AttendanceStatus.LEAVE : AttendanceStatus.PRESENT)
+                    .createdAt(LocalDateTime.of(FIRST_DAY.plusDays(i / EMPLOYEES), LocalTime.of(0, 5)))
+                    .build());
+        }
+        compare("attendance", rows);
+    }
+
+    @Test
+    void leaves() throws Exception {
+        List<LeaveRequestDto> rows = new ArrayList<>(ROWS);
+        for (long i = 0; i < ROWS; i++) {
+            rows.add(LeaveRequestDto.builder()
+                    .id(i + 1)
+                    .employeeId(i % EMPLOYEES + 1)
+                    .employeeName("Employee " + (i % EMPLOYEES + 1))
+                    .employeeCode("EMP" + (i % EMPLOYEES + 1))
+                    .leaveType(i % 3 == 0 ? LeaveType.SL : LeaveType.CL)
+                    .startDate(FIRST_DAY.plusDays(i % 300))
+                    .endDate(FIRST_DAY.plusDays(i % 300 + 1))
+                    .totalDays(2)
+                    .reason("Family function")
+                    .status(LeaveStatus.APPROVED)
+                    .appliedAt(LocalDateTime.of(FIRST_DAY, LocalTime.NOON))
+                    .reviewedById(1L)
+                    .reviewedByName("Admin")
+                    .reviewedAt(LocalDateTime.of(FIRST_DAY, LocalTime.NOON))
+                    .build());
+        }
+        compare("leaves", rows);
+    }
+
+    private <T> void compare(String endpoint, List<T> rows) throws Exception {
+        Result jsonResult = measure(out -> json.writeValue(out, ApiResponse.success(rows)));
+        for (String format : new String[] { BinaryResponses.CBOR, BinaryResponses.SMILE }) {
+            StreamingResponseBody body = binaryResponses.<T>stream(format, rows::forEach).getBody();
+            Result result = measure(body);
+            System.out.printf("%-10s rows=%d %-28s %,11d bytes (%3.0f%% of JSON)  %,7.1f ms CPU (JSON %,7.1f ms)%n",
+                    endpoint, rows.size(), format, result.bytes(), 100.0 * result.bytes() / jsonResult.bytes(),
+                    result.cpuMillis(), jsonResult.cpuMillis());
+        }
+        System.out.printf("%-10s rows=%d %-28s %,11d bytes%n", endpoint, rows.size(), "application/json",
+                jsonResult.bytes());
+    }
+
+    private static Result measure(StreamingResponseBody body) throws Exception {
+        CountingStream out = new CountingStream();
+        for (int i = 0; i < WARM_UP; i++) {
+            body.writeTo(out);
+        }
+        out.bytes = 0;
+        long startCpu = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < RUNS; i++) {
+            body.writeTo(out);
+        }
+        long cpuNanos = THREADS.getCurrentThreadCpuTime() - startCpu;
+        return new Result(out.bytes / RUNS, cpuNanos / 1_000_000.0 / RUNS);
+    }
+
+    /**
+     * Jackson settings of Spring Boot's auto-configured builder (ISO dates).
+     */
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().findModulesViaServiceLoader(true)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private record Result(long bytes, double cpuMillis) {
+    }
+
+    private static final class CountingStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.erfan.spiceerp.Repos;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark for the monthly partitioning of attendance (V5__Partition_attendance_by_month.sql).
+ * Loads YEARS years of attendance for EMPLOYEES employees into a plain copy and a monthly
+ * partitioned copy of the attendance table, then prints the EXPLAIN ANALYZE plan and the mean
+ * latency of the AttendanceRepository query shapes on each.
+ * Works on temporary tables inside a transaction that is rolled back.
+ *
+ * Not part of the default test run: mvn test -Dtest=AttendancePartitionBenchmark
+ */
+@SpringBootTest
+@Transactional
+class AttendancePartitionBenchmark {
+
+    private static final int EMPLOYEES = 1_000;
+    private static final int YEARS = 4;
+    private static final int QUERIES = 50;
+
+    private static final String PLAIN = "bench_attendance_plain";
+    private static final String PARTITIONED = "bench_attendance_part";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void comparePlainAndPartitioned() {
+        LocalDate lastDay = LocalDate.now();
+        LocalDate firstDay = YearMonth.from(lastDay).minusYears(YEARS).plusMonths(1).atDay(1);
+        createTables(firstDay, lastDay);
+        seed(PLAIN, firstDay, lastDay);
+        seed(PARTITIONED, firstDay, lastDay);
+
+        List<BenchQuery> queries = List.of(
+                new BenchQuery("employee, last 30 days",
+                        "SELECT * FROM %s WHERE employee_id = ? AND attendance_date BETWEEN ? AND ? " +
+                                "ORDER BY attendance_date DESC",
+                        i -> new Object[] { 1 + i * EMPLOYEES / QUERIES, Date.valueOf(lastDay.minusDays(29)),
+                                Date.valueOf(lastDay) }),
+                new BenchQuery("single date",
+                        "SELECT * FROM %s WHERE attendance_date = ?",
+                        i -> new Object[] { Date.valueOf(lastDay.minusDays(i)) }),
+                new BenchQuery("employee status count, one year",
+                        "SELECT COUNT(*) FROM %s WHERE employee_id = ? AND status = 'LEAVE' " +
+                                "AND attendance_date BETWEEN ? AND ?",
+                        i -> new Object[] { 1 + i * EMPLOYEES / QUERIES, Date.valueOf(lastDay.minusYears(1)),
+                                Date.valueOf(lastDay) }),
+                new BenchQuery("latest PRESENT date",
+                        "SELECT MAX(attendance_date) FROM %s WHERE status = 'PRESENT'",
+                        i -> new Object[0]));
+
+        for (BenchQuery query : queries) {
+            for (String table : List.of(PLAIN, PARTITIONED)) {
+                String sql = query.sql().formatted(table);
+                System.out.printf("%n=== %s on %s ===%n", query.name(), table);
+                jdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) " + sql, String.class,
+                        query.params().apply(0)).forEach(System.out::println);
+
+                long start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++) {
+                    jdbcTemplate.queryForList(sql, query.params().apply(i));
+                }
+                System.out.printf("mean latency: %.3fms%n", (System.nanoTime() - start) / 1e6 / QUERIES);
+            }
+        }
+
+        // Retiring a month: bulk delete on the plain table vs detach on the partitioned one
+        YearMonth oldest = YearMonth.from(firstDay);
+        long start = System.nanoTime();
+        int deleted = jdbcTemplate.update("DELETE FROM " + PLAIN + " WHERE attendance_date >= ? AND attendance_date < ?",
+                Date.valueOf(oldest.atDay(1)), Date.valueOf(oldest.plusMonths(1).atDay(1)));
+        double deleteMillis = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        jdbcTemplate.execute("ALTER TABLE " + PARTITIONED + " DETACH PARTITION " + partitionName(oldest));
+        double detachMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%nretire %s (%d rows): DELETE=%.1fms DETACH=%.1fms%n", oldest, deleted, deleteMillis,
+                detachMillis);
+    }
+
+    private void createTables(LocalDate firstDay, LocalDate lastDay) {
+        String columns = """
+                (id BIGSERIAL NOT NULL, employee_id BIGINT NOT NULL, attendance_date DATE NOT NULL,
+                 status VARCHAR(10) NOT NULL, leave_request_id BIGINT, created_at TIMESTAMP NOT NULL,
+                 UNIQUE (employee_id, attendance_date))
+                """;
+        jdbcTemplate.execute("CREATE TEMP TABLE " + PLAIN + " " + columns + " ON COMMIT DROP");
+        jdbcTemplate.execute("CREATE TEMP TABLE " + PARTITIONED + " " + columns +
+                " PARTITION BY RANGE (attendance_date) ON COMMIT DROP");
+        for (YearMonth month = YearMonth.from(firstDay); !month.isAfter(YearMonth.from(lastDay));
+                month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TEMP TABLE " + partitionName(month) + " PARTITION OF " + PARTITIONED +
+                    " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) +
+                    "') ON COMMIT DROP");
+        }
+        for (String table : List.of(PLAIN, PARTITIONED)) {
+            jdbcTemplate.execute("CREATE INDEX ON " + table + " (employee_id)");
+            jdbcTemplate.execute("CREATE INDEX ON " + table + " (attendance_date)");
+            jdbcTemplate.execute("CREATE INDEX ON " + table + " (employee_id, attendance_date)");
+        }
+    }
+
+    private void seed(String table, LocalDate firstDay, LocalDate lastDay) {
+        jdbcTemplate.update("""
+                INSERT INTO %s (employee_id, attendance_date, status, created_at)
+                SELECT e, d::date, CASE WHEN (e + d::date - DATE '2000-01-01') %% 20 = 0
+                                        THEN 'LEAVE' ELSE 'PRESENT' END, now()
+                FROM generate_series(1, ?) AS e
+                CROSS JOIN generate_series(?::date, ?::date, interval '1 day') AS d
+                """.formatted(table), EMPLOYEES, Date.valueOf(firstDay), Date.valueOf(lastDay));
+        jdbcTemplate.execute("ANALYZE " + table);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITIONED + "_" + month.getYear() + "_" + String.format("%02d", month.getMonthValue());
+    }
+
+    private record BenchQuery(String name, String sql, IntFunction<Object[]> params) {
+    }
+}
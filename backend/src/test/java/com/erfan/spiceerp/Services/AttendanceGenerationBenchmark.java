@@ -0,0 +1,178 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Repos.AttendanceBatchRepository;
+import com.erfan.spiceerp.Repos.AttendanceBatchRepository.AttendanceRow;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark for daily attendance generation of a single chunk against the configured
+ * database. Seeds 1k, 10k and 100k active employees with 5% already on approved leave, then
+ * reports the SQL statements generateAttendanceChunk executes and its wall time. Statements
+ * are counted at the JDBC level, so the JdbcTemplate batch writes are included next to the
+ * statements Hibernate prepares (its statistics, as in StatementCountTest). Works inside a
+ * transaction that is rolled back.
+ *
+ * Not part of the default test run: mvn test -Dtest=AttendanceGenerationBenchmark
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class AttendanceGenerationBenchmark {
+
+    private static final int LEAVE_EVERY_NTH_EMPLOYEE = 20;
+
+    private static final AtomicLong EXECUTED_STATEMENTS = new AtomicLong();
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceBatchRepository attendanceBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1_000, 10_000, 100_000 })
+    void generateDailyAttendance(int employees) {
+        LocalDate date = LocalDate.now();
+        List<Long> employeeIds = seedEmployees(employees);
+        long fromId = employeeIds.get(0);
+        long toId = employeeIds.get(employeeIds.size() - 1);
+
+        // Employees on leave already have their LEAVE row from approval and are skipped by the insert
+        List<AttendanceRow> leaveRows = new ArrayList<>();
+        for (int i = 0; i < employeeIds.size(); i += LEAVE_EVERY_NTH_EMPLOYEE) {
+            leaveRows.add(new AttendanceRow(employeeIds.get(i), date, AttendanceStatus.LEAVE, null));
+        }
+        attendanceBatchRepository.insertAll(leaveRows);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        EXECUTED_STATEMENTS.set(0);
+
+        long startNanos = System.nanoTime();
+        AttendanceService.ChunkResult result = attendanceService.generateAttendanceChunk(date, fromId, toId);
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        System.out.printf("employees=%-7d onLeave=%-6d created=%-7d statements=%-4d (hibernate %d) wallTime=%dms%n",
+                employees, leaveRows.size(), result.presentDays(), EXECUTED_STATEMENTS.get(),
+                statistics.getPrepareStatementCount(), elapsedMillis);
+    }
+
+    /**
+     * Insert active employees with consecutive ids in one statement and return their ids in order.
+     */
+    private List<Long> seedEmployees(int count) {
+        String key = Long.toString(Math.floorMod(System.nanoTime(), 1_679_616L), 36).toUpperCase();
+        return jdbcTemplate.queryForList("""
+                INSERT INTO users (role, name, email, password, user_type, status, employee_code, joining_date)
+                SELECT 'EMPLOYEE', 'Bench ' || g, 'bench-' || ? || '-' || g || '@test.local', 'x', 'Employee', ?,
+                       'BG' || ? || g, DATE '2000-01-01'
+                FROM generate_series(1, ?) AS g
+                ORDER BY g
+                RETURNING id
+                """, Long.class, key, Status.ACTIVE.ordinal(), key, count);
+    }
+
+    /**
+     * Counts every statement the application executes on the data source.
+     */
+    @TestConfiguration
+    static class StatementCounting {
+
+        private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+                "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counting(super.getConnection());
+                        }
+
+                        @Override
+                        public Connection getConnection(String username, String password) throws SQLException {
+                            return counting(super.getConnection(username, password));
+                        }
+                    } : bean;
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return proxy(Connection.class, connection, (method, result) ->
+                    result instanceof Statement statement ? countingStatement(statement) : result);
+        }
+
+        private static Statement countingStatement(Statement statement) {
+            Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return proxy(type, statement, (method, result) -> {
+                if (EXECUTE_METHODS.contains(method)) {
+                    EXECUTED_STATEMENTS.incrementAndGet();
+                }
+                return result;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, Object target, ResultMapper mapper) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, args) -> {
+                        // Spring matches held connections by identity
+                        if (method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (method.getName().equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        try {
+                            return mapper.map(method.getName(), method.invoke(target, args));
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+
+        @FunctionalInterface
+        private interface ResultMapper {
+            Object map(String method, Object result);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.erfan.spiceerp.Services;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AttendanceResponseCacheTest {
+
+    private static final LocalDate PAST_DAY = LocalDate.now().minusMonths(2).withDayOfMonth(10);
+
+    private final AttendanceResponseCache cache = new AttendanceResponseCache(JsonMapper.builder().build(), 1 << 20,
+            Duration.ofHours(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void keepsTheETagUntilAWriteCoversTheDate() {
+        String etag = cache.getDateETag(PAST_DAY);
+
+        cache.onAttendanceChanged(new AttendanceChangedEvent(List.of(1L), PAST_DAY.plusDays(1), PAST_DAY.plusDays(2)));
+        assertEquals(etag, cache.getDateETag(PAST_DAY));
+
+        cache.onAttendanceChanged(new AttendanceChangedEvent(List.of(1L), PAST_DAY, PAST_DAY));
+        assertNotEquals(etag, cache.getDateETag(PAST_DAY));
+    }
+
+    @Test
+    void changesAnEmployeeRangeETagOnlyForWritesOfThatEmployeeAndMonths() {
+        LocalDate start = PAST_DAY.withDayOfMonth(1);
+        LocalDate end = PAST_DAY.withDayOfMonth(PAST_DAY.lengthOfMonth());
+        String etag = cache.getEmployeeRangeETag(1L, start, end);
+
+        cache.onAttendanceChanged(new AttendanceChangedEvent(List.of(2L), PAST_DAY, PAST_DAY));
+        cache.onAttendanceChanged(new AttendanceChangedEvent(List.of(1L), end.plusDays(1), end.plusDays(1)));
+        assertEquals(etag, cache.getEmployeeRangeETag(1L, start, end));
+
+        cache.onAttendanceChanged(AttendanceChangedEvent.allEmployees(PAST_DAY, PAST_DAY));
+        assertNotEquals(etag, cache.getEmployeeRangeETag(1L, start, end));
+
+        String renamed = cache.getEmployeeRangeETag(1L, start, end);
+        cache.onEmployeeChanged(new EmployeeChangedEvent(1L));
+        assertNotEquals(renamed, cache.getEmployeeRangeETag(1L, start, end));
+    }
+
+    @Test
+    void servesClosedDatesFromTheCacheUntilTheyAreWritten() {
+        String etag = cache.getDateETag(PAST_DAY);
+        byte[] first = cache.getDateResponse(PAST_DAY, etag, this::load);
+        byte[] second = cache.getDateResponse(PAST_DAY, etag, this::load);
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+
+        cache.onAttendanceChanged(AttendanceChangedEvent.allEmployees(PAST_DAY, PAST_DAY));
+        cache.getDateResponse(PAST_DAY, cache.getDateETag(PAST_DAY), this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void neitherTagsNorCachesToday() {
+        LocalDate today = LocalDate.now();
+        String etag = cache.getDateETag(today);
+        assertNull(etag);
+        assertNull(cache.getEmployeeRangeETag(1L, PAST_DAY, today));
+        cache.getDateResponse(today, etag, this::load);
+        cache.getDateResponse(today, etag, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void changesETagsOnceTheVersionsAreOlderThanTheMaxAge() {
+        AttendanceResponseCache expiring = new AttendanceResponseCache(JsonMapper.builder().build(), 1 << 20,
+                Duration.ZERO);
+        String etag = expiring.getDateETag(PAST_DAY);
+        expiring.getDateResponse(PAST_DAY, etag, this::load);
+        assertNotEquals(etag, expiring.getDateETag(PAST_DAY));
+    }
+
+    private Object load() {
+        loads.incrementAndGet();
+        return List.of("attendance");
+    }
+}
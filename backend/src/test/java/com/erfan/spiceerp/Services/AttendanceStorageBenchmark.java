@@ -0,0 +1,155 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.AttendanceStorageMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Benchmark for the FULL and EXCEPTIONS attendance storage modes.
+ * Seeds EMPLOYEES employees with a year of generated attendance (5% of days on leave),
+ * reports the table size of each mode and the latency of the attendance read paths before and
+ * after running the compaction script, and checks both modes return the same days.
+ * Runs against the configured database inside a transaction that is rolled back.
+ *
+ * Not part of the default test run: mvn test -Dtest=AttendanceStorageBenchmark
+ */
+@SpringBootTest
+@Transactional
+class AttendanceStorageBenchmark {
+
+    private static final int EMPLOYEES = 2_000;
+    private static final int DAYS = 365;
+    private static final int QUERIES = 50;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareStorageModes() {
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(DAYS - 1);
+        List<Long> employeeIds = seed(firstDay, today);
+
+        long fullBytes = sizeOf("SELECT a.* FROM attendance a JOIN bench_employee b ON b.id = a.employee_id");
+        long fullRows = count("SELECT COUNT(*) FROM attendance a JOIN bench_employee b ON b.id = a.employee_id");
+        Latency fullLatency = measure(AttendanceStorageMode.FULL, employeeIds, firstDay, today);
+        List<?> fullDays = attendanceService.getEmployeeAttendance(employeeIds.get(0), firstDay, today).stream()
+                .map(day -> day.getAttendanceDate() + ":" + day.getStatus()).toList();
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        ScriptUtils.executeSqlScript(connection,
+                new ClassPathResource("db/manual/Compact_present_attendance.sql"));
+
+        long exceptionBytes = sizeOf("SELECT a.* FROM attendance a JOIN bench_employee b ON b.id = a.employee_id")
+                + sizeOf("SELECT p.* FROM attendance_period p JOIN bench_employee b ON b.id = p.employee_id");
+        long exceptionRows = count("SELECT COUNT(*) FROM attendance a JOIN bench_employee b ON b.id = a.employee_id")
+                + count("SELECT COUNT(*) FROM attendance_period p JOIN bench_employee b ON b.id = p.employee_id");
+        Latency exceptionLatency = measure(AttendanceStorageMode.EXCEPTIONS, employeeIds, firstDay, today);
+        List<?> exceptionDays = attendanceService.getEmployeeAttendance(employeeIds.get(0), firstDay, today).stream()
+                .map(day -> day.getAttendanceDate() + ":" + day.getStatus()).toList();
+        useStorageMode(AttendanceStorageMode.FULL);
+
+        if (!fullDays.equals(exceptionDays)) {
+            throw new AssertionError("Storage modes returned different attendance days");
+        }
+
+        System.out.printf("%-10s rows=%-8d size=%-6dKB employeeRange=%.2fms byDate=%.2fms summary=%.2fms%n",
+                "FULL", fullRows, fullBytes / 1024, fullLatency.employeeRange, fullLatency.byDate,
+                fullLatency.summary);
+        System.out.printf("%-10s rows=%-8d size=%-6dKB employeeRange=%.2fms byDate=%.2fms summary=%.2fms%n",
+                "EXCEPTIONS", exceptionRows, exceptionBytes / 1024, exceptionLatency.employeeRange,
+                exceptionLatency.byDate, exceptionLatency.summary);
+    }
+
+    private List<Long> seed(LocalDate firstDay, LocalDate lastDay) {
+        jdbcTemplate.execute("CREATE TEMP TABLE bench_employee (id BIGINT PRIMARY KEY) ON COMMIT DROP");
+        jdbcTemplate.update("""
+                WITH inserted AS (
+                    INSERT INTO users (name, email, password, user_type, status, role, employee_code, joining_date)
+                    SELECT 'Bench ' || g, 'bench' || g || '@bench.local', 'x', 'Employee', 0, 'EMPLOYEE',
+                           'BN' || g, ?
+                    FROM generate_series(1, ?) AS g
+                    RETURNING id
+                )
+                INSERT INTO bench_employee SELECT id FROM inserted
+                """, firstDay, EMPLOYEES);
+        jdbcTemplate.update("""
+                INSERT INTO attendance (employee_id, attendance_date, status, created_at)
+                SELECT b.id, d::date, CASE WHEN (b.id + d::date - DATE '2000-01-01') % 20 = 0
+                                           THEN 'LEAVE' ELSE 'PRESENT' END, now()
+                FROM bench_employee b
+                CROSS JOIN generate_series(?::date, ?::date, interval '1 day') AS d
+                """, firstDay, lastDay);
+        jdbcTemplate.execute("ANALYZE attendance");
+        attendanceService.rebuildRollup(firstDay, lastDay);
+        return jdbcTemplate.queryForList("SELECT id FROM bench_employee ORDER BY id", Long.class);
+    }
+
+    private Latency measure(AttendanceStorageMode mode, List<Long> employeeIds, LocalDate firstDay, LocalDate today) {
+        useStorageMode(mode);
+        LocalDate monthStart = today.minusDays(29);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            attendanceService.getEmployeeAttendance(employeeIds.get(i * employeeIds.size() / QUERIES),
+                    monthStart, today);
+        }
+        double employeeRange = (System.nanoTime() - start) / 1e6 / QUERIES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            attendanceService.getAttendanceByDate(firstDay.plusDays(i));
+        }
+        double byDate = (System.nanoTime() - start) / 1e6 / QUERIES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            attendanceService.getAttendanceSummary(employeeIds.get(i * employeeIds.size() / QUERIES),
+                    firstDay, today);
+        }
+        double summary = (System.nanoTime() - start) / 1e6 / QUERIES;
+
+        return new Latency(employeeRange, byDate, summary);
+    }
+
+    private void useStorageMode(AttendanceStorageMode mode) {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(attendanceService), "storageMode", mode);
+    }
+
+    /**
+     * Size of the rows a query returns, copied into a fresh table so deleted tuples are not counted.
+     */
+    private long sizeOf(String query) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_size");
+        jdbcTemplate.execute("CREATE TEMP TABLE bench_size AS " + query);
+        Long bytes = jdbcTemplate.queryForObject("SELECT pg_total_relation_size('bench_size')", Long.class);
+        return bytes != null ? bytes : 0;
+    }
+
+    private long count(String query) {
+        Long rows = jdbcTemplate.queryForObject(query, Long.class);
+        return rows != null ? rows : 0;
+    }
+
+    private record Latency(double employeeRange, double byDate, double summary) {
+    }
+}
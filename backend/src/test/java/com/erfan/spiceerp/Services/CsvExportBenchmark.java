@@ -0,0 +1,205 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Repos.AttendanceArchiveRepository;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import com.erfan.spiceerp.Repos.ExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark for the streaming attendance CSV export.
+ * Feeds 100k, 1M and 10M rows through ExportService from a stubbed cursor (a ResultSet proxy
+ * over generated rows) into a discarding stream, and reports rows per second and, sampled
+ * while it runs, the peak heap growth (garbage included) and the peak heap still live after
+ * a garbage collection, which is what must not grow with the row count. For 100k and 1M rows the same rows are also built as a
+ * List of AttendanceDto and written as one JSON string, as the list endpoints do.
+ *
+ * Not part of the default test run: mvn test -Dtest=CsvExportBenchmark
+ */
+class CsvExportBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int MATERIALIZED_LIMIT = 1_000_000;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+            .toList();
+
+    @ParameterizedTest
+    @ValueSource(ints = { 100_000, 1_000_000, 10_000_000 })
+    void exportAttendance(int rows) throws Exception {
+        ExportRepository exportRepository = mock(ExportRepository.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(4);
+            long[] row = { 0 };
+            ResultSet rs = resultSet(row);
+            for (; row[0] < rows; row[0]++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(exportRepository).streamAttendance(any(), any(), isNull(), isNull(), any());
+        ExportService exportService = new ExportService(exportRepository, mock(AttendanceArchiveRepository.class),
+                mock(EmployeeRepository.class));
+
+        CountingStream out = new CountingStream();
+        Measurement streamed = measure(() -> {
+            try {
+                return exportService.exportAttendance(FIRST_DAY, FIRST_DAY.plusYears(3), null, null, out);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.printf("rows=%-9d csv:  %,12d rows/s  peakHeap=%,6d MB  liveHeap=%,6d MB  bytes=%,d%n",
+                rows, streamed.rowsPerSecond(rows), streamed.peakHeapMb(), streamed.liveHeapMb(), out.bytes);
+
+        if (rows <= MATERIALIZED_LIMIT) {
+            ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+            Measurement materialized = measure(() -> {
+                List<AttendanceDto> dtos = new ArrayList<>(rows);
+                for (long i = 0; i < rows; i++) {
+                    dtos.add(AttendanceDto.builder()
+                            .id(i + 1)
+                            .employeeId(employeeId(i))
+                            .employeeName("Employee " + employeeId(i))
+                            .employeeCode("EMP" + employeeId(i))
+                            .attendanceDate(date(i))
+                            .status(AttendanceStatus.PRESENT)
+                            .createdAt(LocalDateTime.of(date(i), LocalTime.NOON))
+                            .build());
+                }
+                try {
+                    return (long) mapper.writeValueAsString(dtos).length();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            System.out.printf("rows=%-9d json: %,12d rows/s  peakHeap=%,6d MB  liveHeap=%,6d MB%n",
+                    rows, materialized.rowsPerSecond(rows), materialized.peakHeapMb(), materialized.liveHeapMb());
+        }
+    }
+
+    /**
+     * ResultSet proxy answering the export columns for the row in row[0].
+     */
+    private static ResultSet resultSet(long[] row) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> switch (method.getName() + ":" + (args != null ? args[0] : "")) {
+                    case "getObject:attendance_date" -> date(row[0]);
+                    case "getString:employee_code" -> "EMP" + employeeId(row[0]);
+                    case "getString:employee_name" -> "Employee " + employeeId(row[0]);
+                    case "getString:department" -> "Production";
+                    case "getString:status" -> "PRESENT";
+                    default -> throw new UnsupportedOperationException(method.getName() + " " + args[0]);
+                });
+    }
+
+    private static long employeeId(long row) {
+        return row % EMPLOYEES + 1;
+    }
+
+    private static LocalDate date(long row) {
+        return FIRST_DAY.plusDays(row / EMPLOYEES);
+    }
+
+    /**
+     * Run a task while sampling the used heap, relative to the heap after a GC beforehand.
+     */
+    private static Measurement measure(Supplier<Long> task) throws InterruptedException {
+        System.gc();
+        long baseline = MEMORY.getHeapMemoryUsage().getUsed();
+        long liveBaseline = liveHeap();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicLong livePeak = new AtomicLong(liveBaseline);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(MEMORY.getHeapMemoryUsage().getUsed(), Math::max);
+                livePeak.accumulateAndGet(liveHeap(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long startNanos = System.nanoTime();
+        task.get();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        sampler.interrupt();
+        sampler.join();
+        return new Measurement(elapsedNanos, peak.get() - baseline, livePeak.get() - liveBaseline);
+    }
+
+    /**
+     * Heap in use right after the latest collection of each pool.
+     */
+    private static long liveHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : HEAP_POOLS) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            used += afterGc != null ? afterGc.getUsed() : 0;
+        }
+        return used;
+    }
+
+    private record Measurement(long elapsedNanos, long peakHeapBytes, long liveHeapBytes) {
+
+        long rowsPerSecond(int rows) {
+            return rows * 1_000_000_000L / Math.max(1, elapsedNanos);
+        }
+
+        long peakHeapMb() {
+            return peakHeapBytes / (1024 * 1024);
+        }
+
+        long liveHeapMb() {
+            return liveHeapBytes / (1024 * 1024);
+        }
+    }
+
+    private static final class CountingStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.DashboardDto;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Repos.DashboardRepository;
+import com.erfan.spiceerp.Repos.LeaveRequestRepository;
+import com.erfan.spiceerp.Services.AttendanceService.AttendanceSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private static final int ADMINS = 50;
+
+    private final DashboardRepository dashboardRepository = mock(DashboardRepository.class);
+    private final LeaveRequestRepository leaveRequestRepository = mock(LeaveRequestRepository.class);
+    private final AttendanceService attendanceService = mock(AttendanceService.class);
+
+    DashboardServiceTest() {
+        when(dashboardRepository.countEmployeesByStatus()).thenAnswer(invocation -> {
+            // Slow enough for every caller to arrive while the refresh is running
+            Thread.sleep(200);
+            return Map.of(Status.ACTIVE, 40L, Status.INACTIVE, 2L);
+        });
+        when(attendanceService.getAttendanceSummary(any(), any())).thenReturn(new AttendanceSummary(38L, 2L));
+        when(leaveRequestRepository.countByStatus(LeaveStatus.PENDING)).thenReturn(3L);
+        when(dashboardRepository.findLeavesOverlapping(any(), any(), any())).thenReturn(List.of());
+        when(dashboardRepository.findRecentLeaveRequests(anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void concurrentRequestsShareOneRefresh() throws Exception {
+        DashboardService service = service(Duration.ofMinutes(1));
+        ExecutorService admins = Executors.newFixedThreadPool(ADMINS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DashboardDto>> dashboards = new ArrayList<>();
+        for (int i = 0; i < ADMINS; i++) {
+            dashboards.add(admins.submit(() -> {
+                start.await();
+                return service.getDashboard();
+            }));
+        }
+        start.countDown();
+        DashboardDto first = dashboards.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<DashboardDto> dashboard : dashboards) {
+            assertSame(first, dashboard.get(5, TimeUnit.SECONDS));
+        }
+        admins.shutdown();
+
+        verify(dashboardRepository, times(1)).countEmployeesByStatus();
+        verify(leaveRequestRepository, times(1)).countByStatus(LeaveStatus.PENDING);
+        assertEquals(38L, first.getPresentToday());
+        assertEquals(2L, first.getOnLeaveToday());
+        assertEquals(3L, first.getPendingLeaveRequests());
+        assertEquals(40L, first.getHeadcountByStatus().get(Status.ACTIVE));
+    }
+
+    @Test
+    void refreshesOnceTheCachedDashboardExpires() {
+        DashboardService service = service(Duration.ZERO);
+        service.getDashboard();
+        service.getDashboard();
+        verify(dashboardRepository, times(2)).countEmployeesByStatus();
+    }
+
+    private DashboardService service(Duration ttl) {
+        return new DashboardService(dashboardRepository, leaveRequestRepository, attendanceService,
+                new SimpleAsyncTaskExecutor(), ttl, 10);
+    }
+}
@@ -0,0 +1,172 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Enums.UserType;
+import com.erfan.spiceerp.Exception.BusinessException;
+import com.erfan.spiceerp.Models.Employee;
+import com.erfan.spiceerp.Models.LeaveRequest;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import com.erfan.spiceerp.Repos.LeaveRequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stress test for concurrent leave approvals. In every round several admins approve, at the
+ * same moment, pending leaves of one employee that all overlap, or the same pending leave;
+ * exactly one approval may get through. Overlap is enforced by the employee row lock taken
+ * on approval and by the exclusion constraint of db/migration/V7__Approved_leave_exclusion.sql,
+ * which the test checks is installed. Every approval commits, and the rows created are deleted
+ * afterwards.
+ */
+@SpringBootTest
+class LeaveApprovalConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+    private static final int ADMINS = 8;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2099, 1, 5);
+    private static final String APPROVED = "approved";
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> employeeIds = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void exclusionConstraintIsInstalled() {
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conrelid = 'leave_request'::regclass AND conname = ?",
+                Integer.class, LeaveRequest.APPROVED_OVERLAP_CONSTRAINT));
+    }
+
+    @Test
+    void overlappingLeavesAreApprovedOnce() throws Exception {
+        Long adminId = seedEmployee().getId();
+        for (int round = 0; round < ROUNDS; round++) {
+            Employee employee = seedEmployee();
+            // Leave i runs from day i to day i + ADMINS, so every two leaves overlap
+            List<Long> leaveIds = new ArrayList<>(ADMINS);
+            for (int i = 0; i < ADMINS; i++) {
+                leaveIds.add(seedLeave(employee, FIRST_DAY.plusDays(i), FIRST_DAY.plusDays(i + ADMINS)));
+            }
+
+            List<String> outcomes = approveConcurrently(leaveIds, adminId);
+
+            assertEquals(1, Collections.frequency(outcomes, APPROVED), "round " + round + ": " + outcomes);
+            assertEquals(ADMINS - 1,
+                    Collections.frequency(outcomes, "This leave overlaps with another approved leave"),
+                    "round " + round + ": " + outcomes);
+            assertEquals(1, leaveRequestRepository.findByEmployeeIdAndStatus(employee.getId(), LeaveStatus.APPROVED)
+                    .size());
+            assertEquals(ADMINS + 1, leaveDays(employee.getId()));
+        }
+    }
+
+    @Test
+    void sameLeaveIsApprovedOnce() throws Exception {
+        Long adminId = seedEmployee().getId();
+        for (int round = 0; round < ROUNDS; round++) {
+            Employee employee = seedEmployee();
+            Long leaveId = seedLeave(employee, FIRST_DAY, FIRST_DAY.plusDays(2));
+
+            List<String> outcomes = approveConcurrently(Collections.nCopies(ADMINS, leaveId), adminId);
+
+            assertEquals(1, Collections.frequency(outcomes, APPROVED), "round " + round + ": " + outcomes);
+            assertEquals(ADMINS - 1, Collections.frequency(outcomes, "Only pending leave requests can be approved"),
+                    "round " + round + ": " + outcomes);
+            assertEquals(3, leaveDays(employee.getId()));
+        }
+    }
+
+    @AfterEach
+    void deleteSeededData() {
+        for (Long employeeId : employeeIds) {
+            jdbcTemplate.update("DELETE FROM attendance WHERE employee_id = ?", employeeId);
+            jdbcTemplate.update("DELETE FROM attendance_monthly_rollup WHERE employee_id = ?", employeeId);
+            jdbcTemplate.update("DELETE FROM leave_balance WHERE employee_id = ?", employeeId);
+            jdbcTemplate.update("DELETE FROM leave_request WHERE employee_id = ?", employeeId);
+        }
+        for (Long employeeId : employeeIds) {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", employeeId);
+        }
+        employeeIds.clear();
+    }
+
+    /**
+     * Approve each leave from its own admin thread, all released at once. Returns "approved" or
+     * the business error of each approval.
+     */
+    private List<String> approveConcurrently(List<Long> leaveIds, Long adminId) throws Exception {
+        ExecutorService admins = Executors.newFixedThreadPool(leaveIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> approvals = new ArrayList<>();
+        for (Long leaveId : leaveIds) {
+            approvals.add(admins.submit(() -> {
+                start.await();
+                try {
+                    leaveService.approveLeave(leaveId, adminId);
+                    return APPROVED;
+                } catch (BusinessException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        start.countDown();
+        List<String> outcomes = new ArrayList<>(approvals.size());
+        for (Future<String> approval : approvals) {
+            outcomes.add(approval.get(30, TimeUnit.SECONDS));
+        }
+        admins.shutdown();
+        return outcomes;
+    }
+
+    private long leaveDays(Long employeeId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM attendance WHERE employee_id = ? AND status = 'LEAVE'", Long.class, employeeId);
+    }
+
+    private Long seedLeave(Employee employee, LocalDate startDate, LocalDate endDate) {
+        return leaveRequestRepository.save(LeaveRequest.builder()
+                .employee(employee)
+                .leaveType(LeaveType.LOP)
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(LeaveStatus.PENDING)
+                .build()).getId();
+    }
+
+    private Employee seedEmployee() {
+        String key = "LA" + Long.toString(System.nanoTime(), 36).toUpperCase();
+        Employee employee = new Employee(null, "Approval " + key, key + "@test.local", "x", key, null, FIRST_DAY);
+        employee.setUserType(UserType.Employee);
+        employee.setStatus(Status.ACTIVE);
+        Employee saved = employeeRepository.save(employee);
+        employeeIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,36 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void decodesTheKeysItEncoded() {
+        LocalDateTime appliedAt = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123456000);
+        String cursor = PageCursor.encode("appliedAt", appliedAt, 42L);
+
+        assertArrayEquals(new String[] { appliedAt.toString(), "42" }, PageCursor.decode(cursor, "appliedAt", 2));
+    }
+
+    @Test
+    void startsFromTheFirstSliceWithoutCursor() {
+        assertNull(PageCursor.decode(null, "id", 1));
+        assertNull(PageCursor.decode("", "id", 1));
+    }
+
+    @Test
+    void rejectsCursorsOfAnotherSortOrMalformed() {
+        String cursor = PageCursor.encode("name", "Anu", 7L);
+
+        assertThrows(BusinessException.class, () -> PageCursor.decode(cursor, "id", 1));
+        assertThrows(BusinessException.class, () -> PageCursor.decode("not base64!", "id", 1));
+        assertThrows(BusinessException.class, () -> PageCursor.key("x", Long::valueOf));
+    }
+}
@@ -0,0 +1,112 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.CacheStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadThroughCacheTest {
+
+    private static final int ADMINS = 50;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ReadThroughCache<String, Integer> cache = new ReadThroughCache<>("test", 10, Duration.ofMinutes(1));
+        ExecutorService admins = Executors.newFixedThreadPool(ADMINS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < ADMINS; i++) {
+            results.add(admins.submit(() -> {
+                start.await();
+                return cache.get("2024-01-01", () -> {
+                    // Slow enough for every caller to arrive while the load is running
+                    sleep(200);
+                    return loads.incrementAndGet();
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS));
+        }
+        admins.shutdown();
+
+        CacheStatsDto stats = cache.getStats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getMisses());
+        assertEquals(ADMINS - 1, stats.getHits() + stats.getCoalesced());
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotCached() throws Exception {
+        ReadThroughCache<String, Integer> cache = new ReadThroughCache<>("test", 10, Duration.ofMinutes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<Integer> stale = reader.submit(() -> cache.get("key", () -> {
+            loading.countDown();
+            await(invalidated);
+            return loads.incrementAndGet();
+        }));
+        loading.await();
+        cache.invalidate("key");
+        invalidated.countDown();
+
+        assertEquals(1, stale.get(5, TimeUnit.SECONDS));
+        assertEquals(2, cache.get("key", loads::incrementAndGet));
+        reader.shutdown();
+    }
+
+    @Test
+    void expiredAndOldestEntriesAreEvicted() {
+        ReadThroughCache<String, Integer> expiring = new ReadThroughCache<>("test", 10, Duration.ZERO);
+        expiring.get("key", loads::incrementAndGet);
+        assertEquals(2, expiring.get("key", loads::incrementAndGet));
+
+        ReadThroughCache<String, Integer> bounded = new ReadThroughCache<>("test", 2, Duration.ofMinutes(1));
+        bounded.get("a", () -> 1);
+        bounded.get("b", () -> 2);
+        bounded.get("c", () -> 3);
+        assertEquals(2, bounded.getStats().getEntries());
+        assertEquals(10, bounded.get("a", () -> 10));
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        ReadThroughCache<String, Integer> cache = new ReadThroughCache<>("test", 10, Duration.ofMinutes(1));
+        assertThrows(IllegalStateException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals(1, cache.get("key", () -> 1));
+        assertEquals(1, cache.getStats().getLoadFailures());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.ApiResponse;
+import com.erfan.spiceerp.Dto.EmployeeDto;
+import com.erfan.spiceerp.Dto.LeaveRequestDto;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Repos.SparseListRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark for sparse fieldsets on the largest list endpoints, /admin/leaves and
+ * /admin/employees. For each row count it builds the full DTO list and serialises it in the
+ * ApiResponse envelope, then reads the same rows through SparseListRepository (a stubbed
+ * JdbcTemplate feeding a ResultSet proxy through its row mapper) with the fields the leave
+ * approval and employee list pages display, and serialises those. Reports payload bytes and
+ * milliseconds for each, and prints the generated SQL; the database side (unread TEXT
+ * column, skipped joins) can be compared by running EXPLAIN ANALYZE on it.
+ *
+ * Not part of the default test run: mvn test -Dtest=SparseFieldsBenchmark
+ */
+class SparseFieldsBenchmark {
+
+    private static final int EMPLOYEES = 1_000;
+    private static final int REASON_LENGTH = 400;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private static final Set<String> LEAVE_FIELDS = Set.of("id", "employeeName", "employeeCode", "leaveType",
+            "startDate", "endDate", "totalDays", "status");
+    private static final Set<String> EMPLOYEE_FIELDS = Set.of("id", "employeeCode", "fullName", "department",
+            "status");
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(ints = { 10_000, 100_000 })
+    void leaves(int rows) throws Exception {
+        String reason = "x".repeat(REASON_LENGTH);
+        Result full = measure(() -> {
+            List<LeaveRequestDto> leaves = new ArrayList<>(rows);
+            for (long i = 0; i < rows; i++) {
+                leaves.add(LeaveRequestDto.builder()
+                        .id(i + 1)
+                        .employeeId(employeeId(i))
+                        .employeeName("Employee " + employeeId(i))
+                        .employeeCode("EMP" + employeeId(i))
+                        .leaveType(LeaveType.CL)
+                        .startDate(FIRST_DAY.plusDays(i % 300))
+                        .endDate(FIRST_DAY.plusDays(i % 300 + 1))
+                        .totalDays(2)
+                        .reason(reason)
+                        .status(LeaveStatus.APPROVED)
+                        .appliedAt(LocalDateTime.of(FIRST_DAY, LocalTime.NOON))
+                        .reviewedById(1L)
+                        .reviewedByName("Admin")
+                        .reviewedAt(LocalDateTime.of(FIRST_DAY, LocalTime.NOON))
+                        .build());
+            }
+            return write(leaves);
+        });
+
+        List<String> columns = List.of("id", "employeeName", "employeeCode", "leaveType", "startDate", "endDate",
+                "totalDays", "status");
+        List<LongFunction<Object>> values = List.of(
+                i -> i + 1,
+                i -> "Employee " + employeeId(i),
+                i -> "EMP" + employeeId(i),
+                i -> "CL",
+                i -> FIRST_DAY.plusDays(i % 300),
+                i -> FIRST_DAY.plusDays(i % 300 + 1),
+                i -> 2,
+                i -> "APPROVED");
+        String[] sql = new String[1];
+        SparseListRepository repository = repository(rows, columns, values, sql);
+        Result sparse = measure(() -> write(repository.findLeaveRequests(LEAVE_FIELDS, null, null)));
+
+        report("leaves", rows, full, sparse, sql[0]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 10_000, 100_000 })
+    void employees(int rows) throws Exception {
+        Result full = measure(() -> {
+            List<EmployeeDto> employees = new ArrayList<>(rows);
+            for (long i = 0; i < rows; i++) {
+                employees.add(EmployeeDto.builder()
+                        .id(i + 1)
+                        .employeeCode("EMP" + (i + 1))
+                        .fullName("Employee " + (i + 1))
+                        .email("employee" + (i + 1) + "@keralaspice.example")
+                        .phone("9800000000")
+                        .joiningDate(FIRST_DAY)
+                        .status(Status.ACTIVE)
+                        .department("Production")
+                        .designation("Operator")
+                        .build());
+            }
+            return write(employees);
+        });
+
+        List<String> columns = List.of("id", "employeeCode", "fullName", "status", "department");
+        List<LongFunction<Object>> values = List.of(
+                i -> i + 1,
+                i -> "EMP" + (i + 1),
+                i -> "Employee " + (i + 1),
+                i -> Status.ACTIVE.ordinal(),
+                i -> "Production");
+        String[] sql = new String[1];
+        SparseListRepository repository = repository(rows, columns, values, sql);
+        Result sparse = measure(() -> write(repository.findEmployees(EMPLOYEE_FIELDS, null, null)));
+
+        report("employees", rows, full, sparse, sql[0]);
+    }
+
+    private long write(Object rows) {
+        try {
+            return mapper.writeValueAsBytes(ApiResponse.success(rows)).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Repository over a JdbcTemplate stub that maps the given number of rows, answering the
+     * selected columns (in DTO order) by index.
+     */
+    @SuppressWarnings("unchecked")
+    private static SparseListRepository repository(int rows, List<String> columns, List<LongFunction<Object>> values,
+            String[] sql) {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            sql[0] = invocation.getArgument(0);
+            RowMapper<Map<String, Object>> rowMapper = invocation.getArgument(2);
+            long[] row = { 0 };
+            ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                        Object value = values.get((Integer) args[0] - 1).apply(row[0]);
+                        return switch (method.getName()) {
+                            case "getObject", "getString" -> value;
+                            case "getInt" -> ((Number) value).intValue();
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        };
+                    });
+            List<Map<String, Object>> mapped = new ArrayList<>(rows);
+            for (; row[0] < rows; row[0]++) {
+                mapped.add(rowMapper.mapRow(rs, (int) row[0]));
+            }
+            if (mapped.get(0).size() != columns.size()) {
+                throw new IllegalStateException("Expected columns " + columns + " but got " + mapped.get(0).keySet());
+            }
+            return mapped;
+        }).when(jdbcTemplate).query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class));
+        return new SparseListRepository(jdbcTemplate);
+    }
+
+    private static long employeeId(long row) {
+        return row % EMPLOYEES + 1;
+    }
+
+    private static Result measure(Supplier<Long> task) {
+        // Warm up once so the comparison is not dominated by class loading and JIT
+        task.get();
+        long startNanos = System.nanoTime();
+        long bytes = task.get();
+        return new Result(bytes, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private static void report(String endpoint, int rows, Result full, Result sparse, String sql) {
+        System.out.printf("%-9s rows=%-7d full: %,12d bytes %,6d ms  sparse: %,12d bytes %,6d ms  (%.0f%% of bytes)%n",
+                endpoint, rows, full.bytes(), full.millis(), sparse.bytes(), sparse.millis(),
+                100.0 * sparse.bytes() / full.bytes());
+        System.out.println("  " + sql);
+    }
+
+    private record Result(long bytes, long millis) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Enums.LeaveStatus;
+import com.erfan.spiceerp.Enums.LeaveType;
+import com.erfan.spiceerp.Enums.Status;
+import com.erfan.spiceerp.Enums.UserType;
+import com.erfan.spiceerp.Models.Attendance;
+import com.erfan.spiceerp.Models.Employee;
+import com.erfan.spiceerp.Models.LeaveBalance;
+import com.erfan.spiceerp.Models.LeaveRequest;
+import com.erfan.spiceerp.Repos.AttendanceRepository;
+import com.erfan.spiceerp.Repos.EmployeeRepository;
+import com.erfan.spiceerp.Repos.LeaveBalanceRepository;
+import com.erfan.spiceerp.Repos.LeaveRequestRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the attendance and leave list endpoints run a fixed number of SQL statements
+ * however many rows they return, i.e. employees and reviewers are not lazily loaded per row.
+ * Runs against the configured database inside a transaction that is rolled back, with the
+ * read-through caches expiring immediately.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Count the statements of every load rather than read the read-through caches
+        "attendance.by-date-cache.ttl=PT0S",
+        "leave.pending-cache.ttl=PT0S" })
+@Transactional
+class StatementCountTest {
+
+    private static final LocalDate SMALL_DAY = LocalDate.of(2001, 1, 1);
+    private static final LocalDate LARGE_DAY = LocalDate.of(2001, 1, 2);
+    private static final int FEW = 1;
+    private static final int MANY = 25;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void attendanceByDateRunsConstantStatements() {
+        seedAttendance(SMALL_DAY, FEW);
+        seedAttendance(LARGE_DAY, MANY);
+
+        assertEquals(statements(() -> attendanceService.getAttendanceByDate(SMALL_DAY)),
+                statements(() -> attendanceService.getAttendanceByDate(LARGE_DAY)));
+        assertEquals(statements(() -> attendanceService.getAttendanceByDate(SMALL_DAY,
+                        PageRequest.of(0, 50, Sort.by("employee.name")))),
+                statements(() -> attendanceService.getAttendanceByDate(LARGE_DAY,
+                        PageRequest.of(0, 50, Sort.by("employee.name")))));
+    }
+
+    @Test
+    void leaveRequestListsRunConstantStatements() {
+        seedLeaves(FEW);
+        long fewAll = statements(() -> leaveService.getAllLeaveRequests());
+        long fewPending = statements(() -> leaveService.getPendingLeaveRequests());
+        long fewPage = statements(() -> leaveService.getPendingLeaveRequests(PageRequest.of(0, 50)));
+
+        seedLeaves(MANY);
+        assertEquals(fewAll, statements(() -> leaveService.getAllLeaveRequests()));
+        assertEquals(fewPending, statements(() -> leaveService.getPendingLeaveRequests()));
+        assertEquals(fewPage, statements(() -> leaveService.getPendingLeaveRequests(PageRequest.of(0, 50))));
+    }
+
+    @Test
+    void leaveBalancesRunConstantStatements() {
+        List<Employee> few = seedEmployees(FEW);
+        seedBalances(few);
+        long fewYear = statements(() -> leaveBalanceRepository.findByYear(Year.now().getValue())
+                .forEach(balance -> balance.getEmployee().getName()));
+        long fewEmployee = statements(() -> leaveService.getLeaveBalances(few.get(0).getId()));
+
+        seedBalances(seedEmployees(MANY));
+        assertEquals(fewYear, statements(() -> leaveBalanceRepository.findByYear(Year.now().getValue())
+                .forEach(balance -> balance.getEmployee().getName())));
+        assertEquals(fewEmployee, statements(() -> leaveService.getLeaveBalances(few.get(0).getId())));
+    }
+
+    private long statements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedAttendance(LocalDate date, int employees) {
+        for (Employee employee : seedEmployees(employees)) {
+            attendanceRepository.save(Attendance.builder()
+                    .employee(employee)
+                    .attendanceDate(date)
+                    .status(AttendanceStatus.PRESENT)
+                    .build());
+        }
+    }
+
+    private void seedLeaves(int employees) {
+        List<Employee> seeded = seedEmployees(employees);
+        for (int i = 0; i < seeded.size(); i++) {
+            leaveRequestRepository.save(leave(seeded.get(i), LeaveStatus.PENDING, null));
+            // Every approved leave has a different reviewer
+            leaveRequestRepository.save(leave(seeded.get(i), LeaveStatus.APPROVED,
+                    seeded.get((i + 1) % seeded.size())));
+        }
+    }
+
+    private LeaveRequest leave(Employee employee, LeaveStatus status, Employee reviewer) {
+        return LeaveRequest.builder()
+                .employee(employee)
+                .leaveType(LeaveType.CL)
+                .startDate(SMALL_DAY)
+                .endDate(SMALL_DAY)
+                .totalDays(1)
+                .status(status)
+                .appliedAt(LocalDateTime.now())
+                .reviewedBy(reviewer)
+                .reviewedAt(reviewer != null ? LocalDateTime.now() : null)
+                .build();
+    }
+
+    private void seedBalances(List<Employee> employees) {
+        for (Employee employee : employees) {
+            for (LeaveType leaveType : LeaveType.values()) {
+                leaveBalanceRepository.save(LeaveBalance.builder()
+                        .employee(employee)
+                        .leaveType(leaveType)
+                        .total(12)
+                        .used(0)
+                        .remaining(12)
+                        .year(Year.now().getValue())
+                        .build());
+            }
+        }
+    }
+
+    private List<Employee> seedEmployees(int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String key = "ST" + Long.toString(System.nanoTime(), 36).toUpperCase() + i;
+            Employee employee = new Employee(null, "Statement " + key, key + "@test.local", "x", key, null,
+                    SMALL_DAY);
+            employee.setUserType(UserType.Employee);
+            employee.setStatus(Status.ACTIVE);
+            employees.add(employeeRepository.save(employee));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,91 @@
+package com.erfan.spiceerp.Services;
+
+import com.erfan.spiceerp.Dto.AttendanceDto;
+import com.erfan.spiceerp.Enums.AttendanceStatus;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository;
+import com.erfan.spiceerp.Repos.AttendanceDayRepository.AttendanceDay;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TodayAttendanceBoardTest {
+
+    private final LocalDate today = LocalDate.now();
+    private final AttendanceDayRepository attendanceDayRepository = mock(AttendanceDayRepository.class);
+    private final TodayAttendanceBoard board = new TodayAttendanceBoard(attendanceDayRepository, Duration.ofHours(1));
+
+    TodayAttendanceBoardTest() {
+        when(attendanceDayRepository.findByDate(today)).thenReturn(List.of(
+                day(1L, AttendanceStatus.PRESENT), day(2L, AttendanceStatus.PRESENT), day(3L, AttendanceStatus.LEAVE)));
+    }
+
+    @Test
+    void servesListCountsAndFiltersFromOneLoad() {
+        board.rebuild(today);
+
+        assertEquals(3, board.getAttendance(null).size());
+        assertEquals(List.of(3L), board.getAttendance(AttendanceStatus.LEAVE).stream()
+                .map(AttendanceDto::getEmployeeId).toList());
+        assertEquals(2L, board.getCounts().get(AttendanceStatus.PRESENT));
+        assertEquals(1L, board.getCounts().get(AttendanceStatus.LEAVE));
+        verify(attendanceDayRepository, times(1)).findByDate(today);
+    }
+
+    @Test
+    void leaveChangeUpdatesOnlyThatEmployee() {
+        board.rebuild(today);
+        when(attendanceDayRepository.findByDateAndEmployees(today, List.of(2L)))
+                .thenReturn(List.of(day(2L, AttendanceStatus.LEAVE)));
+
+        board.onAttendanceChanged(new AttendanceChangedEvent(List.of(2L), today, today.plusDays(2)));
+
+        assertEquals(2L, board.getCounts().get(AttendanceStatus.LEAVE));
+        assertEquals(AttendanceStatus.LEAVE, board.getAttendance(null).get(1).getStatus());
+        verify(attendanceDayRepository, times(1)).findByDate(today);
+    }
+
+    @Test
+    void employeeWithoutAttendanceIsRemoved() {
+        board.rebuild(today);
+        when(attendanceDayRepository.findByDateAndEmployees(today, List.of(3L))).thenReturn(List.of());
+
+        board.onAttendanceChanged(new AttendanceChangedEvent(List.of(3L), today, today));
+
+        assertEquals(2, board.getAttendance(null).size());
+        assertEquals(0L, board.getCounts().get(AttendanceStatus.LEAVE));
+    }
+
+    @Test
+    void changesOfOtherDatesAreIgnored() {
+        board.rebuild(today);
+
+        board.onAttendanceChanged(AttendanceChangedEvent.allEmployees(today.plusDays(1), today.plusDays(3)));
+
+        verify(attendanceDayRepository, times(1)).findByDate(any());
+        verify(attendanceDayRepository, never()).findByDateAndEmployees(any(), anyCollection());
+    }
+
+    @Test
+    void boardOfAnotherDayIsReplacedOnRead() {
+        board.rebuild(today.minusDays(1));
+
+        assertEquals(3, board.getAttendance(null).size());
+        verify(attendanceDayRepository, times(1)).findByDate(today);
+    }
+
+    private AttendanceDay day(Long employeeId, AttendanceStatus status) {
+        return new AttendanceDay(employeeId * 10, employeeId, "Employee " + employeeId, "EMP" + employeeId, today,
+                status, status == AttendanceStatus.LEAVE ? 100L : null, null);
+    }
+}
@@ -14,9 +14,9 @@ import {
     HiOutlineClock,
 } from 'react-icons/hi2';
 import { useAuth } from '../../context/AuthContext';
-import { employeeService } from '../../services/employeeService';
 import { leaveService } from '../../services/leaveService';
 import { attendanceService } from '../../services/attendanceService';
+import { dashboardService } from '../../services/dashboardService';
 import toast from 'react-hot-toast';
 
 const DashboardHome = () => {
@@ -37,18 +37,13 @@ const DashboardHome = () => {
     const loadStats = async () => {
         try {
             if (isAdmin()) {
-                const [employeesRes, pendingLeavesRes] = await Promise.all([
-                    employeeService.getAll(),
-                    leaveService.getPending(),
-                ]);
-
-                const employees = employeesRes.data || [];
-                const pendingLeaves = pendingLeavesRes.data || [];
+                const dashboardRes = await dashboardService.get();
+                const headcount = dashboardRes.data?.headcountByStatus || {};
 
                 setStats({
-                    totalEmployees: employees.length,
-                    activeEmployees: employees.filter(e => e.status === 'ACTIVE').length,
-                    pendingLeaves: pendingLeaves.length,
+                    totalEmployees: Object.values(headcount).reduce((total, count) => total + count, 0),
+                    activeEmployees: headcount.ACTIVE || 0,
+                    pendingLeaves: dashboardRes.data?.pendingLeaveRequests || 0,
                     myPendingLeaves: 0,
                 });
             } else {
@@ -47,6 +47,30 @@ export const attendanceService = {
         return response.data;
     },
 
+    // Get my attendance calendar for a month (or the whole year without month)
+    getMyCalendar: async (year, month) => {
+        const response = await api.get('/employee/attendance/my/calendar', { params: { year, month } });
+        return response.data;
+    },
+
+    // Admin: Get employee attendance calendar for a month (or the whole year without month)
+    getEmployeeCalendar: async (employeeId, year, month) => {
+        const response = await api.get(`/admin/attendance/employee/${employeeId}/calendar`, {
+            params: { year, month },
+        });
+        return response.data;
+    },
+
+    // Admin: Get attendance register (employee x day) for a month (or the whole year without month)
+    getAttendanceMatrix: async (year, month, department) => {
+        const params = { year };
+        if (month) params.month = month;
+        if (department) params.department = department;
+
+        const response = await api.get('/admin/attendance/matrix', { params });
+        return response.data;
+    },
+
     // Admin: Generate attendance (manual trigger)
     generateAttendance: async () => {
         const response = await api.post('/admin/attendance/generate');
@@ -0,0 +1,22 @@
+import api from './api';
+
+export const batchService = {
+    // Run several GET requests in one round trip. Takes { key: path } and resolves to
+    // { key: response body }; a failed read rejects with its error body.
+    get: async (paths) => {
+        const keys = Object.keys(paths);
+        const response = await api.post('/batch', keys.map((id) => ({ id, path: paths[id] })));
+        const results = {};
+        for (const result of response.data.data) {
+            if (result.status >= 400) {
+                throw Object.assign(new Error(result.body?.message || 'Request failed'), {
+                    response: { status: result.status, data: result.body },
+                });
+            }
+            results[result.id] = result.body;
+        }
+        return results;
+    },
+};
+
+export default batchService;
@@ -0,0 +1,11 @@
+import api from './api';
+
+export const dashboardService = {
+    // Admin: Get headcounts, today's attendance, pending and recent leave requests
+    get: async () => {
+        const response = await api.get('/admin/dashboard');
+        return response.data;
+    },
+};
+
+export default dashboardService;